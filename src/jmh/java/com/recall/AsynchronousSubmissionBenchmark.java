@@ -0,0 +1,64 @@
+package com.recall;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Measures the throughput of submitting retried calls with {@link AsynchronousRetriableCallable#callAsync()} from
+ * several threads contending for the shared executor. Each operation submits a call and waits for its result, so the
+ * executor hand-off and completion are both included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsynchronousSubmissionBenchmark {
+
+    private static final Object VALUE = "BenchmarkValue";
+
+    private static final RetryStrategy RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(5)
+            .waitTime(100l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private AsynchronousRetriableCallable<Object> asynchronous;
+
+    @Setup
+    public void setUp() {
+        this.asynchronous = AsynchronousRetriableCallable.builder()
+                .retryStrategy(RETRY_STRATEGY)
+                .callable(() -> VALUE)
+                .build();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object uncontended() {
+        return this.asynchronous.callAsync().join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object contended() {
+        return this.asynchronous.callAsync().join();
+    }
+
+}
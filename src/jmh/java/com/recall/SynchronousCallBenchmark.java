@@ -0,0 +1,79 @@
+package com.recall;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Measures the overhead of a retried call whose first attempt succeeds, compared to invoking the raw {@link Callable}.
+ * <ul>
+ * <li><b>raw</b>: the callable invoked directly.</li>
+ * <li><b>synchronous</b>: {@link SynchronousRetriableCallable#call()} with its defaults, making the first attempt on
+ * the calling thread.</li>
+ * <li><b>timed</b>: {@link SynchronousRetriableCallable#call()} with an attempt timeout, making the first attempt on
+ * the executor.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SynchronousCallBenchmark {
+
+    private static final Object VALUE = "BenchmarkValue";
+
+    private static final RetryStrategy RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(5)
+            .waitTime(100l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private final Callable<Object> callable = () -> VALUE;
+
+    private SynchronousRetriableCallable<Object> synchronous;
+
+    private SynchronousRetriableCallable<Object> timed;
+
+    @Setup
+    public void setUp() {
+        this.synchronous = SynchronousRetriableCallable.builder()
+                .retryStrategy(RETRY_STRATEGY)
+                .callable(this.callable)
+                .build();
+        this.timed = this.synchronous.toBuilder()
+                .attemptTimeout(TimeUnit.SECONDS.toMillis(30))
+                .build();
+    }
+
+    @Benchmark
+    public Object raw() throws Exception {
+        return this.callable.call();
+    }
+
+    @Benchmark
+    public Object synchronous() throws Exception {
+        return this.synchronous.call();
+    }
+
+    @Benchmark
+    public Object timed() throws Exception {
+        return this.timed.call();
+    }
+
+}
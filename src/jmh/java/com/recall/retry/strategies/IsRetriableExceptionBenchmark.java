@@ -0,0 +1,99 @@
+package com.recall.retry.strategies;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@link RetryStrategy#isRetriableException(Exception)}, made for every failed attempt, as the
+ * number of retriable exceptions grows. It is measured for an exception which is retriable only as the last of them and
+ * for one which is not retriable at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsRetriableExceptionBenchmark {
+
+    /** Unrelated exception types, ending with the one thrown by {@link #retriableHit()}. */
+    private static final List<Class<? extends Exception>> EXCEPTIONS = Arrays.asList(
+            java.util.concurrent.ExecutionException.class,
+            java.net.SocketTimeoutException.class,
+            java.net.ConnectException.class,
+            java.net.UnknownHostException.class,
+            java.net.NoRouteToHostException.class,
+            java.net.PortUnreachableException.class,
+            java.net.ProtocolException.class,
+            java.net.HttpRetryException.class,
+            java.io.EOFException.class,
+            java.io.InterruptedIOException.class,
+            java.io.UncheckedIOException.class,
+            java.nio.channels.ClosedChannelException.class,
+            java.nio.channels.InterruptedByTimeoutException.class,
+            java.nio.file.FileSystemException.class,
+            java.sql.SQLTransientException.class,
+            java.sql.SQLRecoverableException.class,
+            java.sql.SQLTimeoutException.class,
+            java.sql.SQLTransientConnectionException.class,
+            java.util.ConcurrentModificationException.class,
+            java.util.concurrent.RejectedExecutionException.class,
+            java.util.concurrent.CancellationException.class,
+            java.util.concurrent.BrokenBarrierException.class,
+            java.util.concurrent.CompletionException.class,
+            java.lang.reflect.UndeclaredThrowableException.class,
+            java.rmi.ConnectIOException.class,
+            java.rmi.NoSuchObjectException.class,
+            java.rmi.ServerException.class,
+            java.rmi.UnmarshalException.class,
+            javax.naming.CommunicationException.class,
+            javax.naming.ServiceUnavailableException.class,
+            javax.naming.LimitExceededException.class,
+            java.util.concurrent.TimeoutException.class);
+
+    @Param({ "1", "8", "32" })
+    private int retriableExceptionCount;
+
+    private RetryStrategy classifyingStrategy;
+
+    private Exception retriable;
+
+    private final Exception nonRetriable = new IOException("Not retriable");
+
+    @Setup
+    public void setUp() throws Exception {
+        final List<Class<? extends Exception>> retriableExceptions = EXCEPTIONS
+                .subList(EXCEPTIONS.size() - this.retriableExceptionCount, EXCEPTIONS.size());
+        this.classifyingStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(Integer.MAX_VALUE)
+                .waitTime(100l)
+                .retriableExceptions(retriableExceptions)
+                .build();
+        this.retriable = EXCEPTIONS.get(EXCEPTIONS.size() - 1).newInstance();
+    }
+
+    @Benchmark
+    public boolean retriableHit() {
+        return this.classifyingStrategy.isRetriableException(this.retriable);
+    }
+
+    @Benchmark
+    public boolean retriableMiss() {
+        return this.classifyingStrategy.isRetriableException(this.nonRetriable);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.recall.retry.strategies;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.recall.retry.RetriableCallState;
+
+/**
+ * Measures the cost of {@link ExponentialBackoffRetryStrategy#getWaitTime(RetriableCallState)}, made for every retry,
+ * and for comparison that of the jittered backoff strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitTimeBenchmark {
+
+    @Param({ "1", "5", "10" })
+    private int retryCount;
+
+    private RetriableCallState<Object> callState;
+
+    private ExponentialBackoffRetryStrategy exponentialBackoff;
+
+    private FullJitterBackoffRetryStrategy fullJitterBackoff;
+
+    private DecorrelatedJitterBackoffRetryStrategy decorrelatedJitterBackoff;
+
+    @Setup
+    public void setUp() {
+        this.callState = new RetriableCallState<>(() -> null);
+        for (int count = 0; count < this.retryCount; count++) {
+            this.callState.getRetryCountAndIncrement();
+        }
+        this.exponentialBackoff = ExponentialBackoffRetryStrategy.builder()
+                .maxRetryLapseTime(TimeUnit.DAYS.toMillis(1l))
+                .initialDelay(100l)
+                .maximumRetries(Integer.MAX_VALUE)
+                .build();
+        this.fullJitterBackoff = FullJitterBackoffRetryStrategy.builder()
+                .baseDelay(100l)
+                .maximumRetries(Integer.MAX_VALUE)
+                .build();
+        this.decorrelatedJitterBackoff = DecorrelatedJitterBackoffRetryStrategy.builder()
+                .baseDelay(100l)
+                .maximumRetries(Integer.MAX_VALUE)
+                .build();
+    }
+
+    @Benchmark
+    public long exponentialBackoff() {
+        return this.exponentialBackoff.getWaitTime(this.callState);
+    }
+
+    @Benchmark
+    public long fullJitterBackoff() {
+        return this.fullJitterBackoff.getWaitTime(this.callState);
+    }
+
+    @Benchmark
+    public long decorrelatedJitterBackoff() {
+        return this.decorrelatedJitterBackoff.getWaitTime(this.callState);
+    }
+
+}
@@ -1,51 +1,307 @@
 package com.recall;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
 
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.RetryExecutors;
+import com.recall.retry.bulkhead.Bulkhead;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.journal.DeadLetter;
+import com.recall.retry.journal.DeadLetterQueue;
+import com.recall.retry.journal.DurableCallable;
+import com.recall.retry.journal.JournalEntry;
+import com.recall.retry.journal.RetryJournal;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Value;
+import lombok.extern.java.Log;
 
 /**
- * 
- * 
- * @param <V>
+ * Provides an asynchronous retrying {@link Callable} based on a specified {@link RetryStrategy}. Attempts are run on an
+ * executor, by default the shared executor from {@link RetryExecutors#shared()}, and the wait between attempts is
+ * registered with the retry scheduler, so no thread is held while a call is backing off.
+ *
+ * <pre>
+ * final AsynchronousRetriableCallable&lt;ReturnType&gt; caller = AsynchronousRetriableCallable.builder()
+ *         .retryStrategy(retryStrategy)
+ *         .callable(() -&gt; doSomething())
+ *         .build();
+ *
+ * caller.callAsync()
+ *         .thenAccept(answer -&gt; ...)
+ *         .exceptionally(ex -&gt; ...);
+ * </pre>
+ *
+ * The returned future completes exceptionally with an {@link ExhuastedRetriesException} when all attempts have failed,
+ * or with a {@link NonRetriableException} when a non-retriable exception was thrown.
+ * <p>
+ * Alternatively, {@link #call()} submits the retried call and reports its outcome to the <tt>onSuccess</tt> and
+ * <tt>onFailure</tt> consumers.
+ * <p>
+ * When given a {@link RetryJournal}, the call is recorded in the journal until it completes, so a call still pending
+ * when the JVM stops is not lost. Its callable must then be a {@link DurableCallable}. After a restart, a caller built
+ * with the same journal resumes the recovered calls with {@link #recover()} or {@link #recoverAsync()}.
+ * <p>
+ * When given a {@link DeadLetterQueue}, a call whose retries are exhausted is added to the queue before its failure is
+ * reported, and its callable must also be a {@link DurableCallable}. Once the failing dependency has recovered, the
+ * dead letters are re-driven with {@link #redrive(int)} or {@link #redriveAsync(int)}.
+ *
+ * @param <V> the result type of the retried {@link Callable}.
  */
+@Log
 @Value
+@Builder(builderClassName = "Builder", toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@ParametersAreNonnullByDefault
 public class AsynchronousRetriableCallable<V> implements Callable<Boolean> {
 
+    /** The retry strategy of a caller created without one, which makes a single attempt and never retries it. */
+    private static final RetryStrategy SINGLE_ATTEMPT = BasicRetryStrategy.builder()
+            .maximumRetries(1)
+            .build();
+
+    @Nonnull
+    @lombok.Builder.Default
+    private final Executor executor = RetryExecutors.shared();
+
     @Nonnull
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    private final RetryStrategy retryStrategy;
+
+    /**
+     * The length of time, in milliseconds, after which an attempt is cancelled and treated as having thrown a
+     * {@link java.util.concurrent.TimeoutException}, or <tt>0</tt> for no timeout.
+     */
+    private final long attemptTimeout;
+
+    /**
+     * The length of time, in milliseconds, by which the whole call must complete, or <tt>0</tt> for no deadline.
+     */
+    private final long deadline;
+
+    /**
+     * The bulkhead every attempt, including retries, is run in instead of on the executor, or <tt>null</tt> for none. A
+     * call rejected by the bulkhead fails with a {@link com.recall.retry.exceptions.BulkheadFullException}.
+     */
+    @Nullable
+    private final Bulkhead bulkhead;
+
+    /**
+     * The journal every call is recorded in until it completes, or <tt>null</tt> for none. A journaled call's callable
+     * must be a {@link DurableCallable}.
+     */
+    @Nullable
+    private final RetryJournal journal;
+
+    /**
+     * The queue every call whose retries are exhausted is added to, or <tt>null</tt> for none. The callable of a call
+     * with a dead-letter queue must be a {@link DurableCallable}.
+     */
+    @Nullable
+    private final DeadLetterQueue deadLetterQueue;
 
     @Nonnull
     private final Callable<V> callable;
 
     @Nonnull
-    private final Consumer<V> onSuccess;
+    @lombok.Builder.Default
+    private final Consumer<V> onSuccess = answer -> {};
 
     @Nonnull
-    private final Consumer<? super Exception> onFailure;
+    @lombok.Builder.Default
+    private final Consumer<? super Exception> onFailure = ex -> {};
+
+    /**
+     * Creates a new caller which makes a single attempt of the specified callable on the shared executor, without
+     * retrying it. A failed attempt is reported to <tt>onFailure</tt> as a {@link NonRetriableException} caused by the
+     * exception it threw.
+     *
+     * @param callable the {@link Callable} to call.
+     * @param onSuccess the consumer of the result of a successful call.
+     * @param onFailure the consumer of the exception of a failed call.
+     * @deprecated use {@link #builder()}, which also takes the {@link RetryStrategy} to retry the call with.
+     */
+    @Deprecated
+    public AsynchronousRetriableCallable(
+            @Nonnull final Callable<V> callable,
+            @Nonnull final Consumer<V> onSuccess,
+            @Nonnull final Consumer<? super Exception> onFailure) {
+        this(RetryExecutors.shared(), SINGLE_ATTEMPT, 0l, 0l, null, null, null, callable, onSuccess, onFailure);
+    }
 
+    /**
+     * Submits the retried call, reporting its outcome to the <tt>onSuccess</tt> or <tt>onFailure</tt> consumer.
+     *
+     * @return <tt>true</tt> if the call was submitted; otherwise, returns <tt>false</tt> when the executor rejected it.
+     */
     @Override
-    public Boolean call() throws Exception {
-        try {
-            this.executor.submit(() -> this.makeCall());
-            return true;
-        } catch (final RejectedExecutionException rejected) {
+    public Boolean call() {
+        final CompletableFuture<V> answer = callAsync();
+        if (isRejected(answer)) {
             return false;
         }
+        report(answer);
+        return true;
+    }
+
+    /**
+     * Starts the retried call, applying the retry strategy to each attempt without blocking the calling thread.
+     *
+     * @return a future which completes with the result of the first successful attempt, or exceptionally with an
+     *         {@link ExhuastedRetriesException} or a {@link NonRetriableException}.
+     */
+    @Nonnull
+    public CompletableFuture<V> callAsync() {
+        return RetriableExecution.<V> builder()
+                .retryStrategy(this.retryStrategy)
+                .callable(this.callable)
+                .executor(this.executor)
+                .bulkhead(this.bulkhead)
+                .attemptTimeout(this.attemptTimeout)
+                .deadline(this.deadline)
+                .journal(this.journal)
+                .deadLetterQueue(this.deadLetterQueue)
+                .build()
+                .start();
+    }
+
+    /**
+     * Resumes the calls recovered from the journal, reporting the outcome of each to the <tt>onSuccess</tt> or
+     * <tt>onFailure</tt> consumer. The callable of this caller is not used.
+     *
+     * @return the number of calls resumed.
+     * @throws IllegalStateException if this caller has no journal.
+     * @see #recoverAsync()
+     */
+    public int recover() {
+        final List<CompletableFuture<V>> answers = recoverAsync();
+        for (final CompletableFuture<V> answer : answers) {
+            report(answer);
+        }
+        return answers.size();
+    }
+
+    /**
+     * Resumes the calls recovered from the journal, each with its retry count and next attempt time as they were
+     * journaled, and with the retry strategy and configuration of this caller. Each recovered call is only resumed
+     * once, however many times this is called. The callable of this caller is not used, and a recovered call whose task
+     * descriptor can no longer be deserialized is logged and dropped.
+     *
+     * @return a future for each resumed call, in the order the calls were originally started.
+     * @throws IllegalStateException if this caller has no journal.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public List<CompletableFuture<V>> recoverAsync() {
+        if (this.journal == null) {
+            throw new IllegalStateException("No journal to recover calls from");
+        }
+        final List<JournalEntry> entries = this.journal.takeRecoveredEntries();
+        final List<CompletableFuture<V>> answers = new ArrayList<>(entries.size());
+        for (final JournalEntry entry : entries) {
+            final DurableCallable<V> task;
+            try {
+                task = (DurableCallable<V>) entry.readTask();
+            } catch (final IOException ex) {
+                log.warning("Dropping journaled call " + entry.getId() + "! Exception: " + ex.getMessage());
+                this.journal.complete(entry.getId());
+                continue;
+            }
+            answers.add(RetriableExecution.<V> builder()
+                    .retryStrategy(this.retryStrategy)
+                    .callable(task)
+                    .executor(this.executor)
+                    .bulkhead(this.bulkhead)
+                    .attemptTimeout(this.attemptTimeout)
+                    .deadline(this.deadline)
+                    .journal(this.journal)
+                    .retryCount(entry.getRetryCount())
+                    .deadLetterQueue(this.deadLetterQueue)
+                    .build()
+                    .resume(entry));
+        }
+        return answers;
+    }
+
+    /**
+     * Re-drives the oldest dead letters, reporting the outcome of each to the <tt>onSuccess</tt> or <tt>onFailure</tt>
+     * consumer. The callable of this caller is not used.
+     *
+     * @param maximumLetters the maximum number of dead letters to re-drive.
+     * @return the number of calls re-driven.
+     * @throws IllegalStateException if this caller has no dead-letter queue.
+     * @see #redriveAsync(int)
+     */
+    public int redrive(int maximumLetters) {
+        final List<CompletableFuture<V>> answers = redriveAsync(maximumLetters);
+        for (final CompletableFuture<V> answer : answers) {
+            report(answer);
+        }
+        return answers.size();
     }
 
-    private void makeCall() {
-        try {
-            final V answer = this.callable.call();
-            this.onSuccess.accept(answer);
-        } catch (final Exception ex) {
-            this.onFailure.accept(ex);
+    /**
+     * Removes the oldest dead letters from the dead-letter queue and starts each of them again as a new call, with the
+     * retry strategy and configuration of this caller. A re-driven call whose retries are exhausted again is added back
+     * to the queue. The callable of this caller is not used, and a dead letter whose task descriptor can no longer be
+     * deserialized is logged and dropped.
+     *
+     * @param maximumLetters the maximum number of dead letters to re-drive.
+     * @return a future for each re-driven call, oldest first.
+     * @throws IllegalStateException if this caller has no dead-letter queue.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public List<CompletableFuture<V>> redriveAsync(int maximumLetters) {
+        if (this.deadLetterQueue == null) {
+            throw new IllegalStateException("No dead-letter queue to re-drive calls from");
         }
+        final List<DeadLetter> letters = this.deadLetterQueue.drain(maximumLetters);
+        final List<CompletableFuture<V>> answers = new ArrayList<>(letters.size());
+        for (final DeadLetter letter : letters) {
+            final DurableCallable<V> task;
+            try {
+                task = (DurableCallable<V>) letter.readTask();
+            } catch (final IOException ex) {
+                log.warning("Dropping dead letter which failed with: " + letter.getFailureSummary() + "! Exception: "
+                        + ex.getMessage());
+                continue;
+            }
+            answers.add(toBuilder().callable(task).build().callAsync());
+        }
+        return answers;
+    }
+
+    private void report(@Nonnull final CompletableFuture<V> answer) {
+        answer.whenComplete((result, ex) -> {
+            if (ex == null) {
+                this.onSuccess.accept(result);
+            } else if (ex instanceof Exception) {
+                this.onFailure.accept((Exception) ex);
+            } else {
+                this.onFailure.accept(new NonRetriableException("Unable to retry callable!", ex));
+            }
+        });
+    }
+
+    private static boolean isRejected(@Nonnull final CompletableFuture<?> answer) {
+        return answer.isCompletedExceptionally()
+                && answer.handle((result, ex) -> ex.getCause() instanceof RejectedExecutionException).getNow(false);
     }
+
 }
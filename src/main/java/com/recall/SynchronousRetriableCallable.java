@@ -1,15 +1,15 @@
 package com.recall;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import com.recall.retry.RetriableCallable;
+import com.recall.retry.RetryExecutors;
+import com.recall.retry.bulkhead.Bulkhead;
 import com.recall.retry.exceptions.ExhuastedRetriesException;
 import com.recall.retry.exceptions.NonRetriableException;
 import com.recall.retry.strategies.RetryStrategy;
@@ -24,8 +24,15 @@ import lombok.Value;
 /**
  * Provides a synchronous retrying {@link Callable} based on a specified {@link RetryStrategy}.
  * <p>
- * Note: this does use a single thread executor to perform the call in-order to monitor the length of time the call
- * takes and be able to interrupt if necessary.
+ * Note: by default, the first attempt is made on the thread invoking {@link #call()}, without any allocation when it
+ * succeeds, and only once it has failed are the retries performed on an executor. When an attempt timeout is set,
+ * every attempt is performed on the executor instead, which monitors the length of time each attempt takes and cancels
+ * it if it exceeds the timeout, since an attempt made on the calling thread could not be timed out. An optional
+ * deadline bounds the whole call, and likewise moves every attempt to the executor: no retry is made whose wait would
+ * reach it and the call then fails with a {@link com.recall.retry.exceptions.DeadlineExceededException}. Unless one is
+ * given to the builder, the shared executor from {@link RetryExecutors#shared()} is used. The wait between attempts is
+ * registered with the retry scheduler, so no executor thread is held while backing off; only the thread invoking
+ * {@link #call()} blocks for the result.
  * 
  * <pre>
  * final RetryStrategy retryStrategy = ...
@@ -55,7 +62,28 @@ import lombok.Value;
 public class SynchronousRetriableCallable<V> extends RetriableCallable<V> {
 
     @Nonnull
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    @lombok.Builder.Default
+    private final Executor executor = RetryExecutors.shared();
+
+    /**
+     * The length of time, in milliseconds, after which an attempt is cancelled and treated as having thrown a
+     * {@link java.util.concurrent.TimeoutException}, or <tt>0</tt> for no timeout, the default. Only a call without a
+     * timeout, or a deadline, makes its first attempt on the calling thread without allocating.
+     */
+    private final long attemptTimeout;
+
+    /**
+     * The length of time, in milliseconds, by which the whole call must complete, or <tt>0</tt> for no deadline.
+     */
+    private final long deadline;
+
+    /**
+     * The bulkhead every attempt, including retries, is run in instead of on the executor, or <tt>null</tt> for none. A
+     * call rejected by the bulkhead fails with a {@link com.recall.retry.exceptions.BulkheadFullException}.
+     */
+    @Nullable
+    @Getter(AccessLevel.PROTECTED)
+    private final Bulkhead bulkhead;
 
     @Nonnull
     @Getter(AccessLevel.PROTECTED)
@@ -67,15 +95,7 @@ public class SynchronousRetriableCallable<V> extends RetriableCallable<V> {
 
     @Override
     public V call() throws ExhuastedRetriesException, NonRetriableException {
-        return makeCall(() -> synchronousCall());
-    }
-
-    private V synchronousCall() throws Exception {
-        try {
-            return this.executor.submit(this.callable).get(30, TimeUnit.SECONDS);
-        } catch (final ExecutionException wrappedEx) {
-            throw (Exception) wrappedEx.getCause();
-        }
+        return makeSynchronousCall(this.callable, this.executor, this.attemptTimeout, this.deadline);
     }
 
 }
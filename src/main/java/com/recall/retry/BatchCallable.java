@@ -0,0 +1,28 @@
+package com.recall.retry;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A bulk operation which processes a batch of items and reports the outcome of each item, used with a
+ * {@link BatchRetriableCallable}.
+ *
+ * @param <I> the type of the items processed.
+ * @param <V> the result type of each processed item.
+ */
+@FunctionalInterface
+public interface BatchCallable<I, V> {
+
+    /**
+     * Processes the specified batch of items.
+     *
+     * @param items the items to process, never empty.
+     * @return the outcome of each of the items.
+     * @throws Exception if the batch as a whole failed, which is treated as every item of it having thrown this
+     *             exception.
+     */
+    @Nonnull
+    BatchOutcome<I, V> call(@Nonnull final List<I> items) throws Exception;
+
+}
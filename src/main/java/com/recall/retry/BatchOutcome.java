@@ -0,0 +1,41 @@
+package com.recall.retry;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Provides the per-item outcome of one call of a {@link BatchCallable}. Each item of the batch should be reported as
+ * either a success, with its result, or a failure, with the exception it failed with. An item reported as neither is
+ * treated as having failed with a non-retriable exception.
+ *
+ * <pre>
+ * return BatchOutcome.&lt;Record, Long&gt;builder()
+ *         .success(written, id)
+ *         .failure(throttled, new ThrottledException())
+ *         .build();
+ * </pre>
+ *
+ * @param <I> the type of the items processed.
+ * @param <V> the result type of each processed item.
+ */
+@Value
+@Builder(builderClassName = "Builder")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchOutcome<I, V> {
+
+    @Nonnull
+    @Singular
+    private ImmutableMap<I, V> successes;
+
+    @Nonnull
+    @Singular
+    private ImmutableMap<I, Exception> failures;
+
+}
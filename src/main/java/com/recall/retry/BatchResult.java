@@ -0,0 +1,40 @@
+package com.recall.retry;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.collect.ImmutableMap;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+
+import lombok.Value;
+
+/**
+ * Provides the final outcome of every item of a batch retried by a {@link BatchRetriableCallable}.
+ *
+ * @param <I> the type of the items processed.
+ * @param <V> the result type of each processed item.
+ */
+@Value
+public class BatchResult<I, V> {
+
+    /** The result of each item which eventually succeeded. */
+    @Nonnull
+    private ImmutableMap<I, V> successes;
+
+    /**
+     * The exception each item which did not succeed failed with, either an {@link ExhuastedRetriesException} holding the
+     * item's caught retriable exceptions or a {@link NonRetriableException}.
+     */
+    @Nonnull
+    private ImmutableMap<I, RuntimeException> failures;
+
+    /**
+     * Checks whether every item of the batch succeeded.
+     *
+     * @return <tt>true</tt> if no item failed; otherwise, returns <tt>false</tt>.
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.recall.retry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.metrics.RetryMetrics;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.scheduling.RetrySchedulers;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a retrying bulk operation, where a {@link BatchCallable} reports the outcome of each item of a batch and only
+ * the items which failed with a retriable exception are retried. Every item keeps its own {@link RetriableCallState},
+ * so the retry strategy is applied to each item on its own: its retry count, wait time and caught exceptions.
+ * <p>
+ * Items are sent in batches of at most <tt>maximumBatchSize</tt>. Each batch is made of the items ready to be sent, in
+ * the order they were given, so retried items are merged with items which have not been sent yet. Items must be
+ * distinct. Each batch is one attempt to the circuit breaker, if any: a batch it rejects is not sent, and every item
+ * of the batch fails with a {@link com.recall.retry.exceptions.CircuitBreakerOpenException}. A batch sent is recorded
+ * with the circuit breaker as a single outcome: a success if any of its items succeeded, otherwise a failure if the
+ * batch, or any of its items, failed with a retriable exception or timed out. A batch in which every item failed with
+ * another, non-retriable exception only releases its permission.
+ *
+ * <pre>
+ * final BatchResult&lt;Record, Long&gt; result = BatchRetriableCallable.&lt;Record, Long&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .batchCallable(records -&gt; writeRecords(records))
+ *         .items(records)
+ *         .maximumBatchSize(100)
+ *         .build()
+ *         .call();
+ * </pre>
+ *
+ * @param <I> the type of the items processed.
+ * @param <V> the result type of each processed item.
+ */
+@Log
+@Value
+@Builder(builderClassName = "Builder", toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@ParametersAreNonnullByDefault
+public class BatchRetriableCallable<I, V> implements Callable<BatchResult<I, V>> {
+
+    @Nonnull
+    private final RetryStrategy retryStrategy;
+
+    @Nonnull
+    private final BatchCallable<I, V> batchCallable;
+
+    @Nonnull
+    @Singular
+    private final ImmutableList<I> items;
+
+    /** The maximum number of items sent in one batch, or <tt>0</tt> to send every ready item together. */
+    private final int maximumBatchSize;
+
+    /**
+     * The scheduler to register the wait for the next retried items to be ready with, or <tt>null</tt> to use the
+     * shared scheduler.
+     */
+    @Nullable
+    private final RetryScheduler scheduler;
+
+    /**
+     * Processes this instance's items, retrying the failed items as the retry strategy permits.
+     *
+     * @return the outcome of every item.
+     * @throws NonRetriableException if the calling thread was interrupted while waiting to retry.
+     */
+    @Override
+    public BatchResult<I, V> call() throws NonRetriableException {
+        return call(this.items);
+    }
+
+    /**
+     * Processes the specified items, retrying the failed items as the retry strategy permits.
+     *
+     * @param items the distinct items to process.
+     * @return the outcome of every item.
+     * @throws NonRetriableException if the calling thread was interrupted while waiting to retry.
+     */
+    @Nonnull
+    public BatchResult<I, V> call(@Nonnull final Collection<I> items) throws NonRetriableException {
+        final Map<I, ItemState<I, V>> pending = new LinkedHashMap<>();
+        for (final I item : items) {
+            pending.put(item, new ItemState<>(new RetriableCallState<>(this,
+                    this.retryStrategy.getExceptionHistoryPolicy())));
+        }
+        final ImmutableMap.Builder<I, V> successes = ImmutableMap.builder();
+        final ImmutableMap.Builder<I, RuntimeException> failures = ImmutableMap.builder();
+        final CircuitBreaker circuitBreaker = this.retryStrategy.getCircuitBreaker();
+        while (!pending.isEmpty()) {
+            final List<I> batch = nextBatch(pending);
+            if (batch.isEmpty()) {
+                RetriableCallable.awaitNextAttempt(this.scheduler != null ? this.scheduler : RetrySchedulers.shared(),
+                        millisUntilReady(pending));
+                continue;
+            }
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                rejected(circuitBreaker, pending, batch, failures);
+                continue;
+            }
+            for (final I item : batch) {
+                pending.get(item).callState.getRetryCountAndIncrement();
+            }
+            BatchOutcome<I, V> outcome = null;
+            Exception batchFailure = null;
+            final long startedAt = System.nanoTime();
+            try {
+                outcome = this.batchCallable.call(Collections.unmodifiableList(batch));
+                if (outcome == null) {
+                    log.warning("Batch of " + batch.size() + " items returned no outcome");
+                    batchFailure = new NonRetriableException("Batch callable returned no outcome");
+                }
+            } catch (final Exception ex) {
+                log.warning("Batch of " + batch.size() + " items threw exception: " + ex);
+                batchFailure = ex;
+            } catch (final Error err) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.releasePermission();
+                }
+                throw err;
+            }
+            final long completedAt = System.nanoTime();
+            final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+            boolean anySucceeded = false;
+            boolean anyFailed = false;
+            for (final I item : batch) {
+                if (retryMetrics != null) {
+                    retryMetrics.recordAttempt(completedAt - startedAt);
+                }
+                if (outcome != null && outcome.getSuccesses().containsKey(item)) {
+                    succeeded();
+                    anySucceeded = true;
+                    successes.put(item, outcome.getSuccesses().get(item));
+                    pending.remove(item);
+                } else {
+                    final Exception ex = failureOf(item, outcome, batchFailure);
+                    anyFailed |= RetriableCallState.isCircuitBreakerFailure(this.retryStrategy, ex);
+                    final RuntimeException failure = failed(pending.get(item), ex, completedAt);
+                    if (failure != null) {
+                        failures.put(item, failure);
+                        pending.remove(item);
+                    }
+                }
+            }
+            if (circuitBreaker != null) {
+                recordOutcome(circuitBreaker, anySucceeded, anyFailed);
+            }
+        }
+        return new BatchResult<>(successes.build(), failures.build());
+    }
+
+    /**
+     * Fails every item of a batch which the circuit breaker rejected, as a rejected attempt fails a single call.
+     */
+    private void rejected(
+            @Nonnull final CircuitBreaker circuitBreaker,
+            @Nonnull final Map<I, ItemState<I, V>> pending,
+            @Nonnull final List<I> batch,
+            @Nonnull final ImmutableMap.Builder<I, RuntimeException> failures) {
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        for (final I item : batch) {
+            if (retryMetrics != null) {
+                retryMetrics.recordNonRetriable();
+            }
+            failures.put(item, pending.remove(item).callState.rejected(circuitBreaker));
+        }
+    }
+
+    /**
+     * Records the outcome of a batch which was sent with the circuit breaker, once for the whole batch.
+     */
+    private static void recordOutcome(
+            @Nonnull final CircuitBreaker circuitBreaker,
+            boolean anySucceeded,
+            boolean anyFailed) {
+        if (anySucceeded) {
+            circuitBreaker.onSuccess();
+        } else if (anyFailed) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.releasePermission();
+        }
+    }
+
+    /**
+     * Returns the exception the specified item of a batch failed with.
+     */
+    @Nonnull
+    private Exception failureOf(
+            @Nonnull final I item,
+            @Nullable final BatchOutcome<I, V> outcome,
+            @Nullable final Exception batchFailure) {
+        final Exception ex = batchFailure != null ? batchFailure : outcome.getFailures().get(item);
+        return ex != null ? ex : new NonRetriableException("No outcome reported for batch item: " + item);
+    }
+
+    /**
+     * Records the failure of the specified item and, if it may be retried, when it is next ready to be sent. The
+     * outcome of the batch is recorded with the circuit breaker separately, see
+     * {@link #recordOutcome(CircuitBreaker, boolean, boolean)}.
+     *
+     * @return <tt>null</tt> if the item will be retried; otherwise, the exception the item failed with.
+     */
+    @Nullable
+    private RuntimeException failed(
+            @Nonnull final ItemState<I, V> itemState,
+            @Nonnull final Exception ex,
+            long completedAt) {
+        final RuntimeException failure = itemState.callState.recordItemFailure(this.retryStrategy, ex);
+        if (failure == null) {
+            final long waitTime = itemState.callState.getLastWaitTime();
+            final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+            if (retryMetrics != null) {
+                retryMetrics.recordBackoff(waitTime);
+            }
+            itemState.readyAt = completedAt + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        }
+        return failure;
+    }
+
+    private void succeeded() {
+        final RetryBudget retryBudget = this.retryStrategy.getRetryBudget();
+        if (retryBudget != null) {
+            retryBudget.onSuccess();
+        }
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            retryMetrics.recordSuccess();
+        }
+    }
+
+    @Nonnull
+    private List<I> nextBatch(@Nonnull final Map<I, ItemState<I, V>> pending) {
+        final long now = System.nanoTime();
+        final int limit = this.maximumBatchSize > 0 ? this.maximumBatchSize : Integer.MAX_VALUE;
+        final List<I> batch = new ArrayList<>(Math.min(limit, pending.size()));
+        final Iterator<Map.Entry<I, ItemState<I, V>>> entries = pending.entrySet().iterator();
+        while (entries.hasNext() && batch.size() < limit) {
+            final Map.Entry<I, ItemState<I, V>> entry = entries.next();
+            if (entry.getValue().readyAt - now <= 0) {
+                batch.add(entry.getKey());
+            }
+        }
+        return batch;
+    }
+
+    private static long millisUntilReady(@Nonnull final Map<?, ? extends ItemState<?, ?>> pending) {
+        final long now = System.nanoTime();
+        long earliest = Long.MAX_VALUE;
+        for (final ItemState<?, ?> itemState : pending.values()) {
+            earliest = Math.min(earliest, itemState.readyAt - now);
+        }
+        return Math.max(1l, TimeUnit.NANOSECONDS.toMillis(earliest));
+    }
+
+    /**
+     * The retry state of one item of the batch, only accessed by the calling thread. The {@link Callable} of every
+     * item's call state is the batch callable itself, as items are only ever attempted in batches.
+     */
+    private static final class ItemState<I, V> {
+
+        @Nonnull
+        private final RetriableCallState<BatchResult<I, V>> callState;
+
+        /** The {@link System#nanoTime()} at which the item may next be sent. */
+        private long readyAt = System.nanoTime();
+
+        ItemState(@Nonnull final RetriableCallState<BatchResult<I, V>> callState) {
+            this.callState = callState;
+        }
+
+    }
+
+}
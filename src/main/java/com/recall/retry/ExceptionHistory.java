@@ -0,0 +1,114 @@
+package com.recall.retry;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableList;
+import com.recall.retry.exceptions.RetriableException;
+
+/**
+ * Provides the storage of caught {@link RetriableException}s for a {@link RetriableCallState}, as specified by an
+ * {@link ExceptionHistoryPolicy}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+abstract class ExceptionHistory {
+
+    private static final ExceptionHistory NONE = new ExceptionHistory() {
+
+        @Override
+        void add(final RetriableException rex) {}
+
+        @Override
+        ImmutableList<RetriableException> toList() {
+            return ImmutableList.of();
+        }
+
+    };
+
+    /**
+     * Creates the exception history for the specified policy.
+     *
+     * @param policy the policy of the history.
+     * @return a new exception history, or a shared empty history when the policy keeps none.
+     */
+    @Nonnull
+    static ExceptionHistory create(final ExceptionHistoryPolicy policy) {
+        if (policy.isNone()) {
+            return NONE;
+        } else if (policy.isUnbounded()) {
+            return new Unbounded();
+        } else {
+            return new Ring(policy.getCapacity());
+        }
+    }
+
+    /**
+     * Appends the specified exception to this history, possibly discarding the oldest exception.
+     *
+     * @param rex the exception to append.
+     */
+    abstract void add(@Nonnull final RetriableException rex);
+
+    /**
+     * Returns the exceptions kept by this history, oldest first.
+     *
+     * @return the exceptions kept by this history, oldest first.
+     */
+    @Nonnull
+    abstract ImmutableList<RetriableException> toList();
+
+    private static final class Unbounded extends ExceptionHistory {
+
+        private final ConcurrentLinkedQueue<RetriableException> exceptions = new ConcurrentLinkedQueue<>();
+
+        @Override
+        void add(final RetriableException rex) {
+            this.exceptions.offer(rex);
+        }
+
+        @Override
+        ImmutableList<RetriableException> toList() {
+            return ImmutableList.copyOf(this.exceptions);
+        }
+
+    }
+
+    private static final class Ring extends ExceptionHistory {
+
+        private final AtomicReferenceArray<RetriableException> slots;
+
+        private final AtomicLong written = new AtomicLong();
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        @Override
+        void add(final RetriableException rex) {
+            final long index = this.written.getAndIncrement();
+            this.slots.set((int) (index % this.slots.length()), rex);
+        }
+
+        @Override
+        ImmutableList<RetriableException> toList() {
+            final long end = this.written.get();
+            final long start = Math.max(0l, end - this.slots.length());
+            final ImmutableList.Builder<RetriableException> exceptions = ImmutableList.builder();
+            for (long index = start; index < end; index++) {
+                final RetriableException rex = this.slots.get((int) (index % this.slots.length()));
+                if (rex != null) {
+                    exceptions.add(rex);
+                }
+            }
+            return exceptions.build();
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.recall.retry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.RetriableException;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Provides the policy for how many of the {@link RetriableException}s caught while retrying a call are kept by its
+ * {@link RetriableCallState}, and so reported by an {@link ExhuastedRetriesException}. A call may keep none of them,
+ * only the most recent in a fixed size ring buffer, or all of them.
+ * <p>
+ * By default, the wrapping {@link RetriableException}s do not capture a stack trace of their own; the stack trace of
+ * the caught exception is still available through {@link RetriableException#getCause()}.
+ */
+@Value
+@Immutable
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ExceptionHistoryPolicy {
+
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final ExceptionHistoryPolicy NONE = new ExceptionHistoryPolicy(0, false);
+
+    private static final ExceptionHistoryPolicy ALL = new ExceptionHistoryPolicy(UNBOUNDED, false);
+
+    /**
+     * The maximum number of caught exceptions kept.
+     */
+    private final int capacity;
+
+    /**
+     * Whether the wrapping {@link RetriableException}s capture their own stack trace.
+     */
+    private final boolean stackTraces;
+
+    /**
+     * Returns a policy which keeps none of the caught exceptions.
+     *
+     * @return a policy which keeps none of the caught exceptions.
+     */
+    @Nonnull
+    public static ExceptionHistoryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a policy which keeps only the specified number of most recently caught exceptions.
+     *
+     * @param capacity the maximum number of caught exceptions to keep.
+     * @return a policy which keeps only the most recently caught exceptions.
+     * @throws IllegalArgumentException if <tt>capacity</tt> is negative.
+     */
+    @Nonnull
+    public static ExceptionHistoryPolicy lastN(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        return capacity == 0 ? NONE : new ExceptionHistoryPolicy(capacity, false);
+    }
+
+    /**
+     * Returns a policy which keeps all of the caught exceptions.
+     *
+     * @return a policy which keeps all of the caught exceptions.
+     */
+    @Nonnull
+    public static ExceptionHistoryPolicy all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a copy of this policy whose wrapping {@link RetriableException}s capture their own stack trace.
+     *
+     * @return a copy of this policy which captures stack traces.
+     */
+    @Nonnull
+    public ExceptionHistoryPolicy withStackTraces() {
+        return new ExceptionHistoryPolicy(this.capacity, true);
+    }
+
+    /**
+     * Returns <tt>true</tt> if this policy keeps no caught exceptions.
+     *
+     * @return <tt>true</tt> if this policy keeps no caught exceptions.
+     */
+    public boolean isNone() {
+        return this.capacity == 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this policy keeps every caught exception.
+     *
+     * @return <tt>true</tt> if this policy keeps every caught exception.
+     */
+    public boolean isUnbounded() {
+        return this.capacity == UNBOUNDED;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.recall.retry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Provides the final outcome of one task invoked by a {@link RetriableInvoker}: either its result or the exception it
+ * failed with.
+ *
+ * @param <V> the result type of the task.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class InvocationResult<V> {
+
+    /** The result of the task, if it succeeded. */
+    @Nullable
+    private V value;
+
+    /**
+     * The exception the task failed with, either an {@link ExhuastedRetriesException} holding its caught retriable
+     * exceptions or a {@link NonRetriableException}, or <tt>null</tt> if it succeeded.
+     */
+    @Nullable
+    private RuntimeException failure;
+
+    /**
+     * Creates the outcome of a task which succeeded.
+     *
+     * @param value the result of the task.
+     * @return a new successful outcome.
+     */
+    @Nonnull
+    public static <V> InvocationResult<V> success(@Nullable final V value) {
+        return new InvocationResult<>(value, null);
+    }
+
+    /**
+     * Creates the outcome of a task which failed.
+     *
+     * @param failure the exception the task failed with.
+     * @return a new failed outcome.
+     */
+    @Nonnull
+    public static <V> InvocationResult<V> failure(@Nonnull final RuntimeException failure) {
+        return new InvocationResult<>(null, failure);
+    }
+
+    /**
+     * Checks whether the task succeeded.
+     *
+     * @return <tt>true</tt> if the task succeeded; otherwise, returns <tt>false</tt>.
+     */
+    public boolean isSuccessful() {
+        return this.failure == null;
+    }
+
+    /**
+     * Returns the result of the task, or throws the exception it failed with.
+     *
+     * @return the result of the task.
+     * @throws ExhuastedRetriesException if the task's retries were exhausted.
+     * @throws NonRetriableException if the task failed with a non-retriable exception.
+     */
+    @Nullable
+    public V get() throws ExhuastedRetriesException, NonRetriableException {
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        return this.value;
+    }
+
+}
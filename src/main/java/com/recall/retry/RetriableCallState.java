@@ -3,20 +3,33 @@ package com.recall.retry;
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.ThreadSafe;
 
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.bulkhead.Bulkhead;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.exceptions.BulkheadFullException;
+import com.recall.retry.exceptions.CircuitBreakerOpenException;
+import com.recall.retry.exceptions.ConcurrencyLimitExceededException;
+import com.recall.retry.exceptions.DeadlineExceededException;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
 import com.recall.retry.exceptions.RetriableException;
+import com.recall.retry.exceptions.RetryBudgetExhaustedException;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.metrics.RetryMetrics;
+import com.recall.retry.strategies.RetryStrategy;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
+import lombok.extern.java.Log;
 
 /**
  * Provides a state object for making retriable calls. This helps to keep track of the number of retries already
@@ -26,25 +39,88 @@ import lombok.ToString;
  * 
  * @param <V> the result type of method {@link #call()}.
  */
+@Log
 @ThreadSafe
 @ToString
 @EqualsAndHashCode
-@RequiredArgsConstructor
 @ParametersAreNonnullByDefault
 public class RetriableCallState<V> {
 
     @Nonnull
-    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicInteger retryCount;
 
     @Nonnull
-    private final ConcurrentLinkedQueue<RetriableException> caughtRetriableExceptions = new ConcurrentLinkedQueue<>();
+    private final ExceptionHistoryPolicy exceptionHistoryPolicy;
+
+    @Nonnull
+    private final ExceptionHistory caughtRetriableExceptions;
 
     @Nonnull
     @Getter
     private final Callable<V> callable;
 
     @Getter
-    private final Instant startTime = Instant.now();
+    private final Instant startTime;
+
+    /**
+     * The length of time, in milliseconds, waited before the latest retry attempt, or <tt>0</tt> if no retry has been
+     * scheduled yet. Retry strategies whose wait time depends on the previous one, such as decorrelated jitter, use it.
+     */
+    @Getter
+    private volatile long lastWaitTime;
+
+    /**
+     * The exception thrown by the latest failed attempt, or <tt>null</tt> if no attempt has failed yet. It is kept
+     * regardless of the exception history policy, so that retry strategies can read hints such as a retry-after value
+     * from it.
+     */
+    @Nullable
+    @Getter
+    private volatile Exception lastException;
+
+    /**
+     * Creates a new call state for the specified callable, starting now with no retries made, which keeps all of its
+     * caught exceptions.
+     * 
+     * @param callable the {@link Callable} being retried.
+     */
+    public RetriableCallState(@Nonnull final Callable<V> callable) {
+        this(callable, ExceptionHistoryPolicy.all());
+    }
+
+    /**
+     * Creates a new call state for the specified callable, starting now with no retries made, which keeps its caught
+     * exceptions as specified by the given policy.
+     * 
+     * @param callable the {@link Callable} being retried.
+     * @param exceptionHistoryPolicy the policy of which caught exceptions are kept.
+     */
+    public RetriableCallState(
+            @Nonnull final Callable<V> callable,
+            @Nonnull final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        this(callable, Instant.now(), 0, exceptionHistoryPolicy);
+    }
+
+    /**
+     * Creates a new call state for a call which has already been running. This allows the state to be created lazily,
+     * once the first attempt has failed.
+     * 
+     * @param callable the {@link Callable} being retried.
+     * @param startTime the time the call was started.
+     * @param retryCount the number of attempts already made.
+     * @param exceptionHistoryPolicy the policy of which caught exceptions are kept.
+     */
+    RetriableCallState(
+            @Nonnull final Callable<V> callable,
+            @Nonnull final Instant startTime,
+            int retryCount,
+            @Nonnull final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        this.callable = callable;
+        this.startTime = startTime;
+        this.retryCount = new AtomicInteger(retryCount);
+        this.exceptionHistoryPolicy = exceptionHistoryPolicy;
+        this.caughtRetriableExceptions = ExceptionHistory.create(exceptionHistoryPolicy);
+    }
 
     /**
      * Returns the current number of retries this call state has attempted.
@@ -65,23 +141,239 @@ public class RetriableCallState<V> {
     }
 
     /**
-     * Appends the specified {@link RetriableException} to the list of caught exception this caller state has seen.
+     * Appends the specified {@link RetriableException} to the list of caught exception this caller state has seen. Per
+     * this state's {@link ExceptionHistoryPolicy}, the exception may not be kept or may replace the oldest one kept.
      * 
      * @param rex the {@link RetriableException} to append to this state.
      */
     public void addCaughtRetriableException(@Nonnull final RetriableException rex) {
-        this.caughtRetriableExceptions.offer(rex);
+        this.caughtRetriableExceptions.add(rex);
     }
 
     /**
-     * Returns a copy of the list of {@link RetriableException}s this caller state has seen. If no exceptions have been
-     * seen, this returns an empty list.
+     * Returns an immutable copy of the list of {@link RetriableException}s this caller state has kept, oldest first. If
+     * no exceptions have been kept, this returns an empty list.
      * 
-     * @return a copy of the list of {@link RetriableException}s this caller state has seen.
+     * @return an immutable copy of the list of {@link RetriableException}s this caller state has kept.
      */
     @Nonnull
     public List<RetriableException> getCaughtRetriableExceptions() {
-        return this.caughtRetriableExceptions.stream().collect(Collectors.toList());
+        return this.caughtRetriableExceptions.toList();
+    }
+
+    /**
+     * Records the specified exception thrown by the latest attempt and decides whether the call may be retried. A
+     * retriable exception is appended to this state's caught exceptions. If the strategy has a circuit breaker, a
+     * retriable exception or a {@link TimeoutException}, whether retriable or not, is recorded with it as a failure,
+     * while the permission of an attempt failing with any other non-retriable exception is released. A retry is only
+     * permitted if the strategy has a wait time for it, rather than {@link RetryStrategy#EXHAUSTED}, and the strategy's
+     * retry budget, if any, has a retry available. The outcome is recorded in the strategy's metrics, if any.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @param ex the exception thrown by the latest attempt.
+     * @return <tt>null</tt> if another attempt may be made, after waiting for {@link #getLastWaitTime()}; otherwise,
+     *         the exception the call should fail with, either
+     *         a {@link NonRetriableException} or an {@link ExhuastedRetriesException}, which is a
+     *         {@link RetryBudgetExhaustedException} if the retry budget is empty.
+     */
+    @Nullable
+    RuntimeException recordFailure(@Nonnull final RetryStrategy retryStrategy, @Nonnull final Exception ex) {
+        return recordFailure(retryStrategy, ex, 0l, Long.MAX_VALUE);
+    }
+
+    /**
+     * Records the specified exception thrown by the latest attempt and decides whether the call may be retried, as by
+     * {@link #recordFailure(RetryStrategy, Exception)}, for a call with an overall deadline. A retry whose wait would
+     * reach the deadline is not permitted, and is decided before a retry is taken from the strategy's retry budget.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @param ex the exception thrown by the latest attempt.
+     * @param deadline the overall deadline of the call, in milliseconds.
+     * @param remainingMillis the length of time, in milliseconds, remaining until the deadline.
+     * @return <tt>null</tt> if another attempt may be made, after waiting for {@link #getLastWaitTime()}; otherwise,
+     *         the exception the call should fail with, as by {@link #recordFailure(RetryStrategy, Exception)}, or a
+     *         {@link DeadlineExceededException} if the wait would reach the deadline.
+     */
+    @Nullable
+    RuntimeException recordFailure(
+            @Nonnull final RetryStrategy retryStrategy,
+            @Nonnull final Exception ex,
+            long deadline,
+            long remainingMillis) {
+        return record(retryStrategy, ex, deadline, remainingMillis, true);
+    }
+
+    /**
+     * Records the specified exception thrown by the latest attempt and decides whether the call may be retried, as by
+     * {@link #recordFailure(RetryStrategy, Exception)}, except that the outcome of the attempt is not recorded with the
+     * strategy's circuit breaker. This is used when one attempt is made for several calls, such as a batch of items,
+     * whose combined outcome is recorded with the circuit breaker once.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @param ex the exception thrown by the latest attempt.
+     * @return <tt>null</tt> if another attempt may be made, after waiting for {@link #getLastWaitTime()}; otherwise,
+     *         the exception the call should fail with, as by {@link #recordFailure(RetryStrategy, Exception)}.
+     */
+    @Nullable
+    RuntimeException recordItemFailure(@Nonnull final RetryStrategy retryStrategy, @Nonnull final Exception ex) {
+        return record(retryStrategy, ex, 0l, Long.MAX_VALUE, false);
+    }
+
+    @Nullable
+    private RuntimeException record(
+            @Nonnull final RetryStrategy retryStrategy,
+            @Nonnull final Exception ex,
+            long deadline,
+            long remainingMillis,
+            boolean recordCircuitBreaker) {
+        this.lastException = ex;
+        final RuntimeException failure = decide(retryStrategy, ex, deadline, remainingMillis, recordCircuitBreaker);
+        final RetryMetrics retryMetrics = retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            if (failure == null) {
+                retryMetrics.recordRetry(ex);
+            } else if (failure instanceof ExhuastedRetriesException) {
+                retryMetrics.recordExhausted();
+            } else {
+                retryMetrics.recordNonRetriable();
+            }
+        }
+        return failure;
+    }
+
+    @Nullable
+    private RuntimeException decide(
+            @Nonnull final RetryStrategy retryStrategy,
+            @Nonnull final Exception ex,
+            long deadline,
+            long remainingMillis,
+            boolean recordCircuitBreaker) {
+        log.info("call() threw exception: " + ex.getClass());
+        final CircuitBreaker circuitBreaker = recordCircuitBreaker ? retryStrategy.getCircuitBreaker() : null;
+        final boolean retriable = isRetriable(retryStrategy, ex);
+        if (circuitBreaker != null) {
+            if (isCircuitBreakerFailure(retryStrategy, ex)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.releasePermission();
+            }
+        }
+        if (NonRetriableException.class.isInstance(ex)) {
+            return NonRetriableException.class.cast(ex);
+        } else if (retriable) {
+            log.warning("Retriable exception caught: " + ex);
+            if (!this.exceptionHistoryPolicy.isNone()) {
+                addCaughtRetriableException(new RetriableException(ex, getRetryCount(), System.currentTimeMillis(),
+                        this.exceptionHistoryPolicy.isStackTraces()));
+            }
+            if (getRetryCount() >= retryStrategy.getMaximumRetries()) {
+                return exhausted(retryStrategy);
+            }
+            final long waitTime = retryStrategy.getWaitTime(this);
+            if (waitTime == RetryStrategy.EXHAUSTED) {
+                return exhausted(retryStrategy);
+            }
+            if (Math.max(0l, waitTime) >= remainingMillis) {
+                return deadlineExceeded(deadline);
+            }
+            final RetryBudget retryBudget = retryStrategy.getRetryBudget();
+            if (retryBudget != null && !retryBudget.tryAcquireRetry()) {
+                log.warning("Retry budget '" + retryBudget.getName() + "' is empty, not retrying");
+                return new RetryBudgetExhaustedException(
+                        "Retry budget '" + retryBudget.getName() + "' is empty (retries=" + getRetryCount() + ")",
+                        getCaughtRetriableExceptions());
+            }
+            this.lastWaitTime = Math.max(0l, waitTime);
+            return null;
+        } else {
+            log.warning("Unable to retry callable! Exception: " + ex.getMessage());
+            return new NonRetriableException("Unable to retry callable!", ex);
+        }
+    }
+
+    /**
+     * Creates the exception to fail the call with when its circuit breaker rejects the next attempt.
+     * 
+     * @param circuitBreaker the circuit breaker which rejected the attempt.
+     * @return a {@link CircuitBreakerOpenException} caused by the exception thrown by the latest failed attempt, if
+     *         any.
+     */
+    @Nonnull
+    CircuitBreakerOpenException rejected(@Nonnull final CircuitBreaker circuitBreaker) {
+        return circuitBreaker.rejection(this.lastException);
+    }
+
+    /**
+     * Creates the exception to fail the call with when its concurrency limiter rejects the next attempt.
+     * 
+     * @param concurrencyLimiter the concurrency limiter which rejected the attempt.
+     * @return a {@link ConcurrencyLimitExceededException} caused by the exception thrown by the latest failed
+     *         attempt, if any.
+     */
+    @Nonnull
+    ConcurrencyLimitExceededException limited(@Nonnull final ConcurrencyLimiter concurrencyLimiter) {
+        return concurrencyLimiter.rejection(this.lastException);
+    }
+
+    /**
+     * Creates the exception to fail the call with when its bulkhead rejects the next attempt.
+     * 
+     * @param bulkhead the bulkhead which rejected the attempt.
+     * @return a {@link BulkheadFullException} caused by the exception thrown by the latest failed attempt, if
+     *         any.
+     */
+    @Nonnull
+    BulkheadFullException bulkheadFull(@Nonnull final Bulkhead bulkhead) {
+        return bulkhead.rejection(this.lastException);
+    }
+
+    /**
+     * Checks if the specified exception, thrown by an attempt, may be retried per the specified retry strategy.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @param ex the exception thrown by the attempt.
+     * @return <tt>true</tt> if the exception is retriable; otherwise, returns <tt>false</tt>.
+     */
+    static boolean isRetriable(@Nonnull final RetryStrategy retryStrategy, @Nonnull final Exception ex) {
+        return !NonRetriableException.class.isInstance(ex) && retryStrategy.isRetriableException(ex);
+    }
+
+    /**
+     * Checks if the specified exception, thrown by an attempt, counts as a failure for the circuit breaker of the
+     * specified retry strategy: a retriable exception or a {@link TimeoutException}, whether retriable or not.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @param ex the exception thrown by the attempt.
+     * @return <tt>true</tt> if the exception counts as a failure; otherwise, returns <tt>false</tt>.
+     */
+    static boolean isCircuitBreakerFailure(@Nonnull final RetryStrategy retryStrategy, @Nonnull final Exception ex) {
+        return ex instanceof TimeoutException || isRetriable(retryStrategy, ex);
+    }
+
+    /**
+     * Creates the exception to fail the call with once its overall deadline has passed.
+     * 
+     * @param deadline the overall deadline of the call, in milliseconds.
+     * @return a {@link DeadlineExceededException} holding this state's caught exceptions.
+     */
+    @Nonnull
+    DeadlineExceededException deadlineExceeded(long deadline) {
+        return new DeadlineExceededException(
+                "Call deadline exceeded (deadline=" + deadline + "ms, retries=" + getRetryCount() + ")",
+                getCaughtRetriableExceptions());
+    }
+
+    /**
+     * Creates the exception to fail the call with once the maximum number of retries has been reached.
+     * 
+     * @param retryStrategy the retry strategy of the call.
+     * @return an {@link ExhuastedRetriesException} holding this state's caught exceptions.
+     */
+    @Nonnull
+    ExhuastedRetriesException exhausted(@Nonnull final RetryStrategy retryStrategy) {
+        return new ExhuastedRetriesException(
+                "Maximum number of retries reached (max=" + retryStrategy.getMaximumRetries() + ")",
+                getCaughtRetriableExceptions());
     }
 
 }
@@ -1,25 +1,39 @@
 package com.recall.retry;
 
+import java.time.Instant;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.bulkhead.Bulkhead;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
 import com.recall.retry.exceptions.ExhuastedRetriesException;
 import com.recall.retry.exceptions.NonRetriableException;
-import com.recall.retry.exceptions.RetriableException;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.metrics.RetryMetrics;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.scheduling.RetrySchedulers;
+import com.recall.retry.scheduling.ScheduledRetry;
 import com.recall.retry.strategies.RetryStrategy;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.extern.java.Log;
 
 /**
  * Provides a {@link Callable} that has a specific strategy for re-attempting calls when certain exceptions are thrown.
  * 
  * @param <V> the result type of method {@link #call()}.
  */
-@Log
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @ParametersAreNonnullByDefault
 public abstract class RetriableCallable<V> implements Callable<V> {
@@ -56,54 +70,250 @@ public abstract class RetriableCallable<V> implements Callable<V> {
     @Override
     public abstract V call() throws ExhuastedRetriesException, NonRetriableException;
 
+    /**
+     * Returns the {@link RetryScheduler} used to register the wait between attempts. By default this is the shared
+     * scheduler, see {@link RetrySchedulers#shared()}.
+     * 
+     * @return the {@code RetryScheduler} used to register the wait between attempts.
+     */
+    @Nonnull
+    protected RetryScheduler getRetryScheduler() {
+        return RetrySchedulers.shared();
+    }
+
+    /**
+     * Returns the {@link Bulkhead} each attempt of an asynchronous call is run in instead of on its executor, see
+     * {@link #makeAsyncCall(Callable, Executor, long, long)}. By default there is none.
+     * 
+     * @return the {@code Bulkhead} to run each attempt in, or <tt>null</tt> to run them on the executor.
+     */
+    @Nullable
+    protected Bulkhead getBulkhead() {
+        return null;
+    }
+
+    /**
+     * Makes the retried call as by {@link #makeSynchronousCall(Callable, Executor, long, long)}, with the retries run on
+     * the shared executor, see {@link RetryExecutors#shared()}, and with neither an attempt timeout nor a deadline. The
+     * first attempt is therefore made on the calling thread, without any allocation unless it fails.
+     * 
+     * @param caller the {@link Callable} to make each attempt with.
+     * @return the computed result of making the call.
+     * @throws ExhuastedRetriesException if the number of retries has been exhausted.
+     * @throws NonRetriableException if a non-retriable exception was thrown while making the call.
+     */
     protected V makeCall(@Nonnull final Callable<V> caller) throws ExhuastedRetriesException, NonRetriableException {
-        final RetriableCallState<V> callState = new RetriableCallState<>(caller);
-        return makeCall(callState);
+        return makeSynchronousCall(caller, RetryExecutors.shared(), 0l, 0l);
     }
 
-    private V makeCall(@Nonnull final RetriableCallState<V> callState)
-            throws ExhuastedRetriesException, NonRetriableException {
+    /**
+     * Makes the retried call with each attempt run on the specified executor. No thread is held between attempts.
+     * 
+     * @param caller the {@link Callable} to make each attempt with.
+     * @param executor the executor to run each attempt on.
+     * @return a future which completes with the result of the retried call.
+     */
+    @Nonnull
+    protected CompletableFuture<V> makeAsyncCall(@Nonnull final Callable<V> caller, @Nonnull final Executor executor) {
+        return makeAsyncCall(caller, executor, 0l);
+    }
+
+    /**
+     * Makes the retried call with each attempt run on the specified executor, cancelling any attempt which runs longer
+     * than the specified attempt timeout. No thread is held between attempts.
+     * 
+     * @param caller the {@link Callable} to make each attempt with.
+     * @param executor the executor to run each attempt on.
+     * @param attemptTimeout the maximum length of time, in milliseconds, of each attempt. A value of <tt>0</tt>
+     *            disables the timeout.
+     * @return a future which completes with the result of the retried call.
+     */
+    @Nonnull
+    protected CompletableFuture<V> makeAsyncCall(
+            @Nonnull final Callable<V> caller,
+            @Nonnull final Executor executor,
+            long attemptTimeout) {
+        return makeAsyncCall(caller, executor, attemptTimeout, 0l);
+    }
+
+    /**
+     * Makes the retried call with each attempt run on the specified executor, cancelling any attempt which runs longer
+     * than the specified attempt timeout and failing the call once the specified deadline has passed. No thread is held
+     * between attempts. If this instance has a {@link #getBulkhead() bulkhead}, each attempt is run in it instead.
+     * 
+     * @param caller the {@link Callable} to make each attempt with.
+     * @param executor the executor to run each attempt on.
+     * @param attemptTimeout the maximum length of time, in milliseconds, of each attempt. A value of <tt>0</tt>
+     *            disables the timeout.
+     * @param deadline the maximum length of time, in milliseconds, of the whole call including its backoff. A value of
+     *            <tt>0</tt> disables the deadline.
+     * @return a future which completes with the result of the retried call.
+     */
+    @Nonnull
+    protected CompletableFuture<V> makeAsyncCall(
+            @Nonnull final Callable<V> caller,
+            @Nonnull final Executor executor,
+            long attemptTimeout,
+            long deadline) {
+        return RetriableExecution.<V> builder()
+                .retryStrategy(getRetryStrategy())
+                .callable(caller)
+                .executor(executor)
+                .bulkhead(getBulkhead())
+                .scheduler(getRetryScheduler())
+                .attemptTimeout(attemptTimeout)
+                .deadline(deadline)
+                .build()
+                .start();
+    }
+
+    /**
+     * Makes the retried call as by {@link #makeAsyncCall(Callable, Executor, long, long)} while the calling thread
+     * waits for its result, except that the first attempt is made on the calling thread itself.
+     * <p>
+     * Note: only when there is neither an attempt timeout nor a deadline is the first attempt made without any
+     * allocation by this method, and the {@link RetriableExecution} making the retries on the executor only created
+     * once it has failed, since an attempt made on the calling thread could only be timed out by interrupting it, which
+     * a callable is free to ignore. Otherwise, or if this instance has a
+     * {@link #getBulkhead() bulkhead}, or the strategy has a {@link ConcurrencyLimiter} or a
+     * {@link com.recall.retry.hedging.HedgingPolicy}, every attempt is made on the executor instead, so the calling
+     * thread always regains control once the timeout elapses.
+     * 
+     * @param caller the {@link Callable} to make each attempt with.
+     * @param executor the executor to run each retry on.
+     * @param attemptTimeout the maximum length of time, in milliseconds, of each attempt. A value of <tt>0</tt>
+     *            disables the timeout.
+     * @param deadline the maximum length of time, in milliseconds, of the whole call including its backoff. A value of
+     *            <tt>0</tt> disables the deadline.
+     * @return the computed result of making the call.
+     * @throws ExhuastedRetriesException if the number of retries has been exhausted.
+     * @throws NonRetriableException if a non-retriable exception was thrown while making the call or the calling
+     *             thread was interrupted while waiting.
+     */
+    protected V makeSynchronousCall(
+            @Nonnull final Callable<V> caller,
+            @Nonnull final Executor executor,
+            long attemptTimeout,
+            long deadline) throws ExhuastedRetriesException, NonRetriableException {
+        final RetryStrategy retryStrategy = getRetryStrategy();
+        if (getBulkhead() != null
+                || retryStrategy.getConcurrencyLimiter() != null
+                || retryStrategy.getHedgingPolicy() != null
+                || retryStrategy.getMaximumRetries() <= 0
+                || attemptTimeout > 0
+                || deadline > 0) {
+            return awaitCall(makeAsyncCall(caller, executor, attemptTimeout, deadline));
+        }
+        final CircuitBreaker circuitBreaker = retryStrategy.getCircuitBreaker();
+        final RetryMetrics retryMetrics = retryStrategy.getRetryMetrics();
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            if (retryMetrics != null) {
+                retryMetrics.recordNonRetriable();
+            }
+            throw circuitBreaker.rejection(null);
+        }
+        final long startedAt = System.currentTimeMillis();
+        final long startTime = System.nanoTime();
+        Exception failure;
         try {
-            if (callState.getRetryCount() < getRetryStrategy().getMaximumRetries()) {
-                callState.getRetryCountAndIncrement();
-                return callState.getCallable().call();
+            final V answer = caller.call();
+            if (circuitBreaker != null) {
+                circuitBreaker.onSuccess();
+            }
+            final RetryBudget retryBudget = retryStrategy.getRetryBudget();
+            if (retryBudget != null) {
+                retryBudget.onSuccess();
             }
+            if (retryMetrics != null) {
+                retryMetrics.recordAttempt(System.nanoTime() - startTime);
+                retryMetrics.recordSuccess();
+            }
+            return answer;
         } catch (final Exception ex) {
-            log.info("call() threw exception: " + ex.getClass());
-            if (NonRetriableException.class.isInstance(ex)) {
-                throw NonRetriableException.class.cast(ex);
-            } else if (getRetryStrategy().isRetriableException(ex)) {
-                handleRetriableException(callState, ex);
-                return makeCall(callState);
-            } else {
-                log.warning("Unable to retry callable! Exception: " + ex.getMessage());
-                throw new NonRetriableException("Unable to retry callable!", ex);
+            failure = ex;
+        } catch (final Error err) {
+            if (circuitBreaker != null) {
+                circuitBreaker.releasePermission();
             }
+            throw err;
         }
-        throw handleExhuastedRetriesException(callState);
-    }
-
-    private void handleRetriableException(@Nonnull final RetriableCallState<?> callState, @Nonnull final Exception ex) {
-        final RetriableException wrappedEx = new RetriableException(ex, callState.getRetryCount());
-        callState.addCaughtRetriableException(wrappedEx);
-        log.warning("Retriable exception caught: " + wrappedEx.getMessage());
-        pause(callState);
+        if (retryMetrics != null) {
+            retryMetrics.recordAttempt(System.nanoTime() - startTime);
+        }
+        return awaitCall(RetriableExecution.<V> builder()
+                .retryStrategy(retryStrategy)
+                .callable(caller)
+                .executor(executor)
+                .scheduler(getRetryScheduler())
+                .attemptTimeout(attemptTimeout)
+                .deadline(deadline)
+                .retryCount(1)
+                .startTime(Instant.ofEpochMilli(startedAt))
+                .build()
+                .retryAfter(startTime, failure));
     }
 
-    private ExhuastedRetriesException handleExhuastedRetriesException(@Nonnull final RetriableCallState<?> callState) {
-        return new ExhuastedRetriesException(
-                "Maximum number of retries reached (max=" + getRetryStrategy().getMaximumRetries() + ")",
-                callState.getCaughtRetriableExceptions());
+    /**
+     * Blocks the calling thread for the specified wait time, registered with the specified scheduler.
+     * 
+     * @param scheduler the scheduler to register the wait with.
+     * @param waitTime the length of time to wait, in milliseconds.
+     * @throws NonRetriableException if the wait could not be scheduled, the scheduler was shut down before it elapsed,
+     *             or the calling thread was interrupted.
+     */
+    static void awaitNextAttempt(@Nonnull final RetryScheduler scheduler, long waitTime) throws NonRetriableException {
+        if (waitTime <= 0) {
+            return;
+        }
+        final CountDownLatch nextAttempt = new CountDownLatch(1);
+        final AtomicReference<RejectedExecutionException> shutdown = new AtomicReference<>();
+        final ScheduledRetry scheduled;
+        try {
+            scheduled = scheduler.schedule(nextAttempt::countDown, rejected -> {
+                shutdown.set(rejected);
+                nextAttempt.countDown();
+            }, waitTime, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException rejected) {
+            throw new NonRetriableException("Unable to schedule retry attempt!", rejected);
+        }
+        try {
+            nextAttempt.await();
+        } catch (final InterruptedException ex) {
+            scheduled.cancel();
+            Thread.currentThread().interrupt();
+            throw new NonRetriableException("Retry callable interrupted!", ex);
+        }
+        if (shutdown.get() != null) {
+            throw new NonRetriableException("Unable to schedule retry attempt!", shutdown.get());
+        }
     }
 
-    private void pause(@Nonnull final RetriableCallState<?> callState) {
-        long waitTime = getRetryStrategy().getWaitTime(callState);
+    /**
+     * Waits for the specified retried call to complete and returns its result, rethrowing the exception it completed
+     * with otherwise.
+     * 
+     * @param answer the future of the retried call.
+     * @return the computed result of making the call.
+     * @throws ExhuastedRetriesException if the number of retries has been exhausted.
+     * @throws NonRetriableException if a non-retriable exception was thrown while making the call or the calling
+     *             thread was interrupted while waiting.
+     */
+    protected static <V> V awaitCall(@Nonnull final CompletableFuture<V> answer)
+            throws ExhuastedRetriesException, NonRetriableException {
         try {
-            if (waitTime > 0) {
-                Thread.sleep(waitTime);
-            }
+            return answer.get();
         } catch (final InterruptedException ex) {
-            log.warning("Retry callable interrupted due to: " + ex);
+            Thread.currentThread().interrupt();
+            answer.cancel(false);
+            throw new NonRetriableException("Retry callable interrupted!", ex);
+        } catch (final ExecutionException wrappedEx) {
+            final Throwable cause = wrappedEx.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new NonRetriableException("Unable to retry callable!", cause);
         }
     }
 
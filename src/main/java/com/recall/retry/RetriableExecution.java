@@ -0,0 +1,901 @@
+package com.recall.retry;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.bulkhead.Bulkhead;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.exceptions.DeadlineExceededException;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.hedging.HedgingPolicy;
+import com.recall.retry.journal.DeadLetterQueue;
+import com.recall.retry.journal.DurableCallable;
+import com.recall.retry.journal.JournalEntry;
+import com.recall.retry.journal.RetryJournal;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.metrics.RetryMetrics;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.scheduling.RetrySchedulers;
+import com.recall.retry.scheduling.ScheduledRetry;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.extern.java.Log;
+
+/**
+ * Provides a single retried execution of a {@link Callable}. Each attempt is run on the given {@link Executor} and,
+ * when a retriable exception is caught, the next attempt is registered with a {@link RetryScheduler} for the wait time
+ * given by the {@link RetryStrategy}. No thread is held while the execution is waiting to make its next attempt.
+ *
+ * <pre>
+ * final CompletableFuture&lt;ReturnType&gt; answer = RetriableExecution.&lt;ReturnType&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .callable(() -&gt; doSomething())
+ *         .executor(executor)
+ *         .build()
+ *         .start();
+ * </pre>
+ *
+ * The returned future completes with the result of the first successful attempt, or exceptionally with either an
+ * {@link ExhuastedRetriesException} or a {@link NonRetriableException}. If the retry strategy has a
+ * {@link HedgingPolicy}, each attempt which is slow to complete is hedged with parallel copies of itself. If the
+ * execution is bound to a {@link Bulkhead}, every attempt is run in the bulkhead instead of on the executor. If the
+ * execution is journaled, it is recorded in the {@link RetryJournal} until it completes, and may be resumed after a
+ * restart with {@link #resume(JournalEntry)}. If the execution has a {@link DeadLetterQueue}, a call whose retries are
+ * exhausted is added to it before its future completes.
+ *
+ * @param <V> the result type of the retried {@link Callable}.
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class RetriableExecution<V> implements Runnable {
+
+    @Nonnull
+    private final RetryStrategy retryStrategy;
+
+    @Nonnull
+    private final Executor executor;
+
+    /** The executor the tasks of the scheduler hand off to, so no retry logic runs on the scheduler's own thread. */
+    @Nonnull
+    private final Executor handOffExecutor;
+
+    @Nullable
+    private final Bulkhead bulkhead;
+
+    @Nonnull
+    private final RetryScheduler scheduler;
+
+    private final long attemptTimeout;
+
+    private final long deadline;
+
+    @Nullable
+    private final RetryJournal journal;
+
+    @Nullable
+    private final DeadLetterQueue deadLetterQueue;
+
+    /** The id of the call in the journal, set when the execution is started or resumed. */
+    private volatile long journalId;
+
+    /** The {@link System#nanoTime()} by which the call must complete, set when the execution is started. */
+    private volatile long deadlineAt;
+
+    @Nonnull
+    private final RetriableCallState<V> callState;
+
+    /** The number of attempts whose outcome has been claimed, see {@link #settle(int, ScheduledRetry)}. */
+    @Nonnull
+    private final AtomicInteger settledAttempts;
+
+    @Nonnull
+    private final CompletableFuture<V> result = new CompletableFuture<>();
+
+    @Nonnull
+    private final Object runnerLock = new Object();
+
+    /** The thread running the current attempt, while it may be interrupted by the attempt timeout. */
+    @Nullable
+    @GuardedBy("runnerLock")
+    private Runner runner;
+
+    /** The {@link System#nanoTime()} the current attempt was started, if the retry strategy has a concurrency limiter. */
+    private volatile long attemptStartedAt;
+
+    /** The latest hedged attempt, if the retry strategy has a {@link HedgingPolicy}. */
+    @Nullable
+    private volatile HedgedAttempt hedgedAttempt;
+
+    /**
+     * Creates a new retried execution.
+     *
+     * @param retryStrategy the retry strategy to use for this execution.
+     * @param callable the {@link Callable} to be executed with retries.
+     * @param executor the executor to run each attempt on, or only the work handed off by the scheduler when a bulkhead
+     *            is given, in which case <tt>null</tt> stands for {@link RetryExecutors#shared()}.
+     * @param bulkhead the bulkhead to run each attempt in, or <tt>null</tt> to run them on the executor. The execution
+     *            fails with a {@link com.recall.retry.exceptions.BulkheadFullException} when the bulkhead rejects an
+     *            attempt.
+     * @param scheduler the scheduler to register delayed attempts with, or <tt>null</tt> to use the shared scheduler.
+     * @param attemptTimeout the length of time, in milliseconds, after which a running attempt is cancelled, by
+     *            interrupting it, and treated as having thrown a {@link TimeoutException}. A value of <tt>0</tt> or less
+     *            disables the timeout.
+     * @param deadline the length of time, in milliseconds, from the start of the execution by which the call must
+     *            complete. Attempts are timed out at the deadline and no retry is made whose wait would reach it, the
+     *            call failing with a {@link DeadlineExceededException} instead. A value of <tt>0</tt> or less disables
+     *            the deadline.
+     * @param journal the journal to record the call in until it completes, or <tt>null</tt> for none. The callable of a
+     *            journaled execution must be a {@link DurableCallable}.
+     * @param retryCount the number of attempts already made, when resuming a journaled call.
+     * @param startTime the time the call was started, from which the retry strategy measures how long it has been
+     *            retried for, or <tt>null</tt> for the time this execution is created.
+     * @param deadLetterQueue the queue to add the call to if its retries are exhausted, or <tt>null</tt> for none. The
+     *            callable of an execution with a dead-letter queue must be a {@link DurableCallable}.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private RetriableExecution(
+            final RetryStrategy retryStrategy,
+            final Callable<V> callable,
+            @Nullable final Executor executor,
+            @Nullable final Bulkhead bulkhead,
+            @Nullable final RetryScheduler scheduler,
+            long attemptTimeout,
+            long deadline,
+            @Nullable final RetryJournal journal,
+            int retryCount,
+            @Nullable final Instant startTime,
+            @Nullable final DeadLetterQueue deadLetterQueue) {
+        if (journal != null && !(callable instanceof DurableCallable)) {
+            throw new IllegalArgumentException("The callable of a journaled execution must be a DurableCallable");
+        }
+        if (deadLetterQueue != null && !(callable instanceof DurableCallable)) {
+            throw new IllegalArgumentException(
+                    "The callable of an execution with a dead-letter queue must be a DurableCallable");
+        }
+        this.retryStrategy = retryStrategy;
+        this.executor = bulkhead != null ? bulkhead : executor;
+        this.handOffExecutor = executor != null ? executor : RetryExecutors.shared();
+        this.bulkhead = bulkhead;
+        this.scheduler = scheduler != null ? scheduler : RetrySchedulers.shared();
+        this.attemptTimeout = attemptTimeout;
+        this.deadline = deadline;
+        this.journal = journal;
+        this.deadLetterQueue = deadLetterQueue;
+        this.callState = new RetriableCallState<>(callable, startTime != null ? startTime : Instant.now(), retryCount,
+                retryStrategy.getExceptionHistoryPolicy());
+        this.settledAttempts = new AtomicInteger(retryCount);
+    }
+
+    /**
+     * Starts this execution by submitting the first attempt to the executor.
+     *
+     * @return a future which completes with the result of the retried call.
+     */
+    @Nonnull
+    public CompletableFuture<V> start() {
+        startDeadline();
+        if (this.journal != null) {
+            try {
+                journaled(this.journal.append((DurableCallable<?>) this.callState.getCallable()));
+            } catch (final UncheckedIOException | IllegalArgumentException | IllegalStateException ex) {
+                log.warning("Unable to journal retried call! Exception: " + ex.getMessage());
+                fail(new NonRetriableException("Unable to journal retried call!", ex));
+                return this.result;
+            }
+        }
+        dispatch();
+        return this.result;
+    }
+
+    /**
+     * Resumes a call recovered from the journal of this execution, making its next attempt when it was due. The
+     * execution should have been built with the retry count of the recovered call, and its deadline, if any, starts
+     * again from now.
+     *
+     * @param entry the recovered call.
+     * @return a future which completes with the result of the retried call.
+     * @throws IllegalStateException if the execution is not journaled.
+     */
+    @Nonnull
+    public CompletableFuture<V> resume(@Nonnull final JournalEntry entry) {
+        if (this.journal == null) {
+            throw new IllegalStateException("Only a journaled execution may be resumed");
+        }
+        startDeadline();
+        journaled(entry.getId());
+        scheduleAttempt(Math.max(0l, entry.getNextAttemptAt() - System.currentTimeMillis()));
+        return this.result;
+    }
+
+    /**
+     * Continues a call whose first attempt was made, and failed, by the caller itself, scheduling its next attempt as
+     * the retry strategy decides. The execution should have been built with a retry count of <tt>1</tt>, and with
+     * neither a concurrency limiter nor a hedging policy in its retry strategy, since the caller acquired no permit for
+     * the first attempt.
+     *
+     * @param startTime the {@link System#nanoTime()} the call was started, from which the deadline is measured.
+     * @param ex the exception the first attempt failed with.
+     * @return a future which completes with the result of the retried call.
+     */
+    @Nonnull
+    CompletableFuture<V> retryAfter(long startTime, @Nonnull final Exception ex) {
+        if (this.deadline > 0) {
+            this.deadlineAt = startTime + TimeUnit.MILLISECONDS.toNanos(this.deadline);
+        }
+        handleException(ex);
+        return this.result;
+    }
+
+    private void startDeadline() {
+        if (this.deadline > 0) {
+            this.deadlineAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.deadline);
+        }
+    }
+
+    private void journaled(long id) {
+        this.journalId = id;
+        this.result.whenComplete((answer, ex) -> {
+            try {
+                this.journal.complete(id);
+            } catch (final UncheckedIOException completeEx) {
+                log.warning("Unable to journal completed call! Exception: " + completeEx.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Makes the next attempt of this execution. This is invoked on the executor and should not be called directly.
+     */
+    @Override
+    public void run() {
+        if (this.result.isDone()) {
+            releasePermissions();
+            return;
+        }
+        if (this.callState.getRetryCount() >= this.retryStrategy.getMaximumRetries()) {
+            releasePermissions();
+            failExhausted(this.callState.exhausted(this.retryStrategy));
+            return;
+        }
+        if (remainingMillis() <= 0) {
+            releasePermissions();
+            failExhausted(this.callState.deadlineExceeded(this.deadline));
+            return;
+        }
+        if (this.retryStrategy.getConcurrencyLimiter() != null) {
+            this.attemptStartedAt = System.nanoTime();
+        }
+        final int attempt = this.callState.getRetryCountAndIncrement() + 1;
+        final ScheduledRetry timeout = scheduleTimeout(attempt);
+        final HedgingPolicy hedgingPolicy = this.retryStrategy.getHedgingPolicy();
+        if (hedgingPolicy != null) {
+            final HedgedAttempt hedgedAttempt = new HedgedAttempt(attempt, timeout, hedgingPolicy);
+            this.hedgedAttempt = hedgedAttempt;
+            hedgedAttempt.start();
+            return;
+        }
+        final Runner runner = timeout != null ? setRunner(attempt) : null;
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        final long startTime = retryMetrics != null ? System.nanoTime() : 0l;
+        try {
+            final V answer = this.callState.getCallable().call();
+            attemptCompleted(runner, retryMetrics, startTime);
+            if (settle(attempt, timeout)) {
+                succeed(answer);
+            }
+        } catch (final Exception ex) {
+            attemptCompleted(runner, retryMetrics, startTime);
+            if (settle(attempt, timeout)) {
+                handleException(ex);
+            }
+        } catch (final Error err) {
+            attemptCompleted(runner, retryMetrics, startTime);
+            if (settle(attempt, timeout)) {
+                releasePermissions();
+                fail(err);
+            }
+            throw err;
+        }
+    }
+
+    /**
+     * Submits the next attempt to the executor. When the circuit breaker of the strategy rejects the attempt, the
+     * execution fails immediately without the executor being involved. When the concurrency limiter of the strategy is
+     * at its limit, the attempt is queued until a permit is released, or the execution fails immediately if the queue
+     * is full.
+     */
+    private void dispatch() {
+        final CircuitBreaker circuitBreaker = this.retryStrategy.getCircuitBreaker();
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            recordRejection();
+            fail(this.callState.rejected(circuitBreaker));
+            return;
+        }
+        final ConcurrencyLimiter concurrencyLimiter = this.retryStrategy.getConcurrencyLimiter();
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+            if (!concurrencyLimiter.enqueue(this::submit)) {
+                releasePermission(circuitBreaker);
+                recordRejection();
+                fail(this.callState.limited(concurrencyLimiter));
+            }
+            return;
+        }
+        submit();
+    }
+
+    private void submit() {
+        try {
+            if (this.bulkhead == null) {
+                this.executor.execute(this);
+            } else if (!this.bulkhead.tryExecute(this, this::submitRejected)) {
+                releasePermissions();
+                recordRejection();
+                fail(this.callState.bulkheadFull(this.bulkhead));
+            }
+        } catch (final RejectedExecutionException rejected) {
+            submitRejected(rejected);
+        }
+    }
+
+    /**
+     * Fails this execution because the executor rejected its next attempt, whether when it was submitted or, if it
+     * waited in the queue of the bulkhead, when a slot was freed for it.
+     */
+    private void submitRejected(@Nonnull final RejectedExecutionException rejected) {
+        releasePermissions();
+        log.warning("Unable to submit retry attempt! Exception: " + rejected.getMessage());
+        fail(new NonRetriableException("Unable to submit retry attempt!", rejected));
+    }
+
+    private void recordRejection() {
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            retryMetrics.recordNonRetriable();
+        }
+    }
+
+    @Nullable
+    private ScheduledRetry scheduleTimeout(int attempt) {
+        long timeoutMillis = this.attemptTimeout;
+        boolean atDeadline = false;
+        if (this.deadline > 0) {
+            final long remaining = Math.max(1l, remainingMillis());
+            atDeadline = timeoutMillis <= 0 || remaining <= timeoutMillis;
+            timeoutMillis = atDeadline ? remaining : timeoutMillis;
+        }
+        if (timeoutMillis <= 0) {
+            return null;
+        }
+        final long timedOutAfter = timeoutMillis;
+        final boolean deadlineReached = atDeadline;
+        try {
+            return this.scheduler.schedule(() -> {
+                if (settle(attempt, null)) {
+                    cancelHedges(attempt);
+                    interruptRunner(attempt);
+                    final TimeoutException timeout =
+                            new TimeoutException("Attempt timed out after " + timedOutAfter + "ms");
+                    handOff(() -> {
+                        if (deadlineReached) {
+                            deadlineReached(timeout);
+                        } else {
+                            handleException(timeout);
+                        }
+                    }, true);
+                }
+            }, rejected -> {
+                if (settle(attempt, null)) {
+                    cancelHedges(attempt);
+                    interruptRunner(attempt);
+                    releasePermissions();
+                    rejected(rejected);
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException rejected) {
+            log.warning("Unable to schedule attempt timeout! Exception: " + rejected.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Claims the outcome of the specified attempt. Only the first of the attempt itself and its timeout may settle an
+     * attempt, any later outcome for the same attempt is ignored.
+     */
+    private boolean settle(int attempt, @Nullable final ScheduledRetry timeout) {
+        if (this.settledAttempts.compareAndSet(attempt - 1, attempt)) {
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the length of time, in milliseconds, remaining until the deadline, or {@link Long#MAX_VALUE} if the
+     * execution has no deadline.
+     */
+    private long remainingMillis() {
+        return this.deadline > 0
+                ? TimeUnit.NANOSECONDS.toMillis(this.deadlineAt - System.nanoTime())
+                : Long.MAX_VALUE;
+    }
+
+    @Nonnull
+    private Runner setRunner(int attempt) {
+        final Runner runner = new Runner(Thread.currentThread(), attempt);
+        synchronized (this.runnerLock) {
+            this.runner = runner;
+        }
+        return runner;
+    }
+
+    /**
+     * Stops the current thread from being interrupted by the timeout of the specified attempt, clearing any interrupt
+     * that timeout already made so it does not leak into the next task run by the executor thread. A later attempt,
+     * started once the specified one timed out, is left registered so it may still be interrupted by its own timeout.
+     */
+    private void clearRunner(@Nonnull final Runner runner) {
+        synchronized (this.runnerLock) {
+            if (this.runner == runner) {
+                this.runner = null;
+            }
+            if (runner.interrupted) {
+                runner.interrupted = false;
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void interruptRunner(int attempt) {
+        synchronized (this.runnerLock) {
+            final Runner current = this.runner;
+            if (current != null && current.attempt == attempt) {
+                current.interrupted = true;
+                current.thread.interrupt();
+            }
+        }
+    }
+
+    private void attemptCompleted(
+            @Nullable final Runner runner,
+            @Nullable final RetryMetrics retryMetrics,
+            long startTime) {
+        if (runner != null) {
+            clearRunner(runner);
+        }
+        if (retryMetrics != null) {
+            retryMetrics.recordAttempt(System.nanoTime() - startTime);
+        }
+    }
+
+    private void succeed(final V answer) {
+        final CircuitBreaker circuitBreaker = this.retryStrategy.getCircuitBreaker();
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+        }
+        final RetryBudget retryBudget = this.retryStrategy.getRetryBudget();
+        if (retryBudget != null) {
+            retryBudget.onSuccess();
+        }
+        final ConcurrencyLimiter concurrencyLimiter = this.retryStrategy.getConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onSuccess(System.nanoTime() - this.attemptStartedAt);
+        }
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            retryMetrics.recordSuccess();
+        }
+        this.result.complete(answer);
+    }
+
+    private void cancelHedges(int attempt) {
+        final HedgedAttempt hedged = this.hedgedAttempt;
+        if (hedged != null && hedged.attempt == attempt) {
+            hedged.cancel();
+        }
+    }
+
+    private void handleException(@Nonnull final Exception ex) {
+        final ConcurrencyLimiter concurrencyLimiter = this.retryStrategy.getConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            if (isDropped(ex)) {
+                concurrencyLimiter.onDropped();
+            } else {
+                concurrencyLimiter.onIgnored();
+            }
+        }
+        final RuntimeException failure =
+                this.callState.recordFailure(this.retryStrategy, ex, this.deadline, remainingMillis());
+        if (failure != null) {
+            fail(failure);
+        } else {
+            scheduleNextAttempt();
+        }
+    }
+
+    /**
+     * Checks if the specified exception, thrown by an attempt, should shrink the limit of the concurrency limiter: an
+     * attempt which timed out or failed with a retriable exception was dropped by the dependency.
+     */
+    private boolean isDropped(@Nonnull final Exception ex) {
+        return ex instanceof TimeoutException || RetriableCallState.isRetriable(this.retryStrategy, ex);
+    }
+
+    /**
+     * Fails this execution because its deadline was reached while an attempt was running. The attempt is recorded as
+     * having timed out with the circuit breaker and the concurrency limiter, but the call fails with a
+     * {@link DeadlineExceededException} whether or not the retry strategy retries a {@link TimeoutException}.
+     */
+    private void deadlineReached(@Nonnull final TimeoutException timeout) {
+        final CircuitBreaker circuitBreaker = this.retryStrategy.getCircuitBreaker();
+        if (circuitBreaker != null) {
+            circuitBreaker.onFailure();
+        }
+        final ConcurrencyLimiter concurrencyLimiter = this.retryStrategy.getConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onDropped();
+        }
+        log.warning("Call deadline reached during attempt! Exception: " + timeout.getMessage());
+        failExhausted(this.callState.deadlineExceeded(this.deadline));
+    }
+
+    private void scheduleNextAttempt() {
+        final long waitTime = this.callState.getLastWaitTime();
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            retryMetrics.recordBackoff(waitTime);
+        }
+        if (this.journal != null) {
+            try {
+                this.journal.reschedule(this.journalId, this.callState.getRetryCount(),
+                        System.currentTimeMillis() + waitTime);
+            } catch (final UncheckedIOException ex) {
+                log.warning("Unable to journal retry attempt! Exception: " + ex.getMessage());
+            }
+        }
+        scheduleAttempt(waitTime);
+    }
+
+    private void scheduleAttempt(long waitTime) {
+        if (waitTime <= 0) {
+            dispatch();
+            return;
+        }
+        try {
+            this.scheduler.schedule(() -> handOff(this::dispatch, false), this::rejected, waitTime,
+                    TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException rejected) {
+            rejected(rejected);
+        }
+    }
+
+    /**
+     * Runs the specified task, scheduled by this execution, on the executor instead of the scheduler's own thread. The
+     * execution fails if the executor rejects the task.
+     *
+     * @param task the task to run.
+     * @param holdsPermissions whether the task would record the outcome of the current attempt, whose permissions must
+     *            then be released if it is rejected.
+     */
+    private void handOff(@Nonnull final Runnable task, boolean holdsPermissions) {
+        try {
+            this.handOffExecutor.execute(task);
+        } catch (final RejectedExecutionException rejected) {
+            if (holdsPermissions) {
+                releasePermissions();
+            }
+            log.warning("Unable to submit retry attempt! Exception: " + rejected.getMessage());
+            fail(new NonRetriableException("Unable to submit retry attempt!", rejected));
+        }
+    }
+
+    /**
+     * Fails this execution because its scheduler has been shut down.
+     */
+    private void rejected(@Nonnull final RejectedExecutionException rejected) {
+        log.warning("Unable to schedule retry attempt! Exception: " + rejected.getMessage());
+        fail(new NonRetriableException("Unable to schedule retry attempt!", rejected));
+    }
+
+    /**
+     * Returns the permissions acquired for an attempt which was not made, or whose outcome is not recorded.
+     */
+    private void releasePermissions() {
+        releasePermission(this.retryStrategy.getCircuitBreaker());
+        final ConcurrencyLimiter concurrencyLimiter = this.retryStrategy.getConcurrencyLimiter();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onIgnored();
+        }
+    }
+
+    private static void releasePermission(@Nullable final CircuitBreaker circuitBreaker) {
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+    }
+
+    private void failExhausted(@Nonnull final ExhuastedRetriesException exhausted) {
+        final RetryMetrics retryMetrics = this.retryStrategy.getRetryMetrics();
+        if (retryMetrics != null) {
+            retryMetrics.recordExhausted();
+        }
+        fail(exhausted);
+    }
+
+    private void fail(@Nonnull final Throwable cause) {
+        if (this.deadLetterQueue != null && cause instanceof ExhuastedRetriesException && !this.result.isDone()) {
+            try {
+                this.deadLetterQueue.offer((DurableCallable<?>) this.callState.getCallable(),
+                        this.callState.getRetryCount(), (ExhuastedRetriesException) cause);
+            } catch (final IllegalArgumentException ex) {
+                log.warning("Unable to add exhausted call to dead-letter queue! Exception: " + ex.getMessage());
+            }
+        }
+        this.result.completeExceptionally(cause);
+    }
+
+    /**
+     * The thread running an attempt which may be interrupted by the attempt timeout, and whether that timeout has
+     * interrupted it.
+     */
+    private static final class Runner {
+
+        @Nonnull
+        private final Thread thread;
+
+        private final int attempt;
+
+        @GuardedBy("runnerLock")
+        private boolean interrupted;
+
+        Runner(@Nonnull final Thread thread, int attempt) {
+            this.thread = thread;
+            this.attempt = attempt;
+        }
+
+    }
+
+    /**
+     * An attempt made per a {@link HedgingPolicy}. The attempt is run on the current thread and, each time the hedge
+     * delay passes without it being settled, a hedge of it is run on the executor. The first hedge to succeed settles
+     * the attempt and cancels the others; a failure only settles the attempt once no other hedge is still running.
+     * <p>
+     * Each hedge takes a permit of its own from the concurrency limiter of the strategy, if any, and returns it once it
+     * completes; a hedge is skipped when no permit is available, or while the circuit breaker of the strategy, if any,
+     * is not closed, so hedging neither exceeds the limit nor adds load to a dependency being probed.
+     */
+    private final class HedgedAttempt {
+
+        private final int attempt;
+
+        @Nullable
+        private final ScheduledRetry timeout;
+
+        @Nonnull
+        private final HedgingPolicy hedgingPolicy;
+
+        @Nonnull
+        private final AtomicInteger running = new AtomicInteger();
+
+        @Nonnull
+        private final AtomicInteger hedges = new AtomicInteger();
+
+        @Nonnull
+        private final Queue<HedgeTask> tasks = new ConcurrentLinkedQueue<>();
+
+        @Nullable
+        private volatile ScheduledRetry hedgeTimer;
+
+        @Nullable
+        private volatile Exception lastFailure;
+
+        HedgedAttempt(int attempt, @Nullable final ScheduledRetry timeout, final HedgingPolicy hedgingPolicy) {
+            this.attempt = attempt;
+            this.timeout = timeout;
+            this.hedgingPolicy = hedgingPolicy;
+        }
+
+        void start() {
+            scheduleHedge();
+            launch(false).run();
+        }
+
+        /**
+         * Cancels the pending hedge, if any, and every hedge still running once the attempt has been settled.
+         */
+        void cancel() {
+            final ScheduledRetry timer = this.hedgeTimer;
+            if (timer != null) {
+                timer.cancel();
+            }
+            for (final HedgeTask task : this.tasks) {
+                task.cancel(true);
+            }
+        }
+
+        @Nonnull
+        private HedgeTask launch(boolean hedge) {
+            final HedgeTask task = new HedgeTask(hedge);
+            this.running.incrementAndGet();
+            this.tasks.offer(task);
+            return task;
+        }
+
+        private void scheduleHedge() {
+            if (this.hedges.get() >= this.hedgingPolicy.getMaximumHedges()) {
+                return;
+            }
+            try {
+                this.hedgeTimer = RetriableExecution.this.scheduler.schedule(
+                        this::hedge, this.hedgingPolicy.getCurrentHedgeDelay(), TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException rejected) {
+                log.warning("Unable to schedule hedged attempt! Exception: " + rejected.getMessage());
+            }
+        }
+
+        private void hedge() {
+            if (RetriableExecution.this.settledAttempts.get() >= this.attempt) {
+                return;
+            }
+            this.hedges.incrementAndGet();
+            if (!mayHedge()) {
+                scheduleHedge();
+                return;
+            }
+            final HedgeTask task = launch(true);
+            try {
+                RetriableExecution.this.executor.execute(task);
+            } catch (final RejectedExecutionException rejected) {
+                log.warning("Unable to submit hedged attempt! Exception: " + rejected.getMessage());
+                task.cancel(false);
+                final Exception failure = this.lastFailure;
+                if (this.running.decrementAndGet() == 0 && failure != null) {
+                    failed(failure);
+                }
+                return;
+            }
+            scheduleHedge();
+        }
+
+        /**
+         * Checks if a hedge may be made now, acquiring a permit for it from the concurrency limiter, if any.
+         */
+        private boolean mayHedge() {
+            final CircuitBreaker circuitBreaker = RetriableExecution.this.retryStrategy.getCircuitBreaker();
+            if (circuitBreaker != null && circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+                return false;
+            }
+            final ConcurrencyLimiter concurrencyLimiter = RetriableExecution.this.retryStrategy.getConcurrencyLimiter();
+            return concurrencyLimiter == null || concurrencyLimiter.tryAcquire();
+        }
+
+        private void succeeded(final V answer) {
+            if (settle(this.attempt, this.timeout)) {
+                cancel();
+                succeed(answer);
+            }
+        }
+
+        private void failed(@Nonnull final Exception ex) {
+            this.lastFailure = ex;
+            if (this.running.decrementAndGet() <= 0 && settle(this.attempt, this.timeout)) {
+                cancel();
+                handleException(ex);
+            }
+        }
+
+        private void errored(@Nonnull final Error err) {
+            if (settle(this.attempt, this.timeout)) {
+                cancel();
+                releasePermissions();
+                fail(err);
+            }
+        }
+
+        /**
+         * One hedge of the attempt, whose outcome is reported once it completes unless it was cancelled. The latency of
+         * every hedge which ran is recorded with the hedging policy, whether it won or not: a hedge cancelled by
+         * another's success records how long it ran, a lower bound on its latency, so slow attempts still count.
+         */
+        private final class HedgeTask extends FutureTask<V> {
+
+            /** Whether this task is a hedge, holding a concurrency limiter permit of its own, or the attempt itself. */
+            private final boolean hedge;
+
+            private volatile long startTime;
+
+            private volatile boolean started;
+
+            HedgeTask(boolean hedge) {
+                super(RetriableExecution.this.callState.getCallable());
+                this.hedge = hedge;
+            }
+
+            @Override
+            public void run() {
+                this.startTime = System.nanoTime();
+                this.started = true;
+                super.run();
+            }
+
+            @Override
+            protected void done() {
+                if (!this.started) {
+                    releasePermit(false, 0l, null);
+                    return;
+                }
+                final long latency = System.nanoTime() - this.startTime;
+                HedgedAttempt.this.hedgingPolicy.recordLatency(latency);
+                if (isCancelled()) {
+                    releasePermit(false, latency, null);
+                    return;
+                }
+                final RetryMetrics retryMetrics = RetriableExecution.this.retryStrategy.getRetryMetrics();
+                if (retryMetrics != null) {
+                    retryMetrics.recordAttempt(latency);
+                }
+                try {
+                    final V answer = get();
+                    releasePermit(true, latency, null);
+                    succeeded(answer);
+                } catch (final ExecutionException ex) {
+                    final Throwable cause = ex.getCause();
+                    if (cause instanceof Error) {
+                        releasePermit(false, latency, null);
+                        errored((Error) cause);
+                    } else {
+                        final Exception failure = cause instanceof Exception ? (Exception) cause : ex;
+                        releasePermit(false, latency, failure);
+                        failed(failure);
+                    }
+                } catch (final InterruptedException ex) {
+                    releasePermit(false, latency, null);
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            /**
+             * Returns the concurrency limiter permit of this task, if it is a hedge, recording its outcome. The permit
+             * of the attempt itself is returned when the attempt is settled.
+             */
+            private void releasePermit(boolean succeeded, long latency, @Nullable final Exception failure) {
+                final ConcurrencyLimiter concurrencyLimiter =
+                        RetriableExecution.this.retryStrategy.getConcurrencyLimiter();
+                if (!this.hedge || concurrencyLimiter == null) {
+                    return;
+                }
+                if (succeeded) {
+                    concurrencyLimiter.onSuccess(latency);
+                } else if (failure != null && isDropped(failure)) {
+                    concurrencyLimiter.onDropped();
+                } else {
+                    concurrencyLimiter.onIgnored();
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.recall.retry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Provides bulk invocation of independent retried calls, in the style of
+ * {@link java.util.concurrent.ExecutorService#invokeAll(Collection)} and
+ * {@link java.util.concurrent.ExecutorService#invokeAny(Collection)}. Every task is started at once as its own
+ * {@link RetriableExecution}, retried independently of the others, with its attempts run on a shared pool, by default
+ * the work-stealing pool from {@link RetryExecutors#workStealing()}. No thread is held by a task while it is backing
+ * off, so thousands of tasks may be invoked together.
+ * <p>
+ * An optional deadline bounds the whole invocation: every task which has not completed by then fails with a
+ * {@link com.recall.retry.exceptions.DeadlineExceededException}, and no retry is made whose wait would reach it.
+ *
+ * <pre>
+ * final RetriableInvoker invoker = RetriableInvoker.builder()
+ *         .retryStrategy(retryStrategy)
+ *         .deadline(5_000)
+ *         .build();
+ *
+ * final List&lt;InvocationResult&lt;Product&gt;&gt; products = invoker.invokeAll(productIds.stream()
+ *         .map(productId -&gt; (Callable&lt;Product&gt;) () -&gt; fetchProduct(productId))
+ *         .collect(Collectors.toList()));
+ * </pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetriableInvoker {
+
+    @Nonnull
+    private final RetryStrategy retryStrategy;
+
+    @Nonnull
+    private final Executor executor;
+
+    @Nullable
+    private final RetryScheduler scheduler;
+
+    private final long attemptTimeout;
+
+    private final long deadline;
+
+    /**
+     * Creates a new invoker.
+     *
+     * @param retryStrategy the retry strategy applied to each task.
+     * @param executor the executor to run each attempt on, or <tt>null</tt> for {@link RetryExecutors#workStealing()}.
+     * @param scheduler the scheduler to register delayed attempts with, or <tt>null</tt> to use the shared scheduler.
+     * @param attemptTimeout the attempt timeout, in milliseconds, of every task, or <tt>0</tt> for none.
+     * @param deadline the length of time, in milliseconds, by which every task of an invocation must complete, or
+     *            <tt>0</tt> for no deadline.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private RetriableInvoker(
+            final RetryStrategy retryStrategy,
+            @Nullable final Executor executor,
+            @Nullable final RetryScheduler scheduler,
+            long attemptTimeout,
+            long deadline) {
+        if (retryStrategy == null) {
+            throw new NullPointerException("retryStrategy is required");
+        }
+        this.retryStrategy = retryStrategy;
+        this.executor = executor != null ? executor : RetryExecutors.workStealing();
+        this.scheduler = scheduler;
+        this.attemptTimeout = attemptTimeout;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Starts every specified task, retrying each one independently, without blocking the calling thread.
+     *
+     * @param tasks the tasks to invoke.
+     * @return a future for each task, in the iteration order of the tasks.
+     */
+    @Nonnull
+    public <V> List<CompletableFuture<V>> invokeAllAsync(final Collection<? extends Callable<V>> tasks) {
+        final List<CompletableFuture<V>> answers = new ArrayList<>(tasks.size());
+        for (final Callable<V> task : tasks) {
+            answers.add(start(task));
+        }
+        return answers;
+    }
+
+    /**
+     * Invokes every specified task, retrying each one independently, and waits for all of them to complete.
+     *
+     * @param tasks the tasks to invoke.
+     * @return the outcome of each task, in the iteration order of the tasks.
+     * @throws NonRetriableException if the calling thread was interrupted while waiting, in which case every task
+     *             still running is cancelled.
+     */
+    @Nonnull
+    public <V> List<InvocationResult<V>> invokeAll(final Collection<? extends Callable<V>> tasks)
+            throws NonRetriableException {
+        final List<CompletableFuture<V>> answers = invokeAllAsync(tasks);
+        final List<InvocationResult<V>> results = new ArrayList<>(answers.size());
+        try {
+            for (final CompletableFuture<V> answer : answers) {
+                results.add(awaitResult(answer));
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelAll(answers);
+            throw new NonRetriableException("Retriable invoker interrupted!", ex);
+        }
+        return results;
+    }
+
+    /**
+     * Invokes every specified task, retrying each one independently, and returns the result of the first of them to
+     * succeed. The other tasks are then cancelled.
+     *
+     * @param tasks the tasks to invoke.
+     * @return the result of the first task to succeed.
+     * @throws ExhuastedRetriesException if no task succeeded and the last task to fail exhausted its retries.
+     * @throws NonRetriableException if no task succeeded and the last task to fail threw a non-retriable exception, or
+     *             the calling thread was interrupted while waiting.
+     * @throws IllegalArgumentException if there are no tasks.
+     */
+    public <V> V invokeAny(final Collection<? extends Callable<V>> tasks)
+            throws ExhuastedRetriesException, NonRetriableException {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("No tasks to invoke");
+        }
+        final CompletableFuture<V> first = new CompletableFuture<>();
+        final AtomicInteger remaining = new AtomicInteger(tasks.size());
+        final List<CompletableFuture<V>> answers = invokeAllAsync(tasks);
+        for (final CompletableFuture<V> answer : answers) {
+            answer.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    first.complete(result);
+                } else if (remaining.decrementAndGet() == 0) {
+                    first.completeExceptionally(ex);
+                }
+            });
+        }
+        try {
+            return RetriableCallable.awaitCall(first);
+        } finally {
+            cancelAll(answers);
+        }
+    }
+
+    @Nonnull
+    private <V> CompletableFuture<V> start(final Callable<V> task) {
+        return RetriableExecution.<V> builder()
+                .retryStrategy(this.retryStrategy)
+                .callable(task)
+                .executor(this.executor)
+                .scheduler(this.scheduler)
+                .attemptTimeout(this.attemptTimeout)
+                .deadline(this.deadline)
+                .build()
+                .start();
+    }
+
+    @Nonnull
+    private static <V> InvocationResult<V> awaitResult(final CompletableFuture<V> answer) throws InterruptedException {
+        try {
+            return InvocationResult.success(answer.get());
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            return InvocationResult.failure(cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new NonRetriableException("Unable to retry callable!", cause));
+        }
+    }
+
+    private static void cancelAll(final List<? extends CompletableFuture<?>> answers) {
+        for (final CompletableFuture<?> answer : answers) {
+            answer.cancel(false);
+        }
+    }
+
+}
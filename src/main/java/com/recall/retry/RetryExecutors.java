@@ -0,0 +1,205 @@
+package com.recall.retry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.scheduling.RetrySchedulers;
+
+/**
+ * Provides the executors used to run retry attempts. Retriable callables which are not given an executor of their own
+ * share a single, process-wide bounded pool, so building a callable neither creates nor leaks threads.
+ * <p>
+ * The number of threads in the shared pool defaults to twice the number of available processors and may be set with
+ * the <tt>recall.executor.threads</tt> system property. Its queue of attempts waiting for a thread holds at most
+ * {@value #DEFAULT_SHARED_QUEUE_CAPACITY} attempts, which may be set with the <tt>recall.executor.queueCapacity</tt>
+ * system property; an attempt submitted while the queue is full is rejected, failing its call with a
+ * {@link com.recall.retry.exceptions.NonRetriableException}, rather than letting a backlog grow without limit. Threads
+ * are only started when attempts are submitted and are released again after being idle, but the pool itself lives
+ * until {@link #shutdownShared()} is called. A shared executor shut down by any other means is replaced by a new one
+ * the next time it is asked for.
+ * <p>
+ * Callables wrapping blocking I/O may instead opt in to {@link #virtualThreads()}, which runs each attempt on its own
+ * virtual thread when running on Java 21 or later. Fan-outs of many short, independent calls may use the shared
+ * {@link #workStealing()} pool.
+ */
+@ThreadSafe
+public final class RetryExecutors {
+
+    /** System property to override the number of threads of the shared executor. */
+    public static final String SHARED_THREADS_PROPERTY = "recall.executor.threads";
+
+    /** System property to override the maximum number of attempts waiting in the queue of the shared executor. */
+    public static final String SHARED_QUEUE_CAPACITY_PROPERTY = "recall.executor.queueCapacity";
+
+    /** The default maximum number of attempts waiting in the queue of the shared executor. */
+    public static final int DEFAULT_SHARED_QUEUE_CAPACITY = 10_000;
+
+    private static final String SHARED_THREAD_NAME = "recall-retry";
+
+    private static final String WORK_STEALING_THREAD_NAME = "recall-retry-work-stealing";
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60l;
+
+    @Nullable
+    private static final MethodHandle NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    @GuardedBy("RetryExecutors.class")
+    private static ExecutorService shared;
+
+    @GuardedBy("RetryExecutors.class")
+    private static ExecutorService sharedVirtual;
+
+    @GuardedBy("RetryExecutors.class")
+    private static ExecutorService sharedWorkStealing;
+
+    private RetryExecutors() {}
+
+    /**
+     * Returns the shared executor, creating it if it does not yet exist or was previously shut down.
+     *
+     * @return the shared executor.
+     */
+    @Nonnull
+    public static synchronized ExecutorService shared() {
+        if (shared == null || shared.isShutdown()) {
+            final int threads = Integer.getInteger(SHARED_THREADS_PROPERTY,
+                    Runtime.getRuntime().availableProcessors() * 2);
+            final int queueCapacity = Integer.getInteger(SHARED_QUEUE_CAPACITY_PROPERTY,
+                    DEFAULT_SHARED_QUEUE_CAPACITY);
+            shared = newBoundedExecutor(SHARED_THREAD_NAME, threads, queueCapacity);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns an executor which runs each attempt on a new virtual thread, allowing a very large number of concurrent
+     * blocking attempts without a pool of platform threads. When virtual threads are not supported by the running
+     * Java version, this returns the {@link #shared()} executor instead.
+     *
+     * @return the shared virtual thread executor, or the shared executor when virtual threads are not supported.
+     * @see #isVirtualThreadsSupported()
+     */
+    @Nonnull
+    public static synchronized ExecutorService virtualThreads() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            return shared();
+        }
+        if (sharedVirtual == null || sharedVirtual.isShutdown()) {
+            try {
+                sharedVirtual = (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke();
+            } catch (final Throwable ex) {
+                throw new IllegalStateException("Unable to create virtual thread executor!", ex);
+            }
+        }
+        return sharedVirtual;
+    }
+
+    /**
+     * Returns the shared work-stealing pool, creating it if it does not yet exist or was previously shut down. Its
+     * parallelism is the number of available processors, and its daemon threads take queued attempts from one another
+     * so a large fan-out of independent calls is spread evenly. Unlike the common fork-join pool, blocking attempts run
+     * on it do not starve parallel streams and other users of the common pool.
+     *
+     * @return the shared work-stealing pool.
+     */
+    @Nonnull
+    public static synchronized ExecutorService workStealing() {
+        if (sharedWorkStealing == null || sharedWorkStealing.isShutdown()) {
+            final AtomicInteger count = new AtomicInteger();
+            sharedWorkStealing = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName(WORK_STEALING_THREAD_NAME + "-" + count.incrementAndGet());
+                return thread;
+            }, null, true);
+        }
+        return sharedWorkStealing;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the running Java version supports virtual threads, see {@link #virtualThreads()}.
+     *
+     * @return <tt>true</tt> if the running Java version supports virtual threads.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Shuts down the shared executors and the shared retry scheduler, see {@link RetrySchedulers#shutdownShared()}.
+     * Attempts already running are allowed to finish, but retries still waiting for their next attempt fail with a
+     * {@link com.recall.retry.exceptions.NonRetriableException} caused by a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+        if (sharedVirtual != null) {
+            sharedVirtual.shutdown();
+            sharedVirtual = null;
+        }
+        if (sharedWorkStealing != null) {
+            sharedWorkStealing.shutdown();
+            sharedWorkStealing = null;
+        }
+        RetrySchedulers.shutdownShared();
+    }
+
+    /**
+     * Creates a new executor with a fixed upper bound on both its threads and its queue of waiting attempts. Attempts
+     * submitted while the queue is full are rejected. The caller owns the returned executor and is responsible for
+     * shutting it down.
+     *
+     * @param name the prefix of the names of the executor's threads.
+     * @param threads the maximum number of threads.
+     * @param queueCapacity the maximum number of attempts waiting for a thread.
+     * @return a new bounded executor.
+     */
+    @Nonnull
+    public static ExecutorService newBoundedExecutor(@Nonnull final String name, int threads, int queueCapacity) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), daemonThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Looks up <tt>Executors.newVirtualThreadPerTaskExecutor()</tt>, which only exists on Java 21 or later. The library
+     * is compiled for Java 8, so the method cannot be referenced directly.
+     */
+    @Nullable
+    private static MethodHandle findVirtualThreadExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (final NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(@Nonnull final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
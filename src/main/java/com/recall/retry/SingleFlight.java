@@ -0,0 +1,155 @@
+package com.recall.retry;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Provides keyed single-flight coalescing of retried calls. Concurrent calls with the same key share one in-flight
+ * {@link RetriableExecution}, and so its result or exception, instead of each running its own retries against the same
+ * resource. Once the shared execution completes its key is removed, so a later call with the key starts a new
+ * execution.
+ * <p>
+ * The in-flight executions are kept in a {@link ConcurrentHashMap}, joined with a lock-free <tt>get</tt> or
+ * <tt>putIfAbsent</tt>. Each caller is given its own view of the shared result, so cancelling it does not affect the
+ * other callers.
+ *
+ * <pre>
+ * final SingleFlight&lt;String, Product&gt; products = SingleFlight.&lt;String, Product&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .build();
+ *
+ * final Product product = products.call(productId, () -&gt; fetchProduct(productId));
+ * </pre>
+ *
+ * @param <K> the type of the keys calls are coalesced by.
+ * @param <V> the result type of the retried calls.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class SingleFlight<K, V> {
+
+    @Nonnull
+    private final RetryStrategy retryStrategy;
+
+    @Nonnull
+    private final Executor executor;
+
+    private final long attemptTimeout;
+
+    private final long deadline;
+
+    @Nonnull
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new single-flight group.
+     *
+     * @param retryStrategy the retry strategy of every shared execution.
+     * @param executor the executor to run each attempt on, or <tt>null</tt> for {@link RetryExecutors#shared()}.
+     * @param attemptTimeout the attempt timeout, in milliseconds, of every shared execution, or <tt>0</tt> for none.
+     * @param deadline the overall deadline, in milliseconds, of every shared execution, or <tt>0</tt> for none.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private SingleFlight(
+            final RetryStrategy retryStrategy,
+            @Nullable final Executor executor,
+            long attemptTimeout,
+            long deadline) {
+        if (retryStrategy == null) {
+            throw new NullPointerException("retryStrategy is required");
+        }
+        this.retryStrategy = retryStrategy;
+        this.executor = executor != null ? executor : RetryExecutors.shared();
+        this.attemptTimeout = attemptTimeout;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Makes the retried call for the specified key, joining the execution already in flight for the key if there is
+     * one, in which case the specified callable is not used.
+     *
+     * @param key the key the call is coalesced by.
+     * @param callable the {@link Callable} to retry if no execution is in flight for the key.
+     * @return a future which completes with the result of the shared execution.
+     */
+    @Nonnull
+    public CompletableFuture<V> callAsync(@Nonnull final K key, @Nonnull final Callable<V> callable) {
+        CompletableFuture<V> shared = this.inFlight.get(key);
+        if (shared == null) {
+            final CompletableFuture<V> started = new CompletableFuture<>();
+            shared = this.inFlight.putIfAbsent(key, started);
+            if (shared == null) {
+                shared = started;
+                try {
+                    start(key, callable, started);
+                } catch (final RuntimeException ex) {
+                    // Remove the key before completing, so later calls are not left joining an execution never made.
+                    this.inFlight.remove(key, started);
+                    started.completeExceptionally(ex);
+                }
+            }
+        }
+        return shared.thenApply(Function.identity());
+    }
+
+    /**
+     * Makes the retried call for the specified key, blocking until the shared execution completes.
+     *
+     * @param key the key the call is coalesced by.
+     * @param callable the {@link Callable} to retry if no execution is in flight for the key.
+     * @return the result of the shared execution.
+     * @throws ExhuastedRetriesException if the number of retries of the shared execution has been exhausted.
+     * @throws NonRetriableException if a non-retriable exception was thrown by the shared execution or the calling
+     *             thread was interrupted while waiting.
+     */
+    public V call(@Nonnull final K key, @Nonnull final Callable<V> callable)
+            throws ExhuastedRetriesException, NonRetriableException {
+        return RetriableCallable.awaitCall(callAsync(key, callable));
+    }
+
+    /**
+     * Returns the number of keys which currently have an execution in flight.
+     *
+     * @return the number of executions in flight.
+     */
+    public int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    private void start(
+            @Nonnull final K key,
+            @Nonnull final Callable<V> callable,
+            @Nonnull final CompletableFuture<V> shared) {
+        RetriableExecution.<V> builder()
+                .retryStrategy(this.retryStrategy)
+                .callable(callable)
+                .executor(this.executor)
+                .attemptTimeout(this.attemptTimeout)
+                .deadline(this.deadline)
+                .build()
+                .start()
+                .whenComplete((answer, ex) -> {
+                    // Remove the key before completing, so callers woken by the result start a new execution.
+                    this.inFlight.remove(key, shared);
+                    if (ex != null) {
+                        shared.completeExceptionally(ex);
+                    } else {
+                        shared.complete(answer);
+                    }
+                });
+    }
+
+}
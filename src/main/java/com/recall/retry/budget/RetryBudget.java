@@ -0,0 +1,187 @@
+package com.recall.retry.budget;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.Getter;
+
+/**
+ * Provides a retry budget which limits retries to a share of the successful calls, so that retries cannot multiply the
+ * load on a dependency exactly when it is weakest. A retry budget is attached to a {@link RetryStrategy} with
+ * {@link RetryStrategy#withRetryBudget(RetryBudget)} and is usually shared by all the strategies calling the same
+ * dependency.
+ * <p>
+ * The budget is a token bucket: every successful call deposits a fraction of a token, every retry withdraws a whole
+ * token, and the bucket is also refilled at a minimum rate so that a dependency without recent successes can still be
+ * retried occasionally. The balance is capped so that a long healthy period cannot save up a retry storm. When the
+ * bucket is empty the retry is skipped and the call fails fast with a
+ * {@link com.recall.retry.exceptions.RetryBudgetExhaustedException}.
+ *
+ * <pre>
+ * final RetryBudget retryBudget = RetryBudget.builder()
+ *         .retryRatio(0.1)
+ *         .minimumRetriesPerSecond(10)
+ *         .build();
+ * </pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryBudget {
+
+    private static final String DEFAULT_NAME = "default";
+    private static final double DEFAULT_RETRY_RATIO = 0.1d;
+    private static final int DEFAULT_MINIMUM_RETRIES_PER_SECOND = 10;
+
+    /** The number of units a whole token is divided into, so deposits of a fraction of a token are exact. */
+    private static final long TOKEN = 1_000l;
+
+    @Nonnull
+    @Getter
+    private final String name;
+
+    @Getter
+    private final double retryRatio;
+
+    @Getter
+    private final int minimumRetriesPerSecond;
+
+    @Getter
+    private final long maximumTokens;
+
+    private final long depositPerSuccess;
+
+    private final long maximumBalance;
+
+    /** The number of nanoseconds in which the minimum rate refills one token unit. */
+    private final double nanosPerUnit;
+
+    @Nonnull
+    private final AtomicLong balance;
+
+    @Nonnull
+    private final AtomicLong lastRefill;
+
+    /**
+     * The units deposited by successful calls, striped so that the success path does not contend. Deposits are moved
+     * into the balance when a retry is requested.
+     */
+    @Nonnull
+    private final LongAdder deposits = new LongAdder();
+
+    /** The units of {@link #deposits} already moved into the balance. */
+    @Nonnull
+    private final AtomicLong collectedDeposits = new AtomicLong();
+
+    /**
+     * Creates a new retry budget. Any setting left at <tt>0</tt> uses its default.
+     *
+     * @param name the name of the retry budget, used in exception messages.
+     * @param retryRatio the number of retries allowed per successful call, between <tt>0</tt> and <tt>1</tt>. Defaults
+     *            to <tt>0.1</tt>, or one retry per ten successes.
+     * @param minimumRetriesPerSecond the rate at which retries are allowed regardless of successes. Defaults to
+     *            <tt>10</tt>.
+     * @param maximumTokens the maximum number of retries the budget can hold. Defaults to ten seconds of the minimum
+     *            rate, or <tt>100</tt> if greater.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private RetryBudget(
+            @Nullable final String name,
+            double retryRatio,
+            int minimumRetriesPerSecond,
+            long maximumTokens) {
+        if (retryRatio < 0d || retryRatio > 1d) {
+            throw new IllegalArgumentException("retryRatio must be between 0 and 1: " + retryRatio);
+        }
+        if (minimumRetriesPerSecond < 0 || maximumTokens < 0) {
+            throw new IllegalArgumentException("minimumRetriesPerSecond and maximumTokens must not be negative");
+        }
+        this.name = name != null ? name : DEFAULT_NAME;
+        this.retryRatio = retryRatio > 0d ? retryRatio : DEFAULT_RETRY_RATIO;
+        this.minimumRetriesPerSecond = minimumRetriesPerSecond > 0
+                ? minimumRetriesPerSecond
+                : DEFAULT_MINIMUM_RETRIES_PER_SECOND;
+        this.maximumTokens = maximumTokens > 0 ? maximumTokens : Math.max(100l, this.minimumRetriesPerSecond * 10l);
+        this.depositPerSuccess = Math.max(1l, Math.round(this.retryRatio * TOKEN));
+        this.maximumBalance = this.maximumTokens * TOKEN;
+        this.nanosPerUnit = (double) TimeUnit.SECONDS.toNanos(1) / (this.minimumRetriesPerSecond * TOKEN);
+        this.balance = new AtomicLong(this.maximumBalance);
+        this.lastRefill = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Records a successful call, depositing a fraction of a token into the budget. This does not allocate and is made
+     * on the success path of every call.
+     */
+    public void onSuccess() {
+        this.deposits.add(this.depositPerSuccess);
+    }
+
+    /**
+     * Withdraws a token for a retry, if the budget holds one.
+     *
+     * @return <tt>true</tt> if the retry may be made; otherwise, returns <tt>false</tt> when the budget is empty and the
+     *         retry must be skipped.
+     */
+    public boolean tryAcquireRetry() {
+        refill();
+        long current;
+        do {
+            current = this.balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!this.balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /**
+     * Returns the number of whole retries currently in the budget.
+     *
+     * @return the number of retries currently available.
+     */
+    public long getAvailableRetries() {
+        refill();
+        return this.balance.get() / TOKEN;
+    }
+
+    private void refill() {
+        deposit(collectDeposits() + collectMinimumRate());
+    }
+
+    private long collectDeposits() {
+        final long deposited = this.deposits.sum();
+        final long collected = this.collectedDeposits.get();
+        return deposited > collected && this.collectedDeposits.compareAndSet(collected, deposited)
+                ? deposited - collected
+                : 0l;
+    }
+
+    private long collectMinimumRate() {
+        final long now = System.nanoTime();
+        final long last = this.lastRefill.get();
+        final long units = (long) ((now - last) / this.nanosPerUnit);
+        return units > 0 && this.lastRefill.compareAndSet(last, last + (long) (units * this.nanosPerUnit))
+                ? units
+                : 0l;
+    }
+
+    private void deposit(long units) {
+        if (units <= 0) {
+            return;
+        }
+        long current;
+        do {
+            current = this.balance.get();
+        } while (current < this.maximumBalance
+                && !this.balance.compareAndSet(current, Math.min(this.maximumBalance, current + units)));
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.recall.retry.bulkhead;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.RetryExecutors;
+import com.recall.retry.exceptions.BulkheadFullException;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a named bulkhead isolating the attempts made to one dependency from those made to every other, so that a
+ * slow dependency cannot take every thread. A bulkhead is an {@link Executor} running at most a fixed number of attempts
+ * at a time:
+ * <ul>
+ * <li><b>thread pool</b>: without an executor of its own, the bulkhead runs its attempts on a dedicated pool with one
+ * thread per slot, see {@link #shutdown()}.</li>
+ * <li><b>semaphore</b>: given an executor, the bulkhead runs its attempts on that executor and only limits how many of
+ * them may run on it at once.</li>
+ * </ul>
+ * Attempts submitted while every slot is taken wait in a bounded queue and are run, in order, as slots are freed. Once
+ * the queue is full, or if it has no room at all, the attempt is rejected.
+ * <p>
+ * A {@link com.recall.SynchronousRetriableCallable} or {@link com.recall.AsynchronousRetriableCallable} is bound to a
+ * bulkhead with its <tt>bulkhead</tt> builder setting. Every attempt of the call, including its retries, then takes a
+ * slot of the bulkhead only; the wait between attempts is registered with the retry scheduler and takes none. A
+ * rejected call fails fast with a {@link BulkheadFullException}.
+ *
+ * <pre>
+ * final Bulkhead bulkhead = Bulkhead.builder()
+ *         .name("inventory-service")
+ *         .maximumConcurrentCalls(10)
+ *         .maximumQueueLength(50)
+ *         .build();
+ *
+ * final RetriableCallable&lt;ReturnType&gt; caller = SynchronousRetriableCallable.builder()
+ *         .retryStrategy(retryStrategy)
+ *         .callable(() -&gt; doSomething())
+ *         .bulkhead(bulkhead)
+ *         .build();
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class Bulkhead implements Executor {
+
+    private static final String DEFAULT_NAME = "default";
+    private static final int DEFAULT_MAXIMUM_CONCURRENT_CALLS = 10;
+    private static final String THREAD_NAME_PREFIX = "recall-bulkhead-";
+
+    @Nonnull
+    @Getter
+    private final String name;
+
+    @Getter
+    private final int maximumConcurrentCalls;
+
+    @Getter
+    private final int maximumQueueLength;
+
+    @Nonnull
+    private final Executor executor;
+
+    /** The dedicated pool of a thread pool bulkhead, or <tt>null</tt> for a semaphore bulkhead. */
+    @Nullable
+    private final ExecutorService threadPool;
+
+    @Nonnull
+    private final AtomicInteger active = new AtomicInteger();
+
+    @Nonnull
+    private final AtomicInteger queued = new AtomicInteger();
+
+    @Nonnull
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a new bulkhead.
+     *
+     * @param name the name of the bulkhead, used in thread names, log and exception messages.
+     * @param maximumConcurrentCalls the number of attempts which may run at once, or <tt>0</tt> for
+     *            {@value #DEFAULT_MAXIMUM_CONCURRENT_CALLS}.
+     * @param maximumQueueLength the number of attempts which may wait for a free slot, or <tt>0</tt> to reject attempts
+     *            as soon as every slot is taken.
+     * @param executor the executor to run attempts on, or <tt>null</tt> for a dedicated pool owned by the bulkhead.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private Bulkhead(
+            @Nullable final String name,
+            int maximumConcurrentCalls,
+            int maximumQueueLength,
+            @Nullable final Executor executor) {
+        if (maximumConcurrentCalls < 0 || maximumQueueLength < 0) {
+            throw new IllegalArgumentException("maximumConcurrentCalls and maximumQueueLength must not be negative");
+        }
+        this.name = name != null ? name : DEFAULT_NAME;
+        this.maximumConcurrentCalls = maximumConcurrentCalls > 0
+                ? maximumConcurrentCalls
+                : DEFAULT_MAXIMUM_CONCURRENT_CALLS;
+        this.maximumQueueLength = maximumQueueLength;
+        // a slot is freed just before its thread returns to the pool, so the pool may briefly queue one task per slot
+        this.threadPool = executor == null
+                ? RetryExecutors.newBoundedExecutor(THREAD_NAME_PREFIX + this.name, this.maximumConcurrentCalls,
+                        this.maximumConcurrentCalls)
+                : null;
+        this.executor = executor != null ? executor : this.threadPool;
+    }
+
+    /**
+     * Returns the number of attempts currently running in this bulkhead.
+     *
+     * @return the number of slots currently taken.
+     */
+    public int getActiveCount() {
+        return this.active.get();
+    }
+
+    /**
+     * Returns the number of attempts currently waiting for a free slot.
+     *
+     * @return the number of attempts currently waiting for a free slot.
+     */
+    public int getQueueLength() {
+        return this.queued.get();
+    }
+
+    /**
+     * Runs the specified task in this bulkhead, queueing it while every slot is taken. A queued task rejected by the
+     * underlying executor once a slot is freed is dropped and logged, see
+     * {@link #tryExecute(Runnable, Consumer)} to be told of it instead.
+     *
+     * @param task the task to run.
+     * @return <tt>true</tt> if the task was run or queued; otherwise, returns <tt>false</tt> when the bulkhead and its
+     *         queue are full.
+     * @throws RejectedExecutionException if the underlying executor rejected the task.
+     */
+    public boolean tryExecute(final Runnable task) {
+        return tryExecute(task, rejected -> log.warning("Bulkhead '" + this.name
+                + "' unable to submit queued attempt! Exception: " + rejected.getMessage()));
+    }
+
+    /**
+     * Runs the specified task in this bulkhead, queueing it while every slot is taken.
+     *
+     * @param task the task to run.
+     * @param onRejected invoked, on the thread freeing the slot, if the task was queued and the underlying executor
+     *            then rejected it.
+     * @return <tt>true</tt> if the task was run or queued; otherwise, returns <tt>false</tt> when the bulkhead and its
+     *         queue are full.
+     * @throws RejectedExecutionException if the underlying executor rejected the task without it being queued.
+     */
+    public boolean tryExecute(final Runnable task, final Consumer<? super RejectedExecutionException> onRejected) {
+        if (tryAcquire()) {
+            submit(task);
+            return true;
+        }
+        if (this.queued.incrementAndGet() > this.maximumQueueLength) {
+            this.queued.decrementAndGet();
+            return false;
+        }
+        this.waiters.offer(new Waiter(task, onRejected));
+        drain();
+        return true;
+    }
+
+    /**
+     * Runs the specified task in this bulkhead, queueing it while every slot is taken.
+     *
+     * @param task the task to run.
+     * @throws RejectedExecutionException if the bulkhead and its queue are full, or the underlying executor rejected
+     *             the task.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        if (!tryExecute(task)) {
+            throw new RejectedExecutionException("Bulkhead '" + this.name + "' is full");
+        }
+    }
+
+    /**
+     * Creates the exception with which a rejected call fails.
+     *
+     * @param lastFailure the exception of the last attempt made before the rejection, if any.
+     * @return a new {@link BulkheadFullException}.
+     */
+    @Nonnull
+    public BulkheadFullException rejection(@Nullable final Throwable lastFailure) {
+        return new BulkheadFullException("Bulkhead '" + this.name + "' is full with " + this.maximumConcurrentCalls
+                + " attempts running and " + this.queued.get() + " queued!", lastFailure);
+    }
+
+    /**
+     * Shuts down the dedicated pool of a thread pool bulkhead. Attempts already running are allowed to finish. A
+     * semaphore bulkhead does not own its executor, which is left running.
+     */
+    public void shutdown() {
+        if (this.threadPool != null) {
+            this.threadPool.shutdown();
+        }
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = this.active.get();
+            if (current >= this.maximumConcurrentCalls) {
+                return false;
+            }
+        } while (!this.active.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void submit(final Runnable task) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    release();
+                }
+            });
+        } catch (final RejectedExecutionException rejected) {
+            release();
+            throw rejected;
+        }
+    }
+
+    private void release() {
+        this.active.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Hands the free slots to the waiting attempts, in order.
+     */
+    private void drain() {
+        while (!this.waiters.isEmpty() && tryAcquire()) {
+            final Waiter waiter = this.waiters.poll();
+            if (waiter == null) {
+                this.active.decrementAndGet();
+                continue;
+            }
+            this.queued.decrementAndGet();
+            try {
+                submit(waiter.task);
+            } catch (final RejectedExecutionException rejected) {
+                waiter.onRejected.accept(rejected);
+            }
+        }
+    }
+
+    /**
+     * A task waiting for a free slot, with the callback to hand its rejection back to.
+     */
+    private static final class Waiter {
+
+        @Nonnull
+        private final Runnable task;
+
+        @Nonnull
+        private final Consumer<? super RejectedExecutionException> onRejected;
+
+        Waiter(final Runnable task, final Consumer<? super RejectedExecutionException> onRejected) {
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.recall.retry.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a keyed, size-bounded cache of the results of retried calls, intended for idempotent lookups. A result
+ * younger than the time-to-live is returned without making the call at all. Optionally, when the retries of a call are
+ * exhausted, the last known good result for its key is returned instead, even if it has expired.
+ * <p>
+ * Entries are evicted with a segmented LRU policy: a new entry enters a probation segment and is promoted to a
+ * protected segment, holding 80% of the entries, when it is read again. The least recently used entry of the probation
+ * segment is evicted first, so a burst of one-off keys cannot flush the frequently read ones. Every operation is
+ * <i>O(1)</i>. Expired entries are kept, as stale values to serve on exhaustion, until they are evicted.
+ *
+ * <pre>
+ * final ResultCache&lt;String, Product&gt; products = ResultCache.&lt;String, Product&gt;builder()
+ *         .maximumSize(10_000)
+ *         .timeToLive(60_000)
+ *         .serveStaleOnExhaustion(true)
+ *         .build();
+ *
+ * final Product product = products.call(productId, SynchronousRetriableCallable.&lt;Product&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .callable(() -&gt; fetchProduct(productId))
+ *         .build());
+ * </pre>
+ *
+ * @param <K> the type of the keys results are cached by.
+ * @param <V> the result type of the retried calls.
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class ResultCache<K, V> {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+    private static final double PROTECTED_SHARE = 0.8d;
+
+    @Getter
+    private final int maximumSize;
+
+    @Getter
+    private final long timeToLive;
+
+    @Getter
+    private final boolean serveStaleOnExhaustion;
+
+    private final long timeToLiveNanos;
+
+    private final int protectedCapacity;
+
+    @GuardedBy("this")
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+    @GuardedBy("this")
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a new result cache.
+     *
+     * @param maximumSize the maximum number of results kept, or <tt>0</tt> for {@value #DEFAULT_MAXIMUM_SIZE}.
+     * @param timeToLive the length of time, in milliseconds, a result is fresh, or <tt>0</tt> for results to never
+     *            expire.
+     * @param serveStaleOnExhaustion whether the last known good result is returned when the retries of a call are
+     *            exhausted.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private ResultCache(int maximumSize, long timeToLive, boolean serveStaleOnExhaustion) {
+        if (maximumSize < 0 || timeToLive < 0) {
+            throw new IllegalArgumentException("maximumSize and timeToLive must not be negative");
+        }
+        this.maximumSize = maximumSize > 0 ? maximumSize : DEFAULT_MAXIMUM_SIZE;
+        this.timeToLive = timeToLive;
+        this.serveStaleOnExhaustion = serveStaleOnExhaustion;
+        this.timeToLiveNanos = timeToLive > 0 ? TimeUnit.MILLISECONDS.toNanos(timeToLive) : Long.MAX_VALUE;
+        this.protectedCapacity = (int) (this.maximumSize * PROTECTED_SHARE);
+    }
+
+    /**
+     * Returns the fresh cached result for the specified key or, if there is none, makes the specified retried call and
+     * caches its result.
+     *
+     * @param key the key of the result.
+     * @param retriedCall the retried call, such as a {@link com.recall.SynchronousRetriableCallable}, computing the
+     *            result.
+     * @return the fresh cached result, the result of the call or, if its retries were exhausted and serving stale
+     *         results is enabled, the last known good result.
+     * @throws ExhuastedRetriesException if the retries of the call were exhausted and no result is cached for the key.
+     * @throws NonRetriableException if a non-retriable exception was thrown while making the call.
+     */
+    public V call(@Nonnull final K key, @Nonnull final Callable<V> retriedCall)
+            throws ExhuastedRetriesException, NonRetriableException {
+        final Entry<V> cached = lookup(key);
+        if (cached != null && isFresh(cached)) {
+            return cached.value;
+        }
+        final V answer;
+        try {
+            answer = retriedCall.call();
+        } catch (final ExhuastedRetriesException ex) {
+            if (cached != null && this.serveStaleOnExhaustion) {
+                log.warning("Serving stale result after exhausted retries: " + ex.getMessage());
+                return cached.value;
+            }
+            throw ex;
+        } catch (final RuntimeException ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            throw new NonRetriableException("Unable to retry callable!", ex);
+        }
+        put(key, answer);
+        return answer;
+    }
+
+    /**
+     * Returns the fresh cached result for the specified key or, if there is none, starts the specified retried call and
+     * caches its result once it completes.
+     *
+     * @param key the key of the result.
+     * @param retriedCall starts the retried call, such as
+     *            {@link com.recall.AsynchronousRetriableCallable#callAsync()}, computing the result.
+     * @return a future which completes with the fresh cached result, the result of the call or, if its retries were
+     *         exhausted and serving stale results is enabled, the last known good result.
+     */
+    @Nonnull
+    public CompletableFuture<V> callAsync(
+            @Nonnull final K key,
+            @Nonnull final Supplier<CompletableFuture<V>> retriedCall) {
+        final Entry<V> cached = lookup(key);
+        if (cached != null && isFresh(cached)) {
+            return CompletableFuture.completedFuture(cached.value);
+        }
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        retriedCall.get().whenComplete((answer, ex) -> {
+            if (ex == null) {
+                put(key, answer);
+                result.complete(answer);
+            } else if (cached != null && this.serveStaleOnExhaustion && isExhausted(ex)) {
+                log.warning("Serving stale result after exhausted retries: " + ex.getMessage());
+                result.complete(cached.value);
+            } else {
+                result.completeExceptionally(ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the fresh cached result for the specified key, if any.
+     *
+     * @param key the key of the result.
+     * @return the fresh cached result, or <tt>null</tt> if there is none.
+     */
+    @Nullable
+    public V getIfFresh(@Nonnull final K key) {
+        final Entry<V> cached = lookup(key);
+        return cached != null && isFresh(cached) ? cached.value : null;
+    }
+
+    /**
+     * Caches the specified result for the specified key, replacing any result already cached for it.
+     *
+     * @param key the key of the result.
+     * @param value the result to cache.
+     */
+    public synchronized void put(@Nonnull final K key, @Nonnull final V value) {
+        final Entry<V> entry = new Entry<>(value, System.nanoTime());
+        if (this.protectedSegment.containsKey(key)) {
+            this.protectedSegment.put(key, entry);
+            return;
+        }
+        this.probation.put(key, entry);
+        while (this.probation.size() + this.protectedSegment.size() > this.maximumSize) {
+            evictEldest(this.probation.isEmpty() ? this.protectedSegment : this.probation);
+        }
+    }
+
+    /**
+     * Removes the cached result for the specified key, if any.
+     *
+     * @param key the key of the result.
+     */
+    public synchronized void invalidate(@Nonnull final K key) {
+        if (this.probation.remove(key) == null) {
+            this.protectedSegment.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of results currently cached, including expired ones kept to be served stale.
+     *
+     * @return the number of cached results.
+     */
+    public synchronized int size() {
+        return this.probation.size() + this.protectedSegment.size();
+    }
+
+    /**
+     * Looks up the entry for the specified key, recording the read: an entry read while on probation is promoted to
+     * the protected segment, demoting the least recently used protected entry if the segment is full.
+     */
+    @Nullable
+    private synchronized Entry<V> lookup(@Nonnull final K key) {
+        Entry<V> entry = this.protectedSegment.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = this.probation.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        this.protectedSegment.put(key, entry);
+        if (this.protectedSegment.size() > this.protectedCapacity) {
+            final Iterator<Map.Entry<K, Entry<V>>> eldest = this.protectedSegment.entrySet().iterator();
+            final Map.Entry<K, Entry<V>> demoted = eldest.next();
+            eldest.remove();
+            this.probation.put(demoted.getKey(), demoted.getValue());
+        }
+        return entry;
+    }
+
+    private static void evictEldest(@Nonnull final LinkedHashMap<?, ?> segment) {
+        final Iterator<?> eldest = segment.keySet().iterator();
+        eldest.next();
+        eldest.remove();
+    }
+
+    private boolean isFresh(@Nonnull final Entry<V> entry) {
+        return System.nanoTime() - entry.writtenAt < this.timeToLiveNanos;
+    }
+
+    private static boolean isExhausted(@Nonnull final Throwable ex) {
+        return ex instanceof ExhuastedRetriesException || ex.getCause() instanceof ExhuastedRetriesException;
+    }
+
+    /**
+     * A cached result and the time it was written.
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long writtenAt;
+
+        Entry(final V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,274 @@
+package com.recall.retry.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.exceptions.CircuitBreakerOpenException;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a circuit breaker which stops calls to a dependency that is clearly failing. A circuit breaker is attached
+ * to a {@link RetryStrategy} with {@link RetryStrategy#withCircuitBreaker(CircuitBreaker)} and is consulted before
+ * every attempt made with that strategy.
+ * <ul>
+ * <li><b>closed</b>: attempts are permitted and their outcomes recorded in a sliding window. Once the window holds at
+ * least the minimum number of attempts and the failure rate reaches the threshold, the breaker opens.</li>
+ * <li><b>open</b>: attempts are rejected immediately with a {@link CircuitBreakerOpenException}, without being
+ * submitted to an executor. After the open duration the breaker becomes half-open.</li>
+ * <li><b>half-open</b>: a limited number of trial attempts are permitted. If all of them succeed the breaker closes,
+ * if any of them fails it opens again.</li>
+ * </ul>
+ * Attempts failing with a retriable exception or timing out count as failures. An attempt failing with any other
+ * non-retriable exception counts as neither, and its permission is released.
+ *
+ * <pre>
+ * final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+ *         .name("inventory-service")
+ *         .failureRateThreshold(0.5)
+ *         .minimumCalls(20)
+ *         .openDurationMillis(10_000)
+ *         .build();
+ *
+ * final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+ *         ...
+ *         .build()
+ *         .withCircuitBreaker(circuitBreaker);
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final String DEFAULT_NAME = "default";
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5d;
+    private static final int DEFAULT_MINIMUM_CALLS = 20;
+    private static final long DEFAULT_SLIDING_WINDOW_MILLIS = 10_000l;
+    private static final int DEFAULT_SLIDING_WINDOW_BUCKETS = 10;
+    private static final long DEFAULT_OPEN_DURATION_MILLIS = 10_000l;
+    private static final int DEFAULT_HALF_OPEN_PERMITS = 3;
+
+    @Nonnull
+    @Getter
+    private final String name;
+
+    @Getter
+    private final double failureRateThreshold;
+
+    @Getter
+    private final int minimumCalls;
+
+    private final long openDurationNanos;
+
+    private final int halfOpenPermits;
+
+    @Nonnull
+    private final SlidingWindowCounter window;
+
+    /**
+     * The current phase. Each transition swaps in a new phase, so the open time and trial counters of a phase are only
+     * ever set by the thread which made the transition.
+     */
+    @Nonnull
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.CLOSED);
+
+    /**
+     * Creates a new circuit breaker. Any setting left at <tt>0</tt> uses its default.
+     *
+     * @param name the name of the circuit breaker, used in log and exception messages.
+     * @param failureRateThreshold the failure rate, between <tt>0</tt> and <tt>1</tt>, at which the breaker opens.
+     *            Defaults to <tt>0.5</tt>.
+     * @param minimumCalls the minimum number of attempts in the window before the failure rate is considered. Defaults
+     *            to <tt>20</tt>.
+     * @param slidingWindowMillis the length of the sliding window, in milliseconds. Defaults to 10 seconds.
+     * @param slidingWindowBuckets the number of buckets the sliding window is split into. Defaults to <tt>10</tt>.
+     * @param openDurationMillis the length of time, in milliseconds, the breaker stays open before becoming half-open.
+     *            Defaults to 10 seconds.
+     * @param halfOpenPermits the number of trial attempts permitted while half-open. Defaults to <tt>3</tt>.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private CircuitBreaker(
+            @Nullable final String name,
+            double failureRateThreshold,
+            int minimumCalls,
+            long slidingWindowMillis,
+            int slidingWindowBuckets,
+            long openDurationMillis,
+            int halfOpenPermits) {
+        if (failureRateThreshold < 0d || failureRateThreshold > 1d) {
+            throw new IllegalArgumentException("failureRateThreshold must be between 0 and 1: " + failureRateThreshold);
+        }
+        this.name = name != null ? name : DEFAULT_NAME;
+        this.failureRateThreshold = failureRateThreshold > 0d ? failureRateThreshold : DEFAULT_FAILURE_RATE_THRESHOLD;
+        this.minimumCalls = minimumCalls > 0 ? minimumCalls : DEFAULT_MINIMUM_CALLS;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(
+                openDurationMillis > 0 ? openDurationMillis : DEFAULT_OPEN_DURATION_MILLIS);
+        this.halfOpenPermits = halfOpenPermits > 0 ? halfOpenPermits : DEFAULT_HALF_OPEN_PERMITS;
+        this.window = new SlidingWindowCounter(
+                TimeUnit.MILLISECONDS.toNanos(
+                        slidingWindowMillis > 0 ? slidingWindowMillis : DEFAULT_SLIDING_WINDOW_MILLIS),
+                slidingWindowBuckets > 0 ? slidingWindowBuckets : DEFAULT_SLIDING_WINDOW_BUCKETS);
+    }
+
+    /**
+     * Returns the current state of this circuit breaker. An open breaker whose open duration has elapsed is reported as
+     * open until the next attempt is permitted.
+     *
+     * @return the current state of this circuit breaker.
+     */
+    @Nonnull
+    public State getState() {
+        return this.phase.get().state;
+    }
+
+    /**
+     * Asks for permission to make an attempt. Each permitted attempt must be followed by a call to
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #releasePermission()}.
+     *
+     * @return <tt>true</tt> if the attempt may be made; otherwise, returns <tt>false</tt> when the attempt must be
+     *         rejected.
+     */
+    public boolean tryAcquirePermission() {
+        while (true) {
+            final Phase current = this.phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt < this.openDurationNanos) {
+                        return false;
+                    }
+                    if (this.phase.compareAndSet(current, Phase.halfOpen(this.halfOpenPermits))) {
+                        log.info("Circuit breaker '" + this.name + "' is half-open");
+                    }
+                    break;
+                case HALF_OPEN:
+                    int available;
+                    do {
+                        available = current.available.get();
+                        if (available <= 0) {
+                            return false;
+                        }
+                    } while (!current.available.compareAndSet(available, available - 1));
+                    return true;
+                default:
+                    throw new IllegalStateException("Unknown circuit breaker state: " + current.state);
+            }
+        }
+    }
+
+    /**
+     * Returns a permission which was acquired but not used to make an attempt.
+     */
+    public void releasePermission() {
+        final Phase current = this.phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.available.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a permitted attempt which reached the dependency.
+     */
+    public void onSuccess() {
+        this.window.recordSuccess(System.nanoTime());
+        final Phase current = this.phase.get();
+        if (current.state == State.HALF_OPEN
+                && current.succeeded.incrementAndGet() >= this.halfOpenPermits
+                && this.phase.compareAndSet(current, Phase.CLOSED)) {
+            this.window.reset();
+            log.info("Circuit breaker '" + this.name + "' is closed");
+        }
+    }
+
+    /**
+     * Records a permitted attempt which failed with a retriable exception or timed out.
+     */
+    public void onFailure() {
+        final long now = System.nanoTime();
+        this.window.recordFailure(now);
+        final Phase current = this.phase.get();
+        if (current.state == State.HALF_OPEN || current.state == State.CLOSED && isFailureRateExceeded(now)) {
+            open(current, now);
+        }
+    }
+
+    /**
+     * Creates the exception with which a rejected attempt fails.
+     *
+     * @param lastFailure the exception of the last attempt made before the rejection, if any.
+     * @return a new {@link CircuitBreakerOpenException}.
+     */
+    @Nonnull
+    public CircuitBreakerOpenException rejection(@Nullable final Throwable lastFailure) {
+        return new CircuitBreakerOpenException("Circuit breaker '" + this.name + "' is open!", lastFailure);
+    }
+
+    private boolean isFailureRateExceeded(long now) {
+        final long failures = this.window.failures(now);
+        final long total = failures + this.window.successes(now);
+        return total >= this.minimumCalls && failures >= this.failureRateThreshold * total;
+    }
+
+    private void open(@Nonnull final Phase from, long now) {
+        if (this.phase.compareAndSet(from, Phase.open(now))) {
+            log.warning("Circuit breaker '" + this.name + "' is open");
+        }
+    }
+
+    /**
+     * One phase of a circuit breaker: its state with, when open, the time it opened or, when half-open, its own trial
+     * counters.
+     */
+    private static final class Phase {
+
+        private static final Phase CLOSED = new Phase(State.CLOSED, 0l, 0);
+
+        @Nonnull
+        private final State state;
+
+        private final long openedAt;
+
+        /** The trial attempts still permitted while half-open. */
+        @Nonnull
+        private final AtomicInteger available;
+
+        /** The trial attempts which succeeded while half-open. */
+        @Nonnull
+        private final AtomicInteger succeeded = new AtomicInteger();
+
+        private Phase(@Nonnull final State state, long openedAt, int permits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.available = new AtomicInteger(permits);
+        }
+
+        @Nonnull
+        static Phase open(long openedAt) {
+            return new Phase(State.OPEN, openedAt, 0);
+        }
+
+        @Nonnull
+        static Phase halfOpen(int permits) {
+            return new Phase(State.HALF_OPEN, 0l, permits);
+        }
+
+    }
+
+}
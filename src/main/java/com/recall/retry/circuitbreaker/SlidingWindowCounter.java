@@ -0,0 +1,97 @@
+package com.recall.retry.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides lock-free success and failure counts over a sliding window of time. The window is split into a fixed number
+ * of buckets, each holding the counts of one slice of time; a bucket is lazily reset when it is reused for a newer
+ * slice.
+ * <p>
+ * Note: counts recorded concurrently with a bucket being reset may be lost. The counts are used to estimate a failure
+ * rate, for which this is acceptable.
+ */
+@ThreadSafe
+final class SlidingWindowCounter {
+
+    private static final int EPOCH = 0;
+    private static final int SUCCESSES = 1;
+    private static final int FAILURES = 2;
+    private static final int SLOTS_PER_BUCKET = 3;
+
+    private final long bucketNanos;
+
+    private final int buckets;
+
+    /** Holds the slice of time, successes and failures of each bucket. */
+    private final AtomicLongArray counts;
+
+    /**
+     * @param windowNanos the length of the window, in nanoseconds.
+     * @param buckets the number of buckets the window is split into.
+     */
+    SlidingWindowCounter(long windowNanos, int buckets) {
+        this.buckets = buckets;
+        this.bucketNanos = Math.max(1l, windowNanos / buckets);
+        this.counts = new AtomicLongArray(buckets * SLOTS_PER_BUCKET);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            this.counts.set(bucket * SLOTS_PER_BUCKET + EPOCH, Long.MIN_VALUE);
+        }
+    }
+
+    void recordSuccess(long now) {
+        this.counts.incrementAndGet(currentBucket(now) + SUCCESSES);
+    }
+
+    void recordFailure(long now) {
+        this.counts.incrementAndGet(currentBucket(now) + FAILURES);
+    }
+
+    /**
+     * Returns the number of successes within the window ending at the specified time.
+     */
+    long successes(long now) {
+        return sum(now, SUCCESSES);
+    }
+
+    /**
+     * Returns the number of failures within the window ending at the specified time.
+     */
+    long failures(long now) {
+        return sum(now, FAILURES);
+    }
+
+    /**
+     * Discards all counts.
+     */
+    void reset() {
+        for (int bucket = 0; bucket < this.buckets; bucket++) {
+            this.counts.set(bucket * SLOTS_PER_BUCKET + EPOCH, Long.MIN_VALUE);
+        }
+    }
+
+    private int currentBucket(long now) {
+        final long epoch = now / this.bucketNanos;
+        final int offset = (int) Math.floorMod(epoch, (long) this.buckets) * SLOTS_PER_BUCKET;
+        final long bucketEpoch = this.counts.get(offset + EPOCH);
+        if (bucketEpoch != epoch && this.counts.compareAndSet(offset + EPOCH, bucketEpoch, epoch)) {
+            this.counts.set(offset + SUCCESSES, 0l);
+            this.counts.set(offset + FAILURES, 0l);
+        }
+        return offset;
+    }
+
+    private long sum(long now, int slot) {
+        final long oldest = now / this.bucketNanos - this.buckets;
+        long sum = 0l;
+        for (int bucket = 0; bucket < this.buckets; bucket++) {
+            final int offset = bucket * SLOTS_PER_BUCKET;
+            if (this.counts.get(offset + EPOCH) > oldest) {
+                sum += this.counts.get(offset + slot);
+            }
+        }
+        return sum;
+    }
+
+}
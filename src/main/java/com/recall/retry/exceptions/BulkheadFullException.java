@@ -0,0 +1,31 @@
+package com.recall.retry.exceptions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Thrown, without making an attempt, when a call is rejected because its bulkhead has no free slot and its queue of
+ * waiting attempts is full. This is a fast-fail outcome: the call is not retried and no thread of the bulkhead is
+ * taken.
+ */
+@ThreadSafe
+public class BulkheadFullException extends NonRetriableException {
+
+    private static final long serialVersionUID = 7502439121912979226L;
+
+    /**
+     * @param message the detail message.
+     */
+    public BulkheadFullException(@Nullable final String message) {
+        super(message);
+    }
+
+    /**
+     * @param message the detail message.
+     * @param cause the exception of the last attempt made before the bulkhead rejected the call, if any.
+     */
+    public BulkheadFullException(@Nullable final String message, @Nullable final Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.recall.retry.exceptions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Thrown, without making an attempt, when a call is rejected because its circuit breaker is open. This is a fast-fail
+ * outcome: the call is not retried and no executor is involved.
+ */
+@ThreadSafe
+public class CircuitBreakerOpenException extends NonRetriableException {
+
+    private static final long serialVersionUID = 3260644554075424049L;
+
+    /**
+     * @param message the detail message.
+     */
+    public CircuitBreakerOpenException(@Nullable final String message) {
+        super(message);
+    }
+
+    /**
+     * @param message the detail message.
+     * @param cause the exception of the last attempt made before the circuit breaker rejected the call, if any.
+     */
+    public CircuitBreakerOpenException(@Nullable final String message, @Nullable final Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.recall.retry.exceptions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Thrown, without making an attempt, when a call is rejected because its concurrency limiter is at its limit and its
+ * queue of waiting attempts is full. This is a fast-fail outcome: the call is not retried and no executor is involved.
+ */
+@ThreadSafe
+public class ConcurrencyLimitExceededException extends NonRetriableException {
+
+    private static final long serialVersionUID = 1899410138366047417L;
+
+    /**
+     * @param message the detail message.
+     */
+    public ConcurrencyLimitExceededException(@Nullable final String message) {
+        super(message);
+    }
+
+    /**
+     * @param message the detail message.
+     * @param cause the exception of the last attempt made before the concurrency limiter rejected the call, if any.
+     */
+    public ConcurrencyLimitExceededException(@Nullable final String message, @Nullable final Throwable cause) {
+        super(message, cause);
+    }
+
+}
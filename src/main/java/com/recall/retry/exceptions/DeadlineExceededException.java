@@ -0,0 +1,29 @@
+package com.recall.retry.exceptions;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Thrown when a call is not retried because its overall deadline has passed, or would pass before the next attempt
+ * could be made. The caught retriable exceptions are those collected before the deadline.
+ */
+@ThreadSafe
+public class DeadlineExceededException extends ExhuastedRetriesException {
+
+    /** use serialVersionUID from JDK 1.0.2 for interoperability */
+    private static final long serialVersionUID = -3468312019447211875L;
+
+    /**
+     * @param message the detail message.
+     * @param retryExceptions the retriable exceptions caught before the deadline.
+     */
+    public DeadlineExceededException(
+            @Nullable final String message,
+            @Nonnull final List<RetriableException> retryExceptions) {
+        super(message, retryExceptions);
+    }
+
+}
@@ -1,11 +1,12 @@
 package com.recall.retry.exceptions;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
+
 import lombok.Getter;
 
 /**
@@ -25,8 +26,8 @@ public class ExhuastedRetriesException extends RuntimeException {
      * @param retryExceptions
      */
     public ExhuastedRetriesException(@Nonnull final List<RetriableException> retryExceptions) {
-        super(retryExceptions.stream().findFirst().orElse(null));
-        this.retryExceptions = new LinkedList<>(retryExceptions);
+        super(retryExceptions.isEmpty() ? null : retryExceptions.get(0));
+        this.retryExceptions = ImmutableList.copyOf(retryExceptions);
     }
 
     /**
@@ -37,8 +38,8 @@ public class ExhuastedRetriesException extends RuntimeException {
     public ExhuastedRetriesException(
             @Nullable final String message,
             @Nonnull final List<RetriableException> retryExceptions) {
-        super(message, retryExceptions.stream().findFirst().orElse(null));
-        this.retryExceptions = new LinkedList<>(retryExceptions);
+        super(message, retryExceptions.isEmpty() ? null : retryExceptions.get(0));
+        this.retryExceptions = ImmutableList.copyOf(retryExceptions);
     }
 
 }
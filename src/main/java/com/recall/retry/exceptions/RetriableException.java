@@ -88,6 +88,24 @@ public class RetriableException extends RuntimeException {
         this.when = when;
     }
 
+    /**
+     * Constructs a new retriable exception with the specified cause, retry count and time, optionally without capturing
+     * a stack trace. The detail message is <tt>(cause==null ? null : cause.toString())</tt>.
+     * <p>
+     * Skipping the stack trace makes wrapping a caught exception cheap; the stack trace of the <tt>cause</tt> is
+     * unaffected.
+     *
+     * @param cause the cause (which is saved for later retrieval by the {@link #getCause()} method).
+     * @param retryCount the count of the number of retries to this point.
+     * @param when the time that this exception was triggered.
+     * @param writableStackTrace whether or not the stack trace of this exception should be captured.
+     */
+    public RetriableException(@Nullable final Throwable cause, int retryCount, long when, boolean writableStackTrace) {
+        super(cause == null ? null : cause.toString(), cause, true, writableStackTrace);
+        this.retryCount = retryCount;
+        this.when = when;
+    }
+
     /**
      * Constructs a new retriable exception with the specified detail message and cause.
      * <p>
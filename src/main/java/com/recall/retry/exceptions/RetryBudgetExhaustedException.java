@@ -0,0 +1,29 @@
+package com.recall.retry.exceptions;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Thrown when a call is not retried because its retry budget is empty, even though it has retries remaining. The
+ * caught retriable exceptions are those collected up to the skipped retry.
+ */
+@ThreadSafe
+public class RetryBudgetExhaustedException extends ExhuastedRetriesException {
+
+    /** use serialVersionUID from JDK 1.0.2 for interoperability */
+    private static final long serialVersionUID = 6034617253958071542L;
+
+    /**
+     * @param message the detail message.
+     * @param retryExceptions the retriable exceptions caught before the retry was skipped.
+     */
+    public RetryBudgetExhaustedException(
+            @Nullable final String message,
+            @Nonnull final List<RetriableException> retryExceptions) {
+        super(message, retryExceptions);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.recall.retry.flow;
+
+/**
+ * Computes a result from an element of a stream, possibly throwing an exception which the retry strategy may retry.
+ * See {@link RetryPublisher}.
+ *
+ * @param <T> the type of the stream's elements.
+ * @param <R> the type of the computed results.
+ */
+@FunctionalInterface
+public interface RetriableFunction<T, R> {
+
+    /**
+     * Computes a result from the specified element.
+     * 
+     * @param element the element of the stream.
+     * @return the computed result, which must not be <tt>null</tt>.
+     * @throws Exception if unable to compute a result.
+     */
+    R apply(T element) throws Exception;
+
+}
@@ -0,0 +1,317 @@
+package com.recall.retry.flow;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.RetryExecutors;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Provides a Reactive Streams {@link Publisher} which maps every element of another publisher with a
+ * {@link RetriableFunction}, retrying each element per a {@link RetryStrategy}. The same interfaces are available as
+ * <tt>java.util.concurrent.Flow</tt> on Java 9 and later, see <tt>org.reactivestreams.FlowAdapters</tt>.
+ * <ul>
+ * <li>Elements are mapped one at a time and emitted in order. One element is requested from upstream only once the
+ * subscriber has outstanding demand and no other element is being mapped, so at most one element, and its retry state,
+ * is held per subscription however long it is retried.</li>
+ * <li>Each element is mapped with a {@link RetriableExecution}: attempts run on the executor and the wait between them
+ * is registered with the retry scheduler, so no thread is blocked while an element backs off. The retry strategy
+ * decides which exceptions are retried, as for any other call.</li>
+ * <li>An element which cannot be mapped, because its retries were exhausted or a non-retriable exception was thrown,
+ * cancels the upstream subscription and fails the stream with that exception.</li>
+ * </ul>
+ *
+ * <pre>
+ * final Publisher&lt;Enriched&gt; enriched = RetryPublisher.&lt;Record, Enriched&gt;builder()
+ *         .upstream(records)
+ *         .retryStrategy(retryStrategy)
+ *         .function(record -&gt; enrichmentService.enrich(record))
+ *         .build();
+ * </pre>
+ *
+ * @param <T> the type of the upstream elements.
+ * @param <R> the type of the emitted results.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryPublisher<T, R> implements Publisher<R> {
+
+    @Nonnull
+    private final Publisher<T> upstream;
+
+    @Nonnull
+    private final RetryStrategy retryStrategy;
+
+    @Nonnull
+    private final RetriableFunction<? super T, ? extends R> function;
+
+    @Nonnull
+    private final Executor executor;
+
+    @Nullable
+    private final RetryScheduler scheduler;
+
+    private final long attemptTimeout;
+
+    private final long deadline;
+
+    /**
+     * Creates a new retrying publisher.
+     *
+     * @param upstream the publisher of the elements to map.
+     * @param retryStrategy the retry strategy applied to each element.
+     * @param function the function mapping each element to its result.
+     * @param executor the executor to run each attempt on, or <tt>null</tt> for the shared executor from
+     *            {@link RetryExecutors#shared()}.
+     * @param scheduler the scheduler to register delayed attempts with, or <tt>null</tt> to use the shared scheduler.
+     * @param attemptTimeout the length of time, in milliseconds, after which an attempt is cancelled, or <tt>0</tt> for
+     *            no timeout.
+     * @param deadline the length of time, in milliseconds, by which the mapping of each element must complete, or
+     *            <tt>0</tt> for no deadline.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private RetryPublisher(
+            final Publisher<T> upstream,
+            final RetryStrategy retryStrategy,
+            final RetriableFunction<? super T, ? extends R> function,
+            @Nullable final Executor executor,
+            @Nullable final RetryScheduler scheduler,
+            long attemptTimeout,
+            long deadline) {
+        if (upstream == null || retryStrategy == null || function == null) {
+            throw new NullPointerException("upstream, retryStrategy and function are required");
+        }
+        this.upstream = upstream;
+        this.retryStrategy = retryStrategy;
+        this.function = function;
+        this.executor = executor != null ? executor : RetryExecutors.shared();
+        this.scheduler = scheduler;
+        this.attemptTimeout = attemptTimeout;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super R> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber is required");
+        }
+        this.upstream.subscribe(new RetrySubscription(subscriber));
+    }
+
+    /**
+     * One subscription to this publisher, both subscribed to the upstream publisher and the subscription given to the
+     * downstream subscriber. Signals to the downstream subscriber, and every change of the <tt>upstreamRequested</tt>
+     * and <tt>mapping</tt> flags, are only made from {@link #drain()}, which is run by one thread at a time.
+     */
+    private final class RetrySubscription implements Subscriber<T>, Subscription {
+
+        @Nonnull
+        private final Subscriber<? super R> downstream;
+
+        @Nonnull
+        private final AtomicLong requested = new AtomicLong();
+
+        @Nonnull
+        private final AtomicInteger drains = new AtomicInteger();
+
+        @Nullable
+        private volatile Subscription subscription;
+
+        /** Whether an element has been requested from upstream and not yet received. */
+        private volatile boolean upstreamRequested;
+
+        /** Whether an element is being mapped or its result is waiting for demand. */
+        private volatile boolean mapping;
+
+        /** The element received from upstream and not yet mapped. */
+        @Nullable
+        private volatile T received;
+
+        @Nullable
+        private volatile CompletableFuture<? extends R> current;
+
+        @Nullable
+        private volatile R result;
+
+        @Nullable
+        private volatile Throwable failure;
+
+        private volatile boolean upstreamDone;
+
+        @Nullable
+        private volatile Throwable upstreamFailure;
+
+        private volatile boolean terminated;
+
+        RetrySubscription(final Subscriber<? super R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            this.downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(final T element) {
+            this.received = element;
+            drain();
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.upstreamFailure = throwable;
+            this.upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            this.upstreamDone = true;
+            drain();
+        }
+
+        private void map(final T element) {
+            final CompletableFuture<? extends R> answer = RetriableExecution.<R> builder()
+                    .retryStrategy(RetryPublisher.this.retryStrategy)
+                    .callable(() -> RetryPublisher.this.function.apply(element))
+                    .executor(RetryPublisher.this.executor)
+                    .scheduler(RetryPublisher.this.scheduler)
+                    .attemptTimeout(RetryPublisher.this.attemptTimeout)
+                    .deadline(RetryPublisher.this.deadline)
+                    .build()
+                    .start();
+            this.current = answer;
+            answer.whenComplete((mapped, ex) -> {
+                if (ex != null) {
+                    this.failure = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                } else if (mapped == null) {
+                    this.failure = new NullPointerException("Function returned null for element: " + element);
+                } else {
+                    this.result = mapped;
+                }
+                drain();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.failure = new IllegalArgumentException("Requested a non-positive number of elements: " + n);
+            } else {
+                long current;
+                do {
+                    current = this.requested.get();
+                } while (current != Long.MAX_VALUE
+                        && !this.requested.compareAndSet(current, addCapped(current, n)));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.terminated = true;
+            cancelUpstream();
+            final CompletableFuture<? extends R> answer = this.current;
+            if (answer != null) {
+                answer.cancel(false);
+            }
+        }
+
+        /**
+         * Starts mapping a received element, emits a mapped result when there is demand for it, requests the next
+         * element when there is demand and no element is being mapped, and terminates the downstream subscriber once the
+         * stream has ended.
+         */
+        private void drain() {
+            if (this.drains.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (this.terminated) {
+                    this.received = null;
+                    this.result = null;
+                    return;
+                }
+                final Throwable failed = this.failure;
+                if (failed != null) {
+                    this.terminated = true;
+                    cancelUpstream();
+                    this.downstream.onError(failed);
+                    return;
+                }
+                final T element = this.received;
+                if (element != null) {
+                    this.received = null;
+                    this.upstreamRequested = false;
+                    this.mapping = true;
+                    map(element);
+                }
+                final R mapped = this.result;
+                if (mapped != null && this.requested.get() > 0) {
+                    this.result = null;
+                    this.current = null;
+                    this.mapping = false;
+                    if (this.requested.get() != Long.MAX_VALUE) {
+                        this.requested.decrementAndGet();
+                    }
+                    this.downstream.onNext(mapped);
+                }
+                // read before the received element, which the upstream signals before it is done.
+                final boolean done = this.upstreamDone;
+                if (!this.mapping && this.received == null && (done || !this.upstreamRequested)) {
+                    if (done) {
+                        this.terminated = true;
+                        final Throwable upstreamFailed = this.upstreamFailure;
+                        if (upstreamFailed != null) {
+                            this.downstream.onError(upstreamFailed);
+                        } else {
+                            this.downstream.onComplete();
+                        }
+                        return;
+                    }
+                    final Subscription upstreamSubscription = this.subscription;
+                    if (this.requested.get() > 0 && upstreamSubscription != null) {
+                        this.upstreamRequested = true;
+                        upstreamSubscription.request(1l);
+                    }
+                }
+                missed = this.drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void cancelUpstream() {
+            final Subscription upstreamSubscription = this.subscription;
+            if (upstreamSubscription != null) {
+                upstreamSubscription.cancel();
+            }
+        }
+
+    }
+
+    private static long addCapped(long current, long n) {
+        final long sum = current + n;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+}
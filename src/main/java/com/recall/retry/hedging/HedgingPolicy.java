@@ -0,0 +1,101 @@
+package com.recall.retry.hedging;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.Getter;
+
+/**
+ * Provides a policy for hedging attempts, intended for idempotent calls whose tail latency is dominated by slow rather
+ * than failed attempts. A hedging policy is attached to a {@link RetryStrategy} with
+ * {@link RetryStrategy#withHedgingPolicy(HedgingPolicy)}.
+ * <p>
+ * When an attempt has not completed within the hedge delay, a hedge of it is started in parallel on the same executor;
+ * this repeats up to the maximum number of hedges. The first of them to succeed settles the attempt and the others are
+ * cancelled, interrupting them if they are running. An attempt only fails, and may be retried, once none of its hedges
+ * is still running. Each hedge needs a permit of its own from the concurrency limiter of the strategy, if any, and no
+ * hedge is started while the circuit breaker of the strategy, if any, is not closed.
+ * <p>
+ * The hedge delay is either fixed or, if a latency percentile is given, the percentile of the latencies of the recent
+ * attempts and hedges, whether they succeeded, failed or lost to another hedge. A hedge cancelled because another one
+ * won records how long it ran before being cancelled. The fixed delay is used until enough latencies have been
+ * observed.
+ *
+ * <pre>
+ * final HedgingPolicy hedgingPolicy = HedgingPolicy.builder()
+ *         .latencyPercentile(0.95)
+ *         .hedgeDelay(50)
+ *         .maximumHedges(2)
+ *         .build();
+ * </pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class HedgingPolicy {
+
+    private static final long DEFAULT_HEDGE_DELAY = 100l;
+    private static final int DEFAULT_MAXIMUM_HEDGES = 1;
+
+    @Getter
+    private final long hedgeDelay;
+
+    @Getter
+    private final double latencyPercentile;
+
+    @Getter
+    private final int maximumHedges;
+
+    @Nullable
+    private final LatencyTracker latencyTracker;
+
+    /**
+     * Creates a new hedging policy. Any setting left at <tt>0</tt> uses its default.
+     *
+     * @param hedgeDelay the length of time, in milliseconds, after which an attempt is hedged. When a latency percentile
+     *            is given, this is only used until enough latencies have been observed. Defaults to <tt>100</tt>.
+     * @param latencyPercentile the percentile, between <tt>0</tt> and <tt>1</tt>, of the recently observed latencies
+     *            after which an attempt is hedged, or <tt>0</tt> to always use the fixed hedge delay.
+     * @param maximumHedges the maximum number of hedges started for each attempt. Defaults to <tt>1</tt>.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private HedgingPolicy(long hedgeDelay, double latencyPercentile, int maximumHedges) {
+        if (hedgeDelay < 0 || maximumHedges < 0) {
+            throw new IllegalArgumentException("hedgeDelay and maximumHedges must not be negative");
+        }
+        if (latencyPercentile < 0d || latencyPercentile > 1d) {
+            throw new IllegalArgumentException("latencyPercentile must be between 0 and 1: " + latencyPercentile);
+        }
+        this.hedgeDelay = hedgeDelay > 0 ? hedgeDelay : DEFAULT_HEDGE_DELAY;
+        this.latencyPercentile = latencyPercentile;
+        this.maximumHedges = maximumHedges > 0 ? maximumHedges : DEFAULT_MAXIMUM_HEDGES;
+        this.latencyTracker = latencyPercentile > 0d ? new LatencyTracker(latencyPercentile) : null;
+    }
+
+    /**
+     * Returns the length of time, in milliseconds, after which a running attempt is hedged.
+     *
+     * @return the current hedge delay, in milliseconds.
+     */
+    public long getCurrentHedgeDelay() {
+        final long threshold = this.latencyTracker != null ? this.latencyTracker.threshold() : -1l;
+        return threshold < 0 ? this.hedgeDelay : Math.max(1l, TimeUnit.NANOSECONDS.toMillis(threshold));
+    }
+
+    /**
+     * Records the latency of an attempt, used when the hedge delay is based on a latency percentile. Every attempt is
+     * recorded, whether or not it won, so the percentile is not biased towards the faster attempts.
+     *
+     * @param latencyNanos the latency of the attempt, in nanoseconds.
+     */
+    public void recordLatency(long latencyNanos) {
+        if (this.latencyTracker != null) {
+            this.latencyTracker.record(latencyNanos);
+        }
+    }
+
+}
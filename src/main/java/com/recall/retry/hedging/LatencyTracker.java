@@ -0,0 +1,73 @@
+package com.recall.retry.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks a percentile of the most recent attempt latencies in a fixed amount of memory. Latencies are kept in a ring
+ * of {@value #CAPACITY} samples and the percentile is only recomputed every {@value #RECOMPUTE_INTERVAL} samples, so
+ * recording a latency is a couple of atomic writes. The percentile is computed in a preallocated scratch array by one
+ * thread at a time, so recomputing it allocates nothing either; a recomputation due while another is in progress is
+ * skipped.
+ */
+@ThreadSafe
+final class LatencyTracker {
+
+    private static final int CAPACITY = 256;
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final double percentile;
+
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+
+    private final AtomicLong count = new AtomicLong();
+
+    /** Whether a thread is computing the percentile in the scratch array. */
+    private final AtomicBoolean computing = new AtomicBoolean();
+
+    @GuardedBy("computing")
+    private final long[] scratch = new long[CAPACITY];
+
+    /** The latest computed percentile, in nanoseconds, or <tt>-1</tt> until enough samples have been recorded. */
+    private volatile long threshold = -1l;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long latencyNanos) {
+        final long sample = this.count.getAndIncrement();
+        this.samples.set((int) (sample % CAPACITY), latencyNanos);
+        if ((sample + 1) % RECOMPUTE_INTERVAL == 0 && this.computing.compareAndSet(false, true)) {
+            try {
+                this.threshold = compute((int) Math.min(sample + 1, (long) CAPACITY));
+            } finally {
+                this.computing.set(false);
+            }
+        }
+    }
+
+    /**
+     * Returns the tracked percentile of the recent latencies, in nanoseconds, or <tt>-1</tt> if too few latencies
+     * have been recorded yet.
+     */
+    long threshold() {
+        return this.threshold;
+    }
+
+    private long compute(int size) {
+        final long[] sorted = this.scratch;
+        for (int ndx = 0; ndx < size; ndx++) {
+            sorted[ndx] = this.samples.get(ndx);
+        }
+        Arrays.sort(sorted, 0, size);
+        final int rank = (int) Math.ceil(this.percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, rank))];
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.recall.retry.journal;
+
+import java.io.IOException;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Provides a call drained from a {@link DeadLetterQueue} after its retries were exhausted.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class DeadLetter {
+
+    /** The time, in milliseconds since the epoch, the retries of the call were exhausted. */
+    private long failedAt;
+
+    /** The number of attempts made. */
+    private int retryCount;
+
+    /** A summary of the exception the call failed with and of the last exception it caught. */
+    @Nonnull
+    private String failureSummary;
+
+    @Getter(AccessLevel.NONE)
+    private byte[] task;
+
+    @Getter(AccessLevel.NONE)
+    private Set<Class<?>> allowedClasses;
+
+    /**
+     * Deserializes the task descriptor of the call.
+     *
+     * @return the task descriptor.
+     * @throws java.io.InvalidClassException if the task descriptor holds a class which is not allowed by the queue it
+     *             was read from.
+     * @throws IOException if the task descriptor cannot be deserialized, such as when its class no longer exists.
+     */
+    @Nonnull
+    public DurableCallable<?> readTask() throws IOException {
+        return DurableTasks.deserialize(this.task, this.allowedClasses);
+    }
+
+}
@@ -0,0 +1,413 @@
+package com.recall.retry.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableSet;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.RetriableException;
+
+import lombok.Getter;
+import lombok.Singular;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a bounded store of the calls whose retries were exhausted, so they may be inspected and re-driven once the
+ * failing dependency has recovered rather than being lost when an <tt>onFailure</tt> consumer cannot keep up. Each
+ * dead letter holds the {@link DurableCallable} task descriptor of the call, its retry count, when it failed and a
+ * summary of its failure of at most {@value #MAXIMUM_SUMMARY_LENGTH} characters.
+ * <p>
+ * Dead letters are kept outside the heap, in a ring buffer of a fixed capacity: either a direct buffer, or a file
+ * mapped into memory when a file is given, in which case the dead letters also survive a restart of the JVM. Only the
+ * dead letters taken by {@link #drain(int)} are copied back onto the heap, so a large outage filling the queue puts no
+ * pressure on the heap. When the queue is full, new dead letters are dropped and counted. A drained task descriptor is
+ * only deserialized if every class within it is allowed by the queue.
+ *
+ * <pre>
+ * final DeadLetterQueue deadLetters = DeadLetterQueue.builder()
+ *         .file(Paths.get("/var/lib/orders/dead-letters.dlq"))
+ *         .capacity(64 * 1024 * 1024)
+ *         .allowedClass(ChargeCard.class)
+ *         .build();
+ *
+ * final AsynchronousRetriableCallable&lt;Receipt&gt; caller = AsynchronousRetriableCallable.&lt;Receipt&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .deadLetterQueue(deadLetters)
+ *         .callable(new ChargeCard(orderId))
+ *         .build();
+ *
+ * // Once the payment service has recovered
+ * caller.redriveAsync(1_000);
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class DeadLetterQueue implements Closeable {
+
+    /** The maximum number of characters of a failure summary. */
+    public static final int MAXIMUM_SUMMARY_LENGTH = 256;
+
+    private static final int DEFAULT_CAPACITY = 16 * 1024 * 1024;
+
+    private static final int MAGIC = 0x52444c51;
+
+    /** The magic number, followed by the position of the oldest dead letter and the number of dead letters. */
+    private static final int FILE_HEADER_SIZE = 12;
+
+    /** The length and checksum of the body, preceding the body of every record. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** The failure time, retry count and summary length, at the start of the body of every record. */
+    private static final int BODY_HEADER_SIZE = 14;
+
+    /** Marks the rest of the ring as unused, the next record starting at the beginning of the ring. */
+    private static final int WRAP = -1;
+
+    /** The file the dead letters are kept in, or <tt>null</tt> if they are kept in a direct buffer. */
+    @Nullable
+    @Getter
+    private final Path file;
+
+    /** The size, in bytes, of the ring buffer holding the dead letters. */
+    @Getter
+    private final int capacity;
+
+    /** The classes, besides strings and the boxed primitives, allowed in the task descriptors read back. */
+    @Nonnull
+    @Getter
+    private final ImmutableSet<Class<?>> allowedClasses;
+
+    @Nonnull
+    @GuardedBy("this")
+    private final ByteBuffer buffer;
+
+    @Nonnull
+    @GuardedBy("this")
+    private final CRC32 checksum = new CRC32();
+
+    /** The position, within the ring, of the oldest dead letter. */
+    @GuardedBy("this")
+    private int head;
+
+    /** The position, within the ring, the next dead letter is written at. */
+    @GuardedBy("this")
+    private int tail;
+
+    @GuardedBy("this")
+    private int size;
+
+    @GuardedBy("this")
+    private long droppedCount;
+
+    /**
+     * Creates a new dead-letter queue, or opens the dead-letter queue kept in the specified file.
+     *
+     * @param file the file to keep the dead letters in, created if it does not exist, or <tt>null</tt> to keep them in
+     *            a direct buffer, in which case they are lost when the JVM stops.
+     * @param capacity the size, in bytes, of the ring buffer holding the dead letters, or <tt>0</tt> for 16 MiB. Ignored
+     *            when opening an existing file, whose capacity is kept.
+     * @param allowedClasses the classes allowed in the task descriptors read back from the queue, besides strings and
+     *            the boxed primitives: every {@link DurableCallable} queued, and every other class its fields hold.
+     * @throws UncheckedIOException if the file cannot be opened.
+     * @throws IllegalArgumentException if the file exists but is not a dead-letter queue.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private DeadLetterQueue(
+            @Nullable final Path file,
+            int capacity,
+            @Singular final ImmutableSet<Class<?>> allowedClasses) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        final int requested = (capacity > 0 ? capacity : DEFAULT_CAPACITY) + FILE_HEADER_SIZE;
+        this.file = file;
+        this.allowedClasses = allowedClasses;
+        synchronized (this) {
+            if (file == null) {
+                this.buffer = ByteBuffer.allocateDirect(requested);
+                this.buffer.putInt(0, MAGIC);
+            } else {
+                this.buffer = map(file, requested);
+                recover();
+            }
+            this.capacity = this.buffer.capacity() - FILE_HEADER_SIZE;
+        }
+    }
+
+    /**
+     * Adds a call whose retries were exhausted.
+     *
+     * @param task the task descriptor of the call.
+     * @param retryCount the number of attempts made.
+     * @param failure the exception the call failed with.
+     * @return <tt>true</tt> if the dead letter was added; otherwise, returns <tt>false</tt> when the queue is full and
+     *         the dead letter was dropped.
+     * @throws IllegalArgumentException if the task descriptor cannot be serialized.
+     */
+    public boolean offer(@Nonnull final DurableCallable<?> task, int retryCount,
+            @Nonnull final ExhuastedRetriesException failure) {
+        final byte[] payload = DurableTasks.serialize(task);
+        final byte[] summary = summarize(failure).getBytes(StandardCharsets.UTF_8);
+        final int length = BODY_HEADER_SIZE + summary.length + payload.length;
+        synchronized (this) {
+            final int position = reserve(RECORD_HEADER_SIZE + length);
+            if (position < 0) {
+                this.droppedCount++;
+                log.warning("Dead-letter queue is full, dropping call which failed with: " + failure.getMessage());
+                return false;
+            }
+            final int body = offset(position) + RECORD_HEADER_SIZE;
+            this.buffer.putLong(body, System.currentTimeMillis());
+            this.buffer.putInt(body + 8, retryCount);
+            this.buffer.putShort(body + 12, (short) summary.length);
+            final ByteBuffer target = this.buffer.duplicate();
+            target.position(body + BODY_HEADER_SIZE);
+            target.put(summary);
+            target.put(payload);
+            this.buffer.putInt(offset(position) + 4, checksum(body, length));
+            this.buffer.putInt(offset(position), length);
+            this.tail = position + RECORD_HEADER_SIZE + length;
+            this.size++;
+            commit();
+            return true;
+        }
+    }
+
+    /**
+     * Removes and returns the oldest dead letters.
+     *
+     * @param maximumLetters the maximum number of dead letters to remove.
+     * @return the removed dead letters, oldest first.
+     */
+    @Nonnull
+    public synchronized List<DeadLetter> drain(int maximumLetters) {
+        if (this.size == 0 || maximumLetters <= 0) {
+            return Collections.emptyList();
+        }
+        final List<DeadLetter> letters = new ArrayList<>(Math.min(maximumLetters, this.size));
+        while (this.size > 0 && letters.size() < maximumLetters) {
+            this.head = unwrap(this.head);
+            final int length = this.buffer.getInt(offset(this.head));
+            letters.add(read(offset(this.head) + RECORD_HEADER_SIZE, length));
+            this.head += RECORD_HEADER_SIZE + length;
+            this.size--;
+        }
+        if (this.size == 0) {
+            this.head = 0;
+            this.tail = 0;
+        }
+        commit();
+        return letters;
+    }
+
+    /**
+     * Returns the number of dead letters in the queue.
+     *
+     * @return the number of dead letters.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of dead letters dropped because the queue was full, since it was created or opened.
+     *
+     * @return the number of dropped dead letters.
+     */
+    public synchronized long getDroppedCount() {
+        return this.droppedCount;
+    }
+
+    /**
+     * Forces the dead letters to disk, if they are kept in a file.
+     */
+    public synchronized void flush() {
+        if (this.buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) this.buffer).force();
+        }
+    }
+
+    /**
+     * Flushes the dead letters to disk, if they are kept in a file.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Returns a summary of the specified failure and of the last exception caught before it.
+     */
+    @Nonnull
+    static String summarize(@Nonnull final ExhuastedRetriesException failure) {
+        final StringBuilder summary = new StringBuilder(failure.toString());
+        final List<RetriableException> retryExceptions = failure.getRetryExceptions();
+        if (!retryExceptions.isEmpty()) {
+            final RetriableException last = retryExceptions.get(retryExceptions.size() - 1);
+            summary.append("; last: ").append(last.getCause() != null ? last.getCause() : last);
+        }
+        return summary.length() > MAXIMUM_SUMMARY_LENGTH
+                ? summary.substring(0, MAXIMUM_SUMMARY_LENGTH)
+                : summary.toString();
+    }
+
+    /**
+     * Finds the position, within the ring, to write a record of the specified size at, writing a wrap marker if the
+     * record must start at the beginning of the ring.
+     *
+     * @return the position to write the record at, or <tt>-1</tt> if the queue is full.
+     */
+    @GuardedBy("this")
+    private int reserve(int recordSize) {
+        final int ring = this.buffer.capacity() - FILE_HEADER_SIZE;
+        if (this.size == 0) {
+            this.head = 0;
+            this.tail = 0;
+        }
+        if (this.size == 0 || this.tail > this.head) {
+            if (recordSize <= ring - this.tail) {
+                return this.tail;
+            }
+            if (recordSize <= this.head) {
+                if (ring - this.tail >= 4) {
+                    this.buffer.putInt(offset(this.tail), WRAP);
+                }
+                return 0;
+            }
+            return -1;
+        }
+        return recordSize <= this.head - this.tail ? this.tail : -1;
+    }
+
+    /**
+     * Returns the position of the record at the specified position, which is the beginning of the ring if a wrap
+     * marker is there or too little of the ring is left for a record.
+     */
+    @GuardedBy("this")
+    private int unwrap(int position) {
+        final int ring = this.buffer.capacity() - FILE_HEADER_SIZE;
+        if (ring - position < RECORD_HEADER_SIZE + BODY_HEADER_SIZE
+                || this.buffer.getInt(offset(position)) == WRAP) {
+            return 0;
+        }
+        return position;
+    }
+
+    @GuardedBy("this")
+    @Nonnull
+    private DeadLetter read(int body, int length) {
+        final int summaryLength = this.buffer.getShort(body + 12) & 0xffff;
+        final byte[] summary = new byte[summaryLength];
+        final byte[] task = new byte[length - BODY_HEADER_SIZE - summaryLength];
+        final ByteBuffer source = this.buffer.duplicate();
+        source.position(body + BODY_HEADER_SIZE);
+        source.get(summary);
+        source.get(task);
+        return new DeadLetter(this.buffer.getLong(body), this.buffer.getInt(body + 8),
+                new String(summary, StandardCharsets.UTF_8), task, this.allowedClasses);
+    }
+
+    /**
+     * Records the position of the oldest dead letter and the number of dead letters in a single write, so a crash
+     * never leaves one updated without the other. The position the next dead letter is written at is found again when
+     * the file is opened.
+     */
+    @GuardedBy("this")
+    private void commit() {
+        this.buffer.putLong(4, ((long) this.head << 32) | (this.size & 0xffffffffl));
+    }
+
+    /**
+     * Reads the position of the oldest dead letter and the number of dead letters, and finds the position of the next,
+     * checking every dead letter along the way. Dead letters from the first one which fails its check on are dropped.
+     */
+    @GuardedBy("this")
+    private void recover() {
+        final int magic = this.buffer.getInt(0);
+        if (magic == 0) {
+            this.buffer.putInt(0, MAGIC);
+            commit();
+            return;
+        }
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a dead-letter queue: " + this.file);
+        }
+        final long header = this.buffer.getLong(4);
+        final int ring = this.buffer.capacity() - FILE_HEADER_SIZE;
+        final int recordedHead = (int) (header >>> 32);
+        final int recordedSize = (int) header;
+        this.head = recordedHead >= 0 && recordedHead < ring ? recordedHead : 0;
+        int position = this.head;
+        int valid = 0;
+        while (valid < recordedSize) {
+            position = unwrap(position);
+            final int length = this.buffer.getInt(offset(position));
+            final int body = offset(position) + RECORD_HEADER_SIZE;
+            if (length < BODY_HEADER_SIZE || length > ring - position - RECORD_HEADER_SIZE
+                    || checksum(body, length) != this.buffer.getInt(offset(position) + 4)) {
+                log.warning("Dropping " + (recordedSize - valid) + " corrupt dead letters from " + this.file);
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            valid++;
+        }
+        this.size = valid;
+        this.tail = valid > 0 ? position : 0;
+        if (valid == 0) {
+            this.head = 0;
+        }
+        commit();
+    }
+
+    @GuardedBy("this")
+    private int checksum(int offset, int length) {
+        final ByteBuffer body = this.buffer.duplicate();
+        body.position(offset);
+        body.limit(offset + length);
+        this.checksum.reset();
+        this.checksum.update(body);
+        return (int) this.checksum.getValue();
+    }
+
+    private static int offset(int position) {
+        return FILE_HEADER_SIZE + position;
+    }
+
+    @Nonnull
+    private static MappedByteBuffer map(@Nonnull final Path file, int requested) {
+        try {
+            final Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                if (raf.length() == 0) {
+                    raf.setLength(requested);
+                }
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0l, raf.length());
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to open dead-letter queue " + file, ex);
+        }
+    }
+
+}
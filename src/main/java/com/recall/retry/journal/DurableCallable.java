@@ -0,0 +1,35 @@
+package com.recall.retry.journal;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link Callable} which is also its own serializable task descriptor, so a call pending in a {@link RetryJournal}
+ * can be deserialized and resumed after a restart of the JVM. Implementations should hold only what is needed to make
+ * the call, such as identifiers and request parameters, and look up any clients or connections when called.
+ *
+ * <pre>
+ * public final class ChargeCard implements DurableCallable&lt;Receipt&gt; {
+ *
+ *     private static final long serialVersionUID = 1L;
+ *
+ *     private final String orderId;
+ *
+ *     public ChargeCard(final String orderId) {
+ *         this.orderId = orderId;
+ *     }
+ *
+ *     &#64;Override
+ *     public Receipt call() throws Exception {
+ *         return PaymentClients.get().charge(this.orderId);
+ *     }
+ *
+ * }
+ * </pre>
+ *
+ * @param <V> the result type of the call.
+ */
+@FunctionalInterface
+public interface DurableCallable<V> extends Callable<V>, Serializable {
+
+}
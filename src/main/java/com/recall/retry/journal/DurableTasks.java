@@ -0,0 +1,113 @@
+package com.recall.retry.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Serializes the {@link DurableCallable} task descriptors kept in durable storage.
+ * <p>
+ * Durable storage may be written by something other than this library, so a task descriptor is only deserialized if
+ * every class within it is allowed: the classes given to the journal or queue it was read from, along with strings,
+ * the boxed primitives and arrays of any of these. Any other class, including a dynamic proxy class, is rejected
+ * before an instance of it is created.
+ */
+final class DurableTasks {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /** The classes allowed in every task descriptor, besides those given to its journal or queue. */
+    private static final Set<Class<?>> ALWAYS_ALLOWED_CLASSES = ImmutableSet.of(String.class, Boolean.class,
+            Byte.class, Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            Number.class, Enum.class);
+
+    private DurableTasks() {}
+
+    /**
+     * Serializes the specified task descriptor.
+     *
+     * @param task the task descriptor.
+     * @return the serialized task descriptor.
+     * @throws IllegalArgumentException if the task descriptor cannot be serialized.
+     */
+    @Nonnull
+    static byte[] serialize(@Nonnull final DurableCallable<?> task) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(task);
+        } catch (final IOException ex) {
+            throw new IllegalArgumentException("Unable to serialize task descriptor: " + task.getClass().getName(), ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a task descriptor.
+     *
+     * @param serialized the serialized task descriptor.
+     * @param allowedClasses the classes allowed in the task descriptor, besides strings and the boxed primitives.
+     * @return the task descriptor.
+     * @throws InvalidClassException if the task descriptor holds a class which is not allowed, or is not a
+     *             {@link DurableCallable}.
+     * @throws IOException if the task descriptor cannot be deserialized, such as when its class no longer exists.
+     */
+    @Nonnull
+    static DurableCallable<?> deserialize(@Nonnull final byte[] serialized, @Nonnull final Set<Class<?>> allowedClasses)
+            throws IOException {
+        try (ObjectInputStream in = new AllowListObjectInputStream(new ByteArrayInputStream(serialized),
+                allowedClasses)) {
+            final Object task = in.readObject();
+            if (!(task instanceof DurableCallable)) {
+                throw new InvalidClassException(task.getClass().getName(), "Not a DurableCallable");
+            }
+            return (DurableCallable<?>) task;
+        } catch (final ClassNotFoundException ex) {
+            throw new IOException("Unable to deserialize task descriptor!", ex);
+        }
+    }
+
+    /**
+     * Resolves only the allowed classes, without initializing them.
+     */
+    private static final class AllowListObjectInputStream extends ObjectInputStream {
+
+        @Nonnull
+        private final Set<Class<?>> allowedClasses;
+
+        AllowListObjectInputStream(@Nonnull final InputStream in, @Nonnull final Set<Class<?>> allowedClasses)
+                throws IOException {
+            super(in);
+            this.allowedClasses = allowedClasses;
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            final Class<?> resolved = super.resolveClass(desc);
+            Class<?> type = resolved;
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (!type.isPrimitive() && !ALWAYS_ALLOWED_CLASSES.contains(type) && !this.allowedClasses.contains(type)) {
+                throw new InvalidClassException(desc.getName(), "Not allowed in a task descriptor");
+            }
+            return resolved;
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a task descriptor");
+        }
+
+    }
+
+}
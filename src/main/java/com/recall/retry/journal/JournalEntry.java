@@ -0,0 +1,48 @@
+package com.recall.retry.journal;
+
+import java.io.IOException;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Provides a call which was pending in a {@link RetryJournal} when the journal was last closed or the JVM stopped.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class JournalEntry {
+
+    /** The id of the call within its journal. */
+    private long id;
+
+    /** The number of attempts already made. */
+    private int retryCount;
+
+    /** The time, in milliseconds since the epoch, the next attempt was due. */
+    private long nextAttemptAt;
+
+    @Getter(AccessLevel.NONE)
+    private byte[] task;
+
+    @Getter(AccessLevel.NONE)
+    private Set<Class<?>> allowedClasses;
+
+    /**
+     * Deserializes the task descriptor of the call.
+     *
+     * @return the task descriptor.
+     * @throws java.io.InvalidClassException if the task descriptor holds a class which is not allowed by the journal it
+     *             was read from.
+     * @throws IOException if the task descriptor cannot be deserialized, such as when its class no longer exists.
+     */
+    @Nonnull
+    public DurableCallable<?> readTask() throws IOException {
+        return DurableTasks.deserialize(this.task, this.allowedClasses);
+    }
+
+}
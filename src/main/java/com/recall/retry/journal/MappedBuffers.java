@@ -0,0 +1,88 @@
+package com.recall.retry.journal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import lombok.extern.java.Log;
+
+/**
+ * Unmaps memory mapped files explicitly. A mapping otherwise lasts until its buffer is garbage collected, which may be
+ * never for a buffer promoted to the old generation, so every deleted segment would keep its pages, and on some
+ * platforms its file, until then. The JDK has no public API for this, so the cleaner of the buffer is invoked
+ * reflectively: through <tt>sun.misc.Unsafe.invokeCleaner</tt> on Java 9 and later, or the <tt>cleaner()</tt> of the
+ * buffer on Java 8. Where neither is available the mapping is simply left to the garbage collector.
+ * <p>
+ * A buffer must not be accessed once it is unmapped, as doing so crashes the JVM.
+ */
+@Log
+@ThreadSafe
+final class MappedBuffers {
+
+    @Nullable
+    private static final Unmapper UNMAPPER = findUnmapper();
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * Unmaps the specified buffer, which must never be accessed again.
+     *
+     * @param buffer the buffer to unmap.
+     * @return <tt>true</tt> if the buffer was unmapped, or <tt>false</tt> if it is left to the garbage collector.
+     */
+    static boolean unmap(@Nonnull final MappedByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return false;
+        }
+        try {
+            UNMAPPER.unmap(buffer);
+            return true;
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            log.warning("Unable to unmap retry journal segment! Exception: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    @Nullable
+    private static Unmapper findUnmapper() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            // Java 8, whose direct buffers expose their cleaner instead.
+        }
+        try {
+            final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            cleaner.setAccessible(true);
+            clean.setAccessible(true);
+            return buffer -> {
+                final Object bufferCleaner = cleaner.invoke(buffer);
+                if (bufferCleaner != null) {
+                    clean.invoke(bufferCleaner);
+                }
+            };
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            log.info("Retry journal segments are unmapped by the garbage collector! Exception: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Unmapper {
+
+        void unmap(@Nonnull MappedByteBuffer buffer) throws ReflectiveOperationException;
+
+    }
+
+}
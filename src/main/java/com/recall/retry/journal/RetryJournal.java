@@ -0,0 +1,676 @@
+package com.recall.retry.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.Getter;
+import lombok.Singular;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a durable journal of pending retried calls, so calls waiting for their next attempt survive a restart of
+ * the JVM. Each call is recorded with its {@link DurableCallable} task descriptor when it is started, its retry count
+ * and next attempt time are recorded each time it backs off, and it is marked completed once it succeeds or fails.
+ * The calls still pending when the journal is next opened are returned by {@link #takeRecoveredEntries()}, and may be
+ * resumed with {@link com.recall.AsynchronousRetriableCallable#recoverAsync()}.
+ * <p>
+ * Records are appended to fixed size segment files, <tt>retry-journal-&lt;sequence&gt;.log</tt>, which are mapped
+ * into memory, so appending a record is a copy into the page cache rather than a system call. The page cache outlives
+ * the JVM, so a record is durable against a crash of the process as soon as it is appended. Against a crash of the
+ * operating system, records are group committed: the dirty segments are forced to disk every flush interval, by a
+ * single background thread, rather than once per record.
+ * <p>
+ * Each record carries a checksum, so a record torn by a crash is ignored when the journal is opened. Whenever a
+ * segment is filled, the oldest segments whose calls have all completed are deleted and, if the oldest remaining
+ * segment holds few pending calls, those calls are copied forward so it may be deleted too. {@link #compact()} does
+ * the same for every full segment.
+ * <p>
+ * A recovered task descriptor is only deserialized if every class within it was allowed when the journal was opened,
+ * so a tampered segment file cannot instantiate arbitrary classes.
+ *
+ * <pre>
+ * final RetryJournal journal = RetryJournal.builder()
+ *         .directory(Paths.get("/var/lib/orders/retries"))
+ *         .allowedClass(ChargeCard.class)
+ *         .build();
+ *
+ * final AsynchronousRetriableCallable&lt;Receipt&gt; caller = AsynchronousRetriableCallable.&lt;Receipt&gt;builder()
+ *         .retryStrategy(retryStrategy)
+ *         .journal(journal)
+ *         .callable(new ChargeCard(orderId))
+ *         .build();
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryJournal implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL = 10l;
+
+    private static final String SEGMENT_PREFIX = "retry-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String FLUSHER_THREAD_NAME = "recall-retry-journal";
+
+    /** The length and checksum of the body, preceding the body of every record. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** The type, id, retry count and next attempt time, at the start of the body of every record. */
+    private static final int BODY_HEADER_SIZE = 21;
+
+    /** The pending calls of the oldest segment are copied forward when they fill at most 1/4 of it. */
+    private static final int COMPACTION_RATIO = 4;
+
+    private static final byte STARTED = 1;
+    private static final byte RESCHEDULED = 2;
+    private static final byte COMPLETED = 3;
+
+    /** The directory holding the segment files. */
+    @Nonnull
+    @Getter
+    private final Path directory;
+
+    /** The size, in bytes, of each segment file. */
+    @Getter
+    private final int segmentSize;
+
+    /** The length of time, in milliseconds, between forcing the dirty segments to disk. */
+    @Getter
+    private final long flushInterval;
+
+    /** The classes, besides strings and the boxed primitives, allowed in the task descriptors read back. */
+    @Nonnull
+    @Getter
+    private final ImmutableSet<Class<?>> allowedClasses;
+
+    @Nonnull
+    @GuardedBy("this")
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    /** The pending calls, by id. */
+    @Nonnull
+    @GuardedBy("this")
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    @Nonnull
+    @GuardedBy("this")
+    private final CRC32 checksum = new CRC32();
+
+    @Nonnull
+    @GuardedBy("this")
+    private List<JournalEntry> recovered;
+
+    @Nonnull
+    @GuardedBy("this")
+    private Segment active;
+
+    /** The deleted segments still to be unmapped, which is left to the next flush in case it is forcing them. */
+    @Nonnull
+    @GuardedBy("this")
+    private final List<Segment> unmapping = new ArrayList<>();
+
+    /** Held while forcing or unmapping segments, so a segment is never unmapped while it is being forced. */
+    @Nonnull
+    private final Object flushLock = new Object();
+
+    @GuardedBy("this")
+    private long nextId = 1l;
+
+    @GuardedBy("this")
+    private boolean compacting;
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    @Nonnull
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Opens a journal, recovering the calls left pending in the specified directory.
+     *
+     * @param directory the directory holding the segment files, created if it does not exist.
+     * @param segmentSize the size, in bytes, of each segment file, or <tt>0</tt> for 16 MiB. A task descriptor must fit
+     *            within a single segment.
+     * @param flushInterval the length of time, in milliseconds, between forcing the dirty segments to disk, or
+     *            <tt>0</tt> for {@value #DEFAULT_FLUSH_INTERVAL}ms.
+     * @param allowedClasses the classes allowed in the task descriptors read back from the journal, besides strings and
+     *            the boxed primitives: every {@link DurableCallable} journaled, and every other class its fields hold.
+     * @throws UncheckedIOException if the journal cannot be opened.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private RetryJournal(
+            final Path directory,
+            int segmentSize,
+            long flushInterval,
+            @Singular final ImmutableSet<Class<?>> allowedClasses) {
+        if (directory == null) {
+            throw new NullPointerException("directory is required");
+        }
+        if (segmentSize < 0 || flushInterval < 0) {
+            throw new IllegalArgumentException("segmentSize and flushInterval must not be negative");
+        }
+        if (segmentSize > 0 && segmentSize < RECORD_HEADER_SIZE + BODY_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize > 0 ? segmentSize : DEFAULT_SEGMENT_SIZE;
+        this.flushInterval = flushInterval > 0 ? flushInterval : DEFAULT_FLUSH_INTERVAL;
+        this.allowedClasses = allowedClasses;
+        synchronized (this) {
+            try {
+                Files.createDirectories(directory);
+                recover();
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Unable to open retry journal in " + directory, ex);
+            }
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, FLUSHER_THREAD_NAME + "-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, this.flushInterval, this.flushInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a started call, with no attempts made and its first attempt due now.
+     *
+     * @param task the task descriptor of the call.
+     * @return the id of the call within this journal.
+     * @throws IllegalArgumentException if the task descriptor cannot be serialized or does not fit in a segment.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if a new segment is needed and cannot be created.
+     */
+    public long append(@Nonnull final DurableCallable<?> task) {
+        final byte[] payload = DurableTasks.serialize(task);
+        synchronized (this) {
+            if (this.closed) {
+                throw new IllegalStateException("Retry journal is closed: " + this.directory);
+            }
+            final long id = this.nextId++;
+            final long now = System.currentTimeMillis();
+            final int position = write(STARTED, id, 0, now, ByteBuffer.wrap(payload));
+            track(new Entry(id, this.active, position, payload.length, 0, now));
+            return id;
+        }
+    }
+
+    /**
+     * Records that a pending call is backing off. Nothing is recorded if the call is not pending or the journal has
+     * been closed.
+     *
+     * @param id the id of the call.
+     * @param retryCount the number of attempts already made.
+     * @param nextAttemptAt the time, in milliseconds since the epoch, the next attempt is due.
+     * @throws UncheckedIOException if a new segment is needed and cannot be created.
+     */
+    public synchronized void reschedule(long id, int retryCount, long nextAttemptAt) {
+        final Entry entry = this.entries.get(id);
+        if (this.closed || entry == null) {
+            return;
+        }
+        write(RESCHEDULED, id, retryCount, nextAttemptAt, null);
+        entry.retryCount = retryCount;
+        entry.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * Records that a pending call has completed, whether it succeeded or failed. Nothing is recorded if the call is
+     * not pending or the journal has been closed, in which case the call is recovered when the journal is next opened.
+     *
+     * @param id the id of the call.
+     * @throws UncheckedIOException if a new segment is needed and cannot be created.
+     */
+    public synchronized void complete(long id) {
+        if (this.closed || !this.entries.containsKey(id)) {
+            return;
+        }
+        // The call stays pending until its completed record is written, so it is recovered if the write fails, and
+        // is copied forward rather than lost if the write starts a new segment.
+        write(COMPLETED, id, 0, 0l, null);
+        final Entry entry = this.entries.remove(id);
+        entry.segment.release(entry);
+    }
+
+    /**
+     * Returns the calls which were pending when this journal was opened and have not yet been taken. Each call is only
+     * returned once, so it is resumed only once.
+     *
+     * @return the recovered calls, in the order they were started.
+     */
+    @Nonnull
+    public synchronized List<JournalEntry> takeRecoveredEntries() {
+        final List<JournalEntry> taken = this.recovered;
+        this.recovered = Collections.emptyList();
+        return taken;
+    }
+
+    /**
+     * Returns the number of pending calls.
+     *
+     * @return the number of pending calls.
+     */
+    public synchronized int getPendingCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return the number of segment files.
+     */
+    public synchronized int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Copies the pending calls of every full segment forward into the current segment, and deletes the full segments.
+     *
+     * @throws UncheckedIOException if a new segment is needed and cannot be created.
+     */
+    public synchronized void compact() {
+        if (this.closed) {
+            return;
+        }
+        this.compacting = true;
+        try {
+            for (final Segment segment : new ArrayList<>(this.segments)) {
+                if (segment != this.active) {
+                    relocate(segment);
+                }
+            }
+            releaseSegments();
+        } finally {
+            this.compacting = false;
+        }
+    }
+
+    /**
+     * Forces the records appended since the last flush to disk. This is called every flush interval and need only be
+     * called directly to make the latest records durable against a crash of the operating system.
+     */
+    public void flush() {
+        synchronized (this.flushLock) {
+            final List<MappedByteBuffer> dirty = new ArrayList<>();
+            synchronized (this) {
+                for (final Segment segment : this.segments) {
+                    if (segment.dirty) {
+                        segment.dirty = false;
+                        dirty.add(segment.buffer);
+                    }
+                }
+            }
+            for (final MappedByteBuffer buffer : dirty) {
+                buffer.force();
+            }
+            final List<Segment> deleted;
+            synchronized (this) {
+                deleted = new ArrayList<>(this.unmapping);
+                this.unmapping.clear();
+            }
+            for (final Segment segment : deleted) {
+                MappedBuffers.unmap(segment.buffer);
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes this journal, unmapping every segment. Calls still pending are recovered when the journal is
+     * next opened.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        this.flusher.shutdown();
+        flush();
+        synchronized (this) {
+            this.unmapping.addAll(this.segments);
+            this.segments.clear();
+        }
+        flush();
+    }
+
+    @GuardedBy("this")
+    private void recover() throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (final Path path : stream) {
+                paths.add(path);
+            }
+        }
+        Collections.sort(paths);
+        for (final Path path : paths) {
+            final Segment segment = openSegment(path);
+            this.segments.addLast(segment);
+            replay(segment);
+        }
+        this.active = this.segments.isEmpty() ? newSegment(1l) : this.segments.peekLast();
+        releaseSegments();
+        final List<JournalEntry> pending = new ArrayList<>(this.entries.size());
+        for (final Entry entry : this.entries.values()) {
+            pending.add(new JournalEntry(entry.id, entry.retryCount, entry.nextAttemptAt, readPayload(entry),
+                    this.allowedClasses));
+        }
+        pending.sort(Comparator.comparingLong(JournalEntry::getId));
+        this.recovered = pending;
+        if (!pending.isEmpty()) {
+            log.info("Recovered " + pending.size() + " pending calls from retry journal in " + this.directory);
+        }
+    }
+
+    @GuardedBy("this")
+    private void replay(@Nonnull final Segment segment) {
+        final MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE + BODY_HEADER_SIZE <= buffer.capacity()) {
+            final int length = buffer.getInt(position);
+            final int body = position + RECORD_HEADER_SIZE;
+            if (length < BODY_HEADER_SIZE || length > buffer.capacity() - body) {
+                break;
+            }
+            if (checksum(buffer, body, length) != buffer.getInt(position + 4)) {
+                log.warning("Ignoring torn record at " + position + " of retry journal segment " + segment.path);
+                break;
+            }
+            final long id = buffer.getLong(body + 1);
+            final int retryCount = buffer.getInt(body + 9);
+            final long nextAttemptAt = buffer.getLong(body + 13);
+            switch (buffer.get(body)) {
+                case STARTED:
+                    track(new Entry(id, segment, position, length - BODY_HEADER_SIZE, retryCount, nextAttemptAt));
+                    break;
+                case RESCHEDULED:
+                    final Entry entry = this.entries.get(id);
+                    if (entry != null) {
+                        entry.retryCount = retryCount;
+                        entry.nextAttemptAt = nextAttemptAt;
+                    }
+                    break;
+                case COMPLETED:
+                    final Entry completed = this.entries.remove(id);
+                    if (completed != null) {
+                        completed.segment.release(completed);
+                    }
+                    break;
+                default:
+                    log.warning("Ignoring unknown record at " + position + " of retry journal segment "
+                            + segment.path);
+            }
+            this.nextId = Math.max(this.nextId, id + 1);
+            position = body + length;
+        }
+        segment.position = position;
+    }
+
+    /**
+     * Appends a record to the current segment, starting a new segment first if it does not fit.
+     *
+     * @return the position of the record in the current segment.
+     */
+    @GuardedBy("this")
+    private int write(byte type, long id, int retryCount, long nextAttemptAt, @Nullable final ByteBuffer payload) {
+        final int length = BODY_HEADER_SIZE + (payload != null ? payload.remaining() : 0);
+        if (length > this.segmentSize - RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Task descriptor of " + (length - BODY_HEADER_SIZE)
+                    + " bytes does not fit in a retry journal segment of " + this.segmentSize + " bytes");
+        }
+        if (this.active.remaining() < RECORD_HEADER_SIZE + length) {
+            roll(true);
+        }
+        if (this.active.remaining() < RECORD_HEADER_SIZE + length) {
+            roll(false);
+        }
+        final Segment segment = this.active;
+        final MappedByteBuffer buffer = segment.buffer;
+        final int position = segment.position;
+        final int body = position + RECORD_HEADER_SIZE;
+        buffer.put(body, type);
+        buffer.putLong(body + 1, id);
+        buffer.putInt(body + 9, retryCount);
+        buffer.putLong(body + 13, nextAttemptAt);
+        if (payload != null) {
+            final ByteBuffer target = buffer.duplicate();
+            target.position(body + BODY_HEADER_SIZE);
+            target.put(payload);
+        }
+        buffer.putInt(position + 4, checksum(buffer, body, length));
+        // The length is written last, so a record torn by a crash reads as the end of the segment.
+        buffer.putInt(position, length);
+        segment.position = body + length;
+        segment.dirty = true;
+        return position;
+    }
+
+    /**
+     * Starts a new segment and deletes the oldest segments whose calls have all completed. When compacting, the
+     * pending calls of the oldest remaining segment are also copied forward if they fill little of it.
+     */
+    @GuardedBy("this")
+    private void roll(boolean compact) {
+        this.active = newSegment(this.active.sequence + 1);
+        releaseSegments();
+        if (!compact || this.compacting) {
+            return;
+        }
+        this.compacting = true;
+        try {
+            final Segment oldest = this.segments.peekFirst();
+            if (oldest != this.active && oldest.liveBytes <= this.segmentSize / COMPACTION_RATIO) {
+                relocate(oldest);
+                releaseSegments();
+            }
+        } finally {
+            this.compacting = false;
+        }
+    }
+
+    /**
+     * Copies the pending calls of the specified segment, with their current retry count and next attempt time, forward
+     * into the current segment.
+     */
+    @GuardedBy("this")
+    private void relocate(@Nonnull final Segment segment) {
+        for (final Entry entry : new ArrayList<>(this.entries.values())) {
+            if (entry.segment == segment) {
+                final int position = write(STARTED, entry.id, entry.retryCount, entry.nextAttemptAt,
+                        payloadOf(entry));
+                track(new Entry(entry.id, this.active, position, entry.payloadLength, entry.retryCount,
+                        entry.nextAttemptAt));
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest segments whose calls have all completed, to be unmapped by the next flush. Only the oldest
+     * segments are deleted, so the record completing a call is never deleted before the record starting it.
+     */
+    @GuardedBy("this")
+    private void releaseSegments() {
+        while (this.segments.size() > 1 && this.segments.peekFirst().liveEntries == 0) {
+            final Segment released = this.segments.pollFirst();
+            this.unmapping.add(released);
+            try {
+                Files.deleteIfExists(released.path);
+            } catch (final IOException ex) {
+                log.warning("Unable to delete retry journal segment " + released.path + "! Exception: "
+                        + ex.getMessage());
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void track(@Nonnull final Entry entry) {
+        final Entry replaced = this.entries.put(entry.id, entry);
+        if (replaced != null) {
+            replaced.segment.release(replaced);
+        }
+        entry.segment.liveEntries++;
+        entry.segment.liveBytes += RECORD_HEADER_SIZE + BODY_HEADER_SIZE + entry.payloadLength;
+    }
+
+    @Nonnull
+    private static ByteBuffer payloadOf(@Nonnull final Entry entry) {
+        final ByteBuffer payload = entry.segment.buffer.duplicate();
+        final int start = entry.position + RECORD_HEADER_SIZE + BODY_HEADER_SIZE;
+        payload.position(start);
+        payload.limit(start + entry.payloadLength);
+        return payload;
+    }
+
+    @Nonnull
+    private static byte[] readPayload(@Nonnull final Entry entry) {
+        final byte[] payload = new byte[entry.payloadLength];
+        payloadOf(entry).get(payload);
+        return payload;
+    }
+
+    @GuardedBy("this")
+    private int checksum(@Nonnull final MappedByteBuffer buffer, int offset, int length) {
+        final ByteBuffer body = buffer.duplicate();
+        body.position(offset);
+        body.limit(offset + length);
+        this.checksum.reset();
+        this.checksum.update(body);
+        return (int) this.checksum.getValue();
+    }
+
+    @GuardedBy("this")
+    @Nonnull
+    private Segment newSegment(long sequence) {
+        final Path path = this.directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence,
+                SEGMENT_SUFFIX));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(this.segmentSize);
+            final Segment segment = new Segment(path, sequence,
+                    file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0l, this.segmentSize));
+            this.segments.addLast(segment);
+            return segment;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Unable to create retry journal segment " + path, ex);
+        }
+    }
+
+    @Nonnull
+    private static Segment openSegment(@Nonnull final Path path) throws IOException {
+        final String name = path.getFileName().toString();
+        final long sequence;
+        try {
+            sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (final NumberFormatException ex) {
+            throw new IOException("Unexpected retry journal segment name: " + path, ex);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(path, sequence, channel.map(FileChannel.MapMode.READ_WRITE, 0l, channel.size()));
+        }
+    }
+
+    /**
+     * One segment file of the journal, which stays mapped into memory until the flush after it is deleted.
+     */
+    private static final class Segment {
+
+        @Nonnull
+        private final Path path;
+
+        private final long sequence;
+
+        @Nonnull
+        private final MappedByteBuffer buffer;
+
+        /** The position the next record is appended at. */
+        private int position;
+
+        /** The number of pending calls whose latest started record is in this segment. */
+        private int liveEntries;
+
+        /** The number of bytes of the latest started records of pending calls in this segment. */
+        private int liveBytes;
+
+        /** Whether records have been appended since the segment was last forced to disk. */
+        private boolean dirty;
+
+        Segment(@Nonnull final Path path, long sequence, @Nonnull final MappedByteBuffer buffer) {
+            this.path = path;
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return this.buffer.capacity() - this.position;
+        }
+
+        void release(@Nonnull final Entry entry) {
+            this.liveEntries--;
+            this.liveBytes -= RECORD_HEADER_SIZE + BODY_HEADER_SIZE + entry.payloadLength;
+        }
+
+    }
+
+    /**
+     * A pending call, located by the latest record which started it.
+     */
+    private static final class Entry {
+
+        private final long id;
+
+        @Nonnull
+        private final Segment segment;
+
+        private final int position;
+
+        private final int payloadLength;
+
+        private int retryCount;
+
+        private long nextAttemptAt;
+
+        Entry(long id, @Nonnull final Segment segment, int position, int payloadLength, int retryCount,
+                long nextAttemptAt) {
+            this.id = id;
+            this.segment = segment;
+            this.position = position;
+            this.payloadLength = payloadLength;
+            this.retryCount = retryCount;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.recall.retry.limiter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.exceptions.ConcurrencyLimitExceededException;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Provides an adaptive limit on the number of attempts in flight to a dependency. A concurrency limiter is attached to
+ * a {@link RetryStrategy} with {@link RetryStrategy#withConcurrencyLimiter(ConcurrencyLimiter)} and is usually shared
+ * by all the strategies calling the same dependency; every attempt acquires a permit from it before it is made.
+ * <p>
+ * The limit is adjusted with additive-increase/multiplicative-decrease (AIMD):
+ * <ul>
+ * <li>every attempt which succeeds within the latency threshold, while at least half of the limit is in use, grows the
+ * limit by one over the course of a full limit of attempts.</li>
+ * <li>every attempt which fails with a retriable exception, or succeeds slower than the latency threshold, shrinks the
+ * limit by the backoff ratio.</li>
+ * </ul>
+ * When the limit is reached, further attempts wait in a bounded queue and are made, in order, as permits are released.
+ * Once the queue is full, or if it has no room at all, the call fails fast with a
+ * {@link ConcurrencyLimitExceededException} rather than piling onto a struggling dependency.
+ *
+ * <pre>
+ * final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+ *         .name("inventory-service")
+ *         .initialLimit(20)
+ *         .maximumLimit(200)
+ *         .latencyThresholdMillis(250)
+ *         .maximumQueueLength(100)
+ *         .build();
+ *
+ * final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+ *         ...
+ *         .build()
+ *         .withConcurrencyLimiter(concurrencyLimiter);
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class ConcurrencyLimiter {
+
+    private static final String DEFAULT_NAME = "default";
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+    private static final int DEFAULT_MINIMUM_LIMIT = 1;
+    private static final int DEFAULT_MAXIMUM_LIMIT = 200;
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9d;
+
+    @Nonnull
+    @Getter
+    private final String name;
+
+    @Getter
+    private final int minimumLimit;
+
+    @Getter
+    private final int maximumLimit;
+
+    private final double backoffRatio;
+
+    private final long latencyThresholdNanos;
+
+    @Getter
+    private final int maximumQueueLength;
+
+    /** The current limit, the whole part of the {@link #estimate}. */
+    @Getter
+    private volatile int limit;
+
+    @GuardedBy("this")
+    private double estimate;
+
+    @Nonnull
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Nonnull
+    private final AtomicInteger queued = new AtomicInteger();
+
+    @Nonnull
+    private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a new concurrency limiter. Any setting left at <tt>0</tt> uses its default.
+     *
+     * @param name the name of the concurrency limiter, used in log and exception messages.
+     * @param initialLimit the number of attempts permitted in flight before any have completed. Defaults to
+     *            <tt>20</tt>.
+     * @param minimumLimit the lowest the limit may shrink to. Defaults to <tt>1</tt>.
+     * @param maximumLimit the highest the limit may grow to. Defaults to <tt>200</tt>.
+     * @param backoffRatio the ratio, between <tt>0</tt> and <tt>1</tt>, the limit is multiplied by when an attempt
+     *            is dropped. Defaults to <tt>0.9</tt>.
+     * @param latencyThresholdMillis the length of time, in milliseconds, beyond which a successful attempt is treated
+     *            as dropped, or <tt>0</tt> to only consider failures.
+     * @param maximumQueueLength the number of attempts which may wait for a permit, or <tt>0</tt> to fail fast as soon
+     *            as the limit is reached.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private ConcurrencyLimiter(
+            @Nullable final String name,
+            int initialLimit,
+            int minimumLimit,
+            int maximumLimit,
+            double backoffRatio,
+            long latencyThresholdMillis,
+            int maximumQueueLength) {
+        if (initialLimit < 0 || minimumLimit < 0 || maximumLimit < 0 || latencyThresholdMillis < 0
+                || maximumQueueLength < 0) {
+            throw new IllegalArgumentException("Limits, latency threshold and queue length must not be negative");
+        }
+        if (backoffRatio < 0d || backoffRatio >= 1d) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+        }
+        this.name = name != null ? name : DEFAULT_NAME;
+        this.minimumLimit = minimumLimit > 0 ? minimumLimit : DEFAULT_MINIMUM_LIMIT;
+        this.maximumLimit = Math.max(this.minimumLimit, maximumLimit > 0 ? maximumLimit : DEFAULT_MAXIMUM_LIMIT);
+        this.backoffRatio = backoffRatio > 0d ? backoffRatio : DEFAULT_BACKOFF_RATIO;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.maximumQueueLength = maximumQueueLength;
+        this.estimate = Math.min(this.maximumLimit,
+                Math.max(this.minimumLimit, initialLimit > 0 ? initialLimit : DEFAULT_INITIAL_LIMIT));
+        this.limit = (int) this.estimate;
+    }
+
+    /**
+     * Returns the number of attempts currently in flight.
+     *
+     * @return the number of permits currently acquired.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Returns the number of attempts currently waiting for a permit.
+     *
+     * @return the number of attempts currently waiting for a permit.
+     */
+    public int getQueueLength() {
+        return this.queued.get();
+    }
+
+    /**
+     * Acquires a permit if one is available, without waiting. Each acquired permit must be followed by a call to
+     * {@link #onSuccess(long)}, {@link #onDropped()} or {@link #onIgnored()}.
+     *
+     * @return <tt>true</tt> if a permit was acquired; otherwise, returns <tt>false</tt> when the limit is reached.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (current >= this.limit) {
+                return false;
+            }
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Queues the specified task to be run once a permit has been acquired for it. The task is run on the thread which
+     * released the permit, or on the calling thread if a permit is already available, and should therefore only hand
+     * the attempt off, for instance to an executor.
+     *
+     * @param onAcquired the task to run, holding the acquired permit.
+     * @return <tt>true</tt> if the task was queued or run; otherwise, returns <tt>false</tt> when the queue is full and
+     *         the attempt must be rejected.
+     */
+    public boolean enqueue(final Runnable onAcquired) {
+        if (this.queued.incrementAndGet() > this.maximumQueueLength) {
+            this.queued.decrementAndGet();
+            return false;
+        }
+        this.waiters.offer(onAcquired);
+        drain();
+        return true;
+    }
+
+    /**
+     * Acquires a permit, blocking the calling thread in the queue while the limit is reached.
+     *
+     * @return <tt>true</tt> if a permit was acquired; otherwise, returns <tt>false</tt> when the queue is full and the
+     *         attempt must be rejected.
+     * @throws InterruptedException if the calling thread was interrupted while waiting, in which case no permit is
+     *             held.
+     */
+    public boolean acquire() throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        final Waiter waiter = new Waiter();
+        if (!enqueue(waiter)) {
+            return false;
+        }
+        waiter.await();
+        return true;
+    }
+
+    /**
+     * Records a permitted attempt which succeeded, releasing its permit.
+     *
+     * @param latencyNanos the length of time the attempt took, in nanoseconds.
+     */
+    public void onSuccess(long latencyNanos) {
+        final int current = this.inFlight.get();
+        if (this.latencyThresholdNanos > 0 && latencyNanos > this.latencyThresholdNanos) {
+            decrease();
+        } else if (current * 2 >= this.limit) {
+            increase();
+        }
+        release();
+    }
+
+    /**
+     * Records a permitted attempt which failed with a retriable exception or timed out, releasing its permit.
+     */
+    public void onDropped() {
+        decrease();
+        release();
+    }
+
+    /**
+     * Releases a permit without adjusting the limit, for an attempt which was not made or whose outcome says nothing
+     * about the load on the dependency.
+     */
+    public void onIgnored() {
+        release();
+    }
+
+    /**
+     * Creates the exception with which a rejected attempt fails.
+     *
+     * @param lastFailure the exception of the last attempt made before the rejection, if any.
+     * @return a new {@link ConcurrencyLimitExceededException}.
+     */
+    @Nonnull
+    public ConcurrencyLimitExceededException rejection(@Nullable final Throwable lastFailure) {
+        return new ConcurrencyLimitExceededException("Concurrency limiter '" + this.name + "' is at its limit of "
+                + this.limit + " with " + this.queued.get() + " attempts queued!", lastFailure);
+    }
+
+    private synchronized void increase() {
+        if (this.estimate < this.maximumLimit) {
+            this.estimate = Math.min(this.maximumLimit, this.estimate + 1d / this.estimate);
+            this.limit = (int) this.estimate;
+        }
+    }
+
+    private synchronized void decrease() {
+        if (this.estimate > this.minimumLimit) {
+            this.estimate = Math.max(this.minimumLimit, this.estimate * this.backoffRatio);
+            this.limit = (int) this.estimate;
+            log.fine("Concurrency limiter '" + this.name + "' decreased its limit to " + this.limit);
+        }
+    }
+
+    private void release() {
+        this.inFlight.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Hands the available permits to the waiting attempts, in order.
+     */
+    private void drain() {
+        while (!this.waiters.isEmpty() && tryAcquire()) {
+            final Runnable waiter = this.waiters.poll();
+            if (waiter == null) {
+                this.inFlight.decrementAndGet();
+                continue;
+            }
+            this.queued.decrementAndGet();
+            try {
+                waiter.run();
+            } catch (final RuntimeException ex) {
+                log.warning("Queued attempt threw exception: " + ex);
+            }
+        }
+    }
+
+    /**
+     * A thread blocked in {@link ConcurrencyLimiter#acquire()}. A permit granted after the thread stopped waiting is
+     * released straight away.
+     */
+    private final class Waiter implements Runnable {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private final CountDownLatch granted = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            if (this.state.compareAndSet(WAITING, GRANTED)) {
+                this.granted.countDown();
+            } else {
+                release();
+            }
+        }
+
+        void await() throws InterruptedException {
+            try {
+                this.granted.await();
+            } catch (final InterruptedException ex) {
+                if (this.state.compareAndSet(WAITING, CANCELLED)) {
+                    throw ex;
+                }
+                // the permit was granted while being interrupted, keep it and the interrupt
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.recall.retry.metrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Provides an immutable copy of a {@link LatencyHistogram} at a point in time.
+ */
+@Immutable
+@ToString(exclude = "counts")
+@EqualsAndHashCode
+public final class HistogramSnapshot {
+
+    @Nonnull
+    @Getter(AccessLevel.NONE)
+    private final long[] counts;
+
+    /** The number of recorded values. */
+    @Getter
+    private final long count;
+
+    /** The sum of the recorded values, in nanoseconds. */
+    @Getter
+    private final long sum;
+
+    /** The largest recorded value, in nanoseconds. */
+    @Getter
+    private final long max;
+
+    HistogramSnapshot(@Nonnull final long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Returns the mean of the recorded values, in nanoseconds.
+     *
+     * @return the mean value, or <tt>0</tt> if no values were recorded.
+     */
+    public double getMean() {
+        return this.count > 0 ? (double) this.sum / this.count : 0d;
+    }
+
+    /**
+     * Returns the value, in nanoseconds, below which the specified share of the recorded values fall. The value is
+     * the upper bound of the bucket the percentile falls in, and never more than the largest recorded value.
+     *
+     * @param percentile the percentile, between <tt>0</tt> and <tt>1</tt>.
+     * @return the value at the percentile, or <tt>0</tt> if no values were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0l;
+        for (final long bucketCount : this.counts) {
+            total += bucketCount;
+        }
+        if (total == 0l) {
+            return 0l;
+        }
+        final long rank = Math.max(1l, (long) Math.ceil(Math.min(1d, Math.max(0d, percentile)) * total));
+        long seen = 0l;
+        for (int bucket = 0; bucket < this.counts.length; bucket++) {
+            seen += this.counts[bucket];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBoundOf(bucket), this.max);
+            }
+        }
+        return this.max;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.recall.retry.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides a fixed-memory histogram of latencies, in nanoseconds. Values are counted in log-linear buckets: every power
+ * of two is split into {@value #SUB_BUCKETS} equal sub-buckets, so any recorded value is reported within 12.5% of its
+ * actual value. Recording a value is a few atomic increments without allocation or locking.
+ */
+@ThreadSafe
+public final class LatencyHistogram {
+
+    /** The number of sub-buckets each power of two is split into, which must itself be a power of two. */
+    static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    @Nonnull
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    @Nonnull
+    private final LongAdder count = new LongAdder();
+
+    @Nonnull
+    private final LongAdder sum = new LongAdder();
+
+    @Nonnull
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0l);
+
+    /**
+     * Records the specified latency. Negative values are recorded as <tt>0</tt>.
+     *
+     * @param latencyNanos the latency, in nanoseconds.
+     */
+    public void record(long latencyNanos) {
+        final long value = Math.max(0l, latencyNanos);
+        this.counts.incrementAndGet(bucketOf(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns a point-in-time copy of this histogram. Values recorded concurrently may be partially included.
+     *
+     * @return a snapshot of this histogram.
+     */
+    @Nonnull
+    public HistogramSnapshot snapshot() {
+        final long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = this.counts.get(bucket);
+        }
+        return new HistogramSnapshot(copy, this.count.sum(), this.sum.sum(), this.max.get());
+    }
+
+    /**
+     * Returns the bucket of the specified value: values below {@value #SUB_BUCKETS} have a bucket each, larger values
+     * are bucketed by their highest bit and the {@value #SUB_BUCKET_BITS} bits below it.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the largest value counted in the specified bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lower = ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << shift;
+        final long upper = lower + (1l << shift) - 1l;
+        return upper < lower ? Long.MAX_VALUE : upper;
+    }
+
+}
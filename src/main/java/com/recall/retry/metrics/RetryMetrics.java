@@ -0,0 +1,142 @@
+package com.recall.retry.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableMap;
+import com.recall.retry.strategies.RetryStrategy;
+
+import lombok.Getter;
+
+/**
+ * Provides metrics of the calls made with a {@link RetryStrategy}: attempts, successes, retries per exception class,
+ * exhaustions, non-retriable failures, time spent backing off and the latency of each attempt. Metrics are attached to
+ * a strategy with {@link RetryStrategy#withRetryMetrics(RetryMetrics)} and read with {@link #snapshot()}.
+ * <p>
+ * Counters are {@link LongAdder}s and the latencies a fixed-memory {@link LatencyHistogram}, so recording is cheap and
+ * does not contend on the success path.
+ *
+ * <pre>
+ * final RetryMetrics metrics = new RetryMetrics("inventory-service");
+ * final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+ *         ...
+ *         .build()
+ *         .withRetryMetrics(metrics);
+ * ...
+ * metrics.snapshot().toMap().forEach(exporter::gauge);
+ * </pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryMetrics {
+
+    @Nonnull
+    @Getter
+    private final String name;
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder successes = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder exhaustions = new LongAdder();
+
+    private final LongAdder nonRetriableFailures = new LongAdder();
+
+    private final LongAdder backoffMillis = new LongAdder();
+
+    private final ConcurrentMap<Class<?>, LongAdder> retriesByException = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram attemptLatency = new LatencyHistogram();
+
+    /**
+     * @param name the name of the metrics, such as the dependency being called.
+     */
+    public RetryMetrics(@Nonnull final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records an attempt which took the specified length of time, whatever its outcome.
+     *
+     * @param latencyNanos the latency of the attempt, in nanoseconds.
+     */
+    public void recordAttempt(long latencyNanos) {
+        this.attempts.increment();
+        this.attemptLatency.record(latencyNanos);
+    }
+
+    /**
+     * Records a call which succeeded.
+     */
+    public void recordSuccess() {
+        this.successes.increment();
+    }
+
+    /**
+     * Records a retry caused by the specified retriable exception.
+     *
+     * @param exception the retriable exception of the attempt being retried.
+     */
+    public void recordRetry(@Nonnull final Exception exception) {
+        this.retries.increment();
+        LongAdder perException = this.retriesByException.get(exception.getClass());
+        if (perException == null) {
+            perException = this.retriesByException.computeIfAbsent(exception.getClass(), type -> new LongAdder());
+        }
+        perException.increment();
+    }
+
+    /**
+     * Records a call which failed because its retries were exhausted, including by its retry budget or deadline.
+     */
+    public void recordExhausted() {
+        this.exhaustions.increment();
+    }
+
+    /**
+     * Records a call which failed with a non-retriable exception.
+     */
+    public void recordNonRetriable() {
+        this.nonRetriableFailures.increment();
+    }
+
+    /**
+     * Records the length of time waited before a retry.
+     *
+     * @param waitTime the wait time, in milliseconds.
+     */
+    public void recordBackoff(long waitTime) {
+        if (waitTime > 0) {
+            this.backoffMillis.add(waitTime);
+        }
+    }
+
+    /**
+     * Returns a point-in-time copy of these metrics. Values recorded concurrently may be partially included.
+     *
+     * @return a snapshot of these metrics.
+     */
+    @Nonnull
+    public RetryMetricsSnapshot snapshot() {
+        final ImmutableMap.Builder<String, Long> perException = ImmutableMap.builder();
+        this.retriesByException.forEach((type, count) -> perException.put(type.getName(), count.sum()));
+        return RetryMetricsSnapshot.builder()
+                .attempts(this.attempts.sum())
+                .successes(this.successes.sum())
+                .retries(this.retries.sum())
+                .exhaustions(this.exhaustions.sum())
+                .nonRetriableFailures(this.nonRetriableFailures.sum())
+                .backoffMillis(this.backoffMillis.sum())
+                .retriesByException(perException.build())
+                .attemptLatency(this.attemptLatency.snapshot())
+                .build();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.recall.retry.metrics;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Provides an immutable copy of a {@link RetryMetrics} at a point in time, see {@link #toMap()} for exporting it.
+ */
+@Value
+@Builder(builderClassName = "Builder")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RetryMetricsSnapshot {
+
+    private long attempts;
+
+    private long successes;
+
+    private long retries;
+
+    private long exhaustions;
+
+    private long nonRetriableFailures;
+
+    private long backoffMillis;
+
+    /** The number of retries per the class name of the retriable exception which caused them. */
+    @Nonnull
+    private ImmutableMap<String, Long> retriesByException;
+
+    @Nonnull
+    private HistogramSnapshot attemptLatency;
+
+    /**
+     * Returns the values of this snapshot by name, for exporting to a metrics system. The retries per exception are
+     * named <tt>retries.&lt;class name&gt;</tt> and the latencies, in nanoseconds, <tt>attemptLatency.&lt;stat&gt;</tt>.
+     *
+     * @return the values of this snapshot by name.
+     */
+    @Nonnull
+    public ImmutableMap<String, Number> toMap() {
+        final ImmutableMap.Builder<String, Number> values = ImmutableMap.<String, Number> builder()
+                .put("attempts", this.attempts)
+                .put("successes", this.successes)
+                .put("retries", this.retries)
+                .put("exhaustions", this.exhaustions)
+                .put("nonRetriableFailures", this.nonRetriableFailures)
+                .put("backoffMillis", this.backoffMillis);
+        this.retriesByException.forEach((exception, count) -> values.put("retries." + exception, count));
+        return values
+                .put("attemptLatency.count", this.attemptLatency.getCount())
+                .put("attemptLatency.mean", this.attemptLatency.getMean())
+                .put("attemptLatency.p50", this.attemptLatency.getValueAtPercentile(0.5d))
+                .put("attemptLatency.p90", this.attemptLatency.getValueAtPercentile(0.9d))
+                .put("attemptLatency.p99", this.attemptLatency.getValueAtPercentile(0.99d))
+                .put("attemptLatency.max", this.attemptLatency.getMax())
+                .build();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.recall.retry.scheduling;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provides a timer for registering delayed retry attempts. A scheduler never runs the retried {@code Callable} itself,
+ * it only hands the next attempt back to an executor once the wait time has elapsed, so no thread is held while a call
+ * is backing off.
+ */
+public interface RetryScheduler {
+
+    /**
+     * Registers the specified task to be run once after the given delay.
+     * <p>
+     * Note: tasks are run on the scheduler's own thread and must therefore be short and non-blocking, typically
+     * submitting the actual attempt to an executor.
+     *
+     * @param task the task to run once the delay has elapsed.
+     * @param delay the length of time to wait before running the task.
+     * @param unit the time unit of the <tt>delay</tt> argument.
+     * @return a handle that may be used to cancel the task before it is run.
+     */
+    @Nonnull
+    default ScheduledRetry schedule(@Nonnull final Runnable task, long delay, @Nonnull final TimeUnit unit) {
+        return schedule(task, rejected -> {}, delay, unit);
+    }
+
+    /**
+     * Registers the specified task to be run once after the given delay, or to be rejected if this scheduler is shut
+     * down before then.
+     * <p>
+     * Note: tasks, and their rejections, are run on the scheduler's own thread and must therefore be short and
+     * non-blocking, typically submitting the actual attempt to an executor.
+     *
+     * @param task the task to run once the delay has elapsed.
+     * @param onRejected invoked instead of the task if this scheduler is shut down before the delay has elapsed.
+     * @param delay the length of time to wait before running the task.
+     * @param unit the time unit of the <tt>delay</tt> argument.
+     * @return a handle that may be used to cancel the task before it is run.
+     * @throws RejectedExecutionException if this scheduler has already been shut down.
+     */
+    @Nonnull
+    ScheduledRetry schedule(
+            @Nonnull final Runnable task,
+            @Nonnull final Consumer<? super RejectedExecutionException> onRejected,
+            long delay,
+            @Nonnull final TimeUnit unit);
+
+    /**
+     * Stops this scheduler. Every task which has not yet been run, nor cancelled, is rejected instead.
+     */
+    void shutdown();
+
+    /**
+     * Checks if this scheduler has been shut down.
+     *
+     * @return <tt>true</tt> if this scheduler has been shut down; otherwise, returns <tt>false</tt>.
+     */
+    boolean isShutdown();
+
+}
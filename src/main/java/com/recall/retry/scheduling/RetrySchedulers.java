@@ -0,0 +1,50 @@
+package com.recall.retry.scheduling;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides access to the process-wide {@link RetryScheduler} shared by all retriable callables which are not given a
+ * scheduler of their own. The shared scheduler is a {@link TimingWheelRetryScheduler} with the default tick duration of
+ * {@value TimingWheelRetryScheduler#DEFAULT_TICK_MILLIS} milliseconds.
+ */
+@ThreadSafe
+public final class RetrySchedulers {
+
+    private static final String SHARED_THREAD_NAME = "recall-retry-scheduler";
+
+    @GuardedBy("RetrySchedulers.class")
+    private static RetryScheduler shared;
+
+    private RetrySchedulers() {}
+
+    /**
+     * Returns the shared {@link RetryScheduler}, creating it if it does not yet exist or was previously shut down.
+     *
+     * @return the shared {@code RetryScheduler}.
+     */
+    @Nonnull
+    public static synchronized RetryScheduler shared() {
+        if (shared == null || shared.isShutdown()) {
+            shared = TimingWheelRetryScheduler.builder()
+                    .threadName(SHARED_THREAD_NAME)
+                    .build();
+        }
+        return shared;
+    }
+
+    /**
+     * Shuts down the shared {@link RetryScheduler}, if it was created. Any retries still waiting on the shared
+     * scheduler are rejected, failing their calls with a
+     * {@link com.recall.retry.exceptions.NonRetriableException} caused by a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+}
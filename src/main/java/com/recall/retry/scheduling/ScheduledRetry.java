@@ -0,0 +1,22 @@
+package com.recall.retry.scheduling;
+
+/**
+ * Provides a handle to a task registered with a {@link RetryScheduler}.
+ */
+public interface ScheduledRetry {
+
+    /**
+     * Attempts to cancel the scheduled task. This has no effect if the task has already been run or cancelled.
+     *
+     * @return <tt>true</tt> if the task was cancelled by this call; otherwise, returns <tt>false</tt>.
+     */
+    boolean cancel();
+
+    /**
+     * Returns <tt>true</tt> if the scheduled task was cancelled before it was run.
+     *
+     * @return <tt>true</tt> if the scheduled task was cancelled before it was run.
+     */
+    boolean isCancelled();
+
+}
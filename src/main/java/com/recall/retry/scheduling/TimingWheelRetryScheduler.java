@@ -0,0 +1,373 @@
+package com.recall.retry.scheduling;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Provides a {@link RetryScheduler} backed by a hashed timing wheel, suitable for a very large number of pending
+ * retries. Scheduling and cancelling a retry are both <i>O(1)</i> and allocate a single small handle, in contrast to
+ * the <i>O(log n)</i> heap of a {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * <p>
+ * Time is divided into ticks of a configurable duration. A single driver thread advances the wheel once per tick and
+ * runs every task whose deadline has passed, so tasks run up to one tick later than requested. The driver thread is
+ * only started when the first task is scheduled, and rejects every task still pending once the scheduler is shut down.
+ *
+ * <pre>
+ * final RetryScheduler scheduler = TimingWheelRetryScheduler.builder()
+ *         .tickDuration(10)
+ *         .tickUnit(TimeUnit.MILLISECONDS)
+ *         .ticksPerWheel(512)
+ *         .build();
+ * </pre>
+ */
+@Log
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class TimingWheelRetryScheduler implements RetryScheduler {
+
+    /** The default duration of a tick, in milliseconds. */
+    public static final long DEFAULT_TICK_MILLIS = 10l;
+
+    /** The default number of ticks, or buckets, in the wheel. */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final String DEFAULT_THREAD_NAME = "recall-retry-timing-wheel";
+
+    /** Bounds the number of newly scheduled tasks moved into the wheel per tick, so a burst cannot stall a tick. */
+    private static final int MAXIMUM_TRANSFERS_PER_TICK = 100_000;
+
+    private static final int INITIAL = 0;
+    private static final int STARTED = 1;
+    private static final int SHUTDOWN = 2;
+
+    private static final int SCHEDULED = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final int REJECTED = 3;
+
+    @Getter
+    private final long tickNanos;
+
+    @Nonnull
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final long startTime = System.nanoTime();
+
+    @Nonnull
+    private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    @Nonnull
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    @Nonnull
+    private final AtomicInteger state = new AtomicInteger(INITIAL);
+
+    @Nonnull
+    private final Thread driver;
+
+    /** The number of ticks the wheel has advanced, only accessed by the driver thread. */
+    private long tick;
+
+    /**
+     * Creates a new timing wheel scheduler.
+     *
+     * @param threadName the name of the driver thread, or <tt>null</tt> for the default name.
+     * @param tickDuration the duration of a tick, or <tt>0</tt> for {@value #DEFAULT_TICK_MILLIS} milliseconds.
+     * @param tickUnit the time unit of the <tt>tickDuration</tt>, or <tt>null</tt> for milliseconds.
+     * @param ticksPerWheel the number of buckets in the wheel, rounded up to a power of two, or <tt>0</tt> for
+     *            {@value #DEFAULT_TICKS_PER_WHEEL}.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private TimingWheelRetryScheduler(
+            @Nullable final String threadName,
+            long tickDuration,
+            @Nullable final TimeUnit tickUnit,
+            int ticksPerWheel) {
+        if (tickDuration < 0 || ticksPerWheel < 0) {
+            throw new IllegalArgumentException("tickDuration and ticksPerWheel must not be negative");
+        }
+        this.tickNanos = tickDuration == 0
+                ? TimeUnit.MILLISECONDS.toNanos(DEFAULT_TICK_MILLIS)
+                : Math.max(1l, (tickUnit != null ? tickUnit : TimeUnit.MILLISECONDS).toNanos(tickDuration));
+        this.wheel = new Bucket[powerOfTwo(ticksPerWheel == 0 ? DEFAULT_TICKS_PER_WHEEL : ticksPerWheel)];
+        for (int ndx = 0; ndx < this.wheel.length; ndx++) {
+            this.wheel[ndx] = new Bucket();
+        }
+        this.mask = this.wheel.length - 1;
+        this.driver = new Thread(this::drive, threadName != null ? threadName : DEFAULT_THREAD_NAME);
+        this.driver.setDaemon(true);
+    }
+
+    @Override
+    public ScheduledRetry schedule(
+            final Runnable task,
+            final Consumer<? super RejectedExecutionException> onRejected,
+            long delay,
+            final TimeUnit unit) {
+        start();
+        final long deadline = System.nanoTime() - this.startTime + Math.max(0l, unit.toNanos(delay));
+        final WheelTimeout timeout = new WheelTimeout(task, onRejected, deadline);
+        this.pendingTimeouts.offer(timeout);
+        if (this.state.get() == SHUTDOWN) {
+            // the driver thread may already have rejected the pending timeouts before this one was offered.
+            rejectPendingTimeouts();
+        }
+        return timeout;
+    }
+
+    @Override
+    public void shutdown() {
+        if (this.state.getAndSet(SHUTDOWN) == STARTED) {
+            LockSupport.unpark(this.driver);
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.state.get() == SHUTDOWN;
+    }
+
+    /**
+     * Returns the number of ticks, or buckets, in the wheel.
+     *
+     * @return the number of ticks in the wheel.
+     */
+    public int getTicksPerWheel() {
+        return this.wheel.length;
+    }
+
+    private void start() {
+        final int current = this.state.get();
+        if (current == INITIAL && this.state.compareAndSet(INITIAL, STARTED)) {
+            this.driver.start();
+        } else if (current == SHUTDOWN) {
+            throw new RejectedExecutionException("Retry scheduler has been shut down");
+        }
+    }
+
+    private void drive() {
+        while (this.state.get() == STARTED) {
+            final long now = awaitNextTick();
+            if (now < 0) {
+                break;
+            }
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            this.wheel[(int) (this.tick & this.mask)].expireTimeouts(now);
+            this.tick++;
+        }
+        for (final Bucket bucket : this.wheel) {
+            bucket.rejectTimeouts();
+        }
+        rejectPendingTimeouts();
+    }
+
+    /**
+     * Parks the driver thread until the start of the next tick.
+     *
+     * @return the current time relative to the start of the wheel, or <tt>-1</tt> if the wheel was shut down.
+     */
+    private long awaitNextTick() {
+        final long nextTick = this.tickNanos * (this.tick + 1);
+        while (true) {
+            final long now = System.nanoTime() - this.startTime;
+            if (now >= nextTick) {
+                return now;
+            }
+            LockSupport.parkNanos(this, nextTick - now);
+            if (this.state.get() != STARTED) {
+                return -1l;
+            }
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        WheelTimeout timeout;
+        while ((timeout = this.cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void rejectPendingTimeouts() {
+        WheelTimeout timeout;
+        while ((timeout = this.pendingTimeouts.poll()) != null) {
+            timeout.reject();
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        for (int count = 0; count < MAXIMUM_TRANSFERS_PER_TICK; count++) {
+            final WheelTimeout timeout = this.pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == CANCELLED) {
+                continue;
+            }
+            final long expiryTick = timeout.deadline / this.tickNanos;
+            timeout.remainingRounds = (expiryTick - this.tick) / this.wheel.length;
+            this.wheel[(int) (Math.max(expiryTick, this.tick) & this.mask)].add(timeout);
+        }
+    }
+
+    private static int powerOfTwo(int ticksPerWheel) {
+        if (ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheel may not be greater than 2^30: " + ticksPerWheel);
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * A scheduled task, linked into exactly one bucket of the wheel once the driver thread has transferred it.
+     */
+    private final class WheelTimeout implements ScheduledRetry {
+
+        private final Runnable task;
+
+        private final Consumer<? super RejectedExecutionException> onRejected;
+
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+        // The following are only accessed by the driver thread.
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout next;
+        private WheelTimeout previous;
+
+        WheelTimeout(
+                final Runnable task,
+                final Consumer<? super RejectedExecutionException> onRejected,
+                long deadline) {
+            this.task = task;
+            this.onRejected = onRejected;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (this.state.compareAndSet(SCHEDULED, CANCELLED)) {
+                TimingWheelRetryScheduler.this.cancelledTimeouts.offer(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        void expire() {
+            if (this.state.compareAndSet(SCHEDULED, EXPIRED)) {
+                try {
+                    this.task.run();
+                } catch (final RuntimeException | Error ex) {
+                    log.warning("Scheduled retry task threw exception: " + ex);
+                }
+            }
+        }
+
+        void reject() {
+            if (this.state.compareAndSet(SCHEDULED, REJECTED)) {
+                try {
+                    this.onRejected.accept(new RejectedExecutionException("Retry scheduler has been shut down"));
+                } catch (final RuntimeException | Error ex) {
+                    log.warning("Scheduled retry rejection threw exception: " + ex);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A doubly linked list of the timeouts hashed to one tick of the wheel.
+     */
+    private final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(final WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.previous = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long now) {
+            WheelTimeout timeout = this.head;
+            while (timeout != null) {
+                final WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void rejectTimeouts() {
+            WheelTimeout timeout = this.head;
+            while (timeout != null) {
+                final WheelTimeout next = timeout.next;
+                remove(timeout);
+                timeout.reject();
+                timeout = next;
+            }
+        }
+
+        void remove(final WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            if (timeout == this.head) {
+                this.head = timeout.next;
+            }
+            if (timeout == this.tail) {
+                this.tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+    }
+
+}
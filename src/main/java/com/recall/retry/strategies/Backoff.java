@@ -0,0 +1,59 @@
+package com.recall.retry.strategies;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Provides the arithmetic shared by the jittered backoff retry strategies. Exponential delays are computed with shifts
+ * rather than {@link Math#pow(double, double)} and random delays are drawn from the calling thread's
+ * {@link ThreadLocalRandom}, so computing a wait time neither contends nor allocates.
+ */
+final class Backoff {
+
+    /** The default cap, in milliseconds, on the wait time between two attempts. */
+    static final long DEFAULT_MAXIMUM_DELAY = 30_000l;
+
+    private Backoff() {}
+
+    /**
+     * Returns <tt>baseDelay * 2^exponent</tt>, capped at the maximum delay and without overflowing.
+     *
+     * @param baseDelay the delay of the first retry, in milliseconds.
+     * @param exponent the number of times the base delay is doubled.
+     * @param maximumDelay the cap on the returned delay, in milliseconds.
+     * @return the capped exponential delay, in milliseconds.
+     */
+    static long exponential(long baseDelay, int exponent, long maximumDelay) {
+        if (baseDelay <= 0l) {
+            return 0l;
+        }
+        if (exponent <= 0) {
+            return Math.min(baseDelay, maximumDelay);
+        }
+        if (exponent >= Long.numberOfLeadingZeros(baseDelay) - 1) {
+            return maximumDelay;
+        }
+        return Math.min(baseDelay << exponent, maximumDelay);
+    }
+
+    /**
+     * Returns a uniformly random delay between <tt>origin</tt> and <tt>bound</tt>, both inclusive.
+     */
+    static long between(long origin, long bound) {
+        return bound <= origin ? origin : ThreadLocalRandom.current().nextLong(origin, bound + 1l);
+    }
+
+    /**
+     * Returns the exponent for the specified retry count, so the first retry waits the base delay.
+     */
+    static int exponentOf(int retryCount) {
+        return Math.max(0, retryCount - 1);
+    }
+
+    /**
+     * Returns the cap to use for the specified maximum delay, applying the default for <tt>0</tt>.
+     */
+    static long capOf(long maximumDelay) {
+        return maximumDelay > 0l ? maximumDelay : DEFAULT_MAXIMUM_DELAY;
+    }
+
+}
@@ -4,41 +4,48 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
 import com.recall.retry.RetriableCallState;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Singular;
-import lombok.Value;
+import lombok.ToString;
 
 /**
  * Provides a basic retry strategy with specific maximum number of retries and a constant wait time between making each
  * retry attempt.
  */
-@Value
-@Builder(builderClassName = "Builder", toBuilder = true)
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class BasicRetryStrategy implements RetryStrategy {
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class BasicRetryStrategy extends ClassifyingRetryStrategy {
 
     @Nonnull
-    private long waitTime;
+    private final long waitTime;
 
     @Nonnull
-    private int maximumRetries;
-
-    @Nonnull
-    @Singular
-    private ImmutableCollection<Class<? extends Exception>> retriableExceptions;
+    private final int maximumRetries;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    private BasicRetryStrategy(
+            long waitTime,
+            int maximumRetries,
+            @Singular @lombok.Builder.ObtainVia(method = "getRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> retriableExceptions,
+            @Singular @lombok.Builder.ObtainVia(method = "getNonRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> nonRetriableExceptions,
+            @lombok.Builder.ObtainVia(method = "isCauseMatching") boolean causeMatching,
+            @lombok.Builder.ObtainVia(method = "getExceptionHistoryPolicy")
+            @Nullable final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        super(retriableExceptions, nonRetriableExceptions, causeMatching, exceptionHistoryPolicy);
+        this.waitTime = waitTime;
+        this.maximumRetries = maximumRetries;
+    }
 
     @Override
     public long getWaitTime(@Nonnull final RetriableCallState<?> callState) {
         return callState.getRetryCount() <= this.maximumRetries ? this.waitTime : EXHAUSTED;
     }
 
-    @Override
-    public boolean isRetriableException(@Nullable final Exception exception) {
-        return this.retriableExceptions.stream().anyMatch(clz -> clz.isInstance(exception));
-    }
-
 }
@@ -0,0 +1,36 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+
+/**
+ * Provides a {@link RetryStrategy} which attaches a {@link CircuitBreaker} to another retry strategy, see
+ * {@link RetryStrategy#withCircuitBreaker(CircuitBreaker)}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class CircuitBreakerRetryStrategy extends ForwardingRetryStrategy {
+
+    @Nonnull
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * @param delegate the retry strategy to attach the circuit breaker to.
+     * @param circuitBreaker the circuit breaker consulted before every attempt.
+     */
+    public CircuitBreakerRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final CircuitBreaker circuitBreaker) {
+        super(delegate);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+}
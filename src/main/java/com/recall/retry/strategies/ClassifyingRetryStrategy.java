@@ -0,0 +1,74 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Provides the exception handling shared by the retry strategies configured with retriable and non-retriable exception
+ * classes: which exceptions are retried, decided by an {@link ExceptionClassifier} built once when the strategy is
+ * created, and which of the caught exceptions are kept. Subclasses only decide how long to wait between attempts.
+ */
+@Getter
+@ThreadSafe
+@ToString(exclude = "exceptionClassifier")
+@EqualsAndHashCode(exclude = "exceptionClassifier")
+@ParametersAreNonnullByDefault
+public abstract class ClassifyingRetryStrategy implements RetryStrategy {
+
+    @Nonnull
+    private final ImmutableCollection<Class<? extends Exception>> retriableExceptions;
+
+    @Nonnull
+    private final ImmutableCollection<Class<? extends Exception>> nonRetriableExceptions;
+
+    private final boolean causeMatching;
+
+    @Nonnull
+    private final ExceptionHistoryPolicy exceptionHistoryPolicy;
+
+    @Nonnull
+    private final ExceptionClassifier exceptionClassifier;
+
+    /**
+     * Creates a new retry strategy.
+     *
+     * @param retriableExceptions the exception classes which are retried.
+     * @param nonRetriableExceptions the exception classes which are never retried, even when they are also an instance
+     *            of one of the retriable classes.
+     * @param causeMatching whether an exception matching neither list is classified by its causes.
+     * @param exceptionHistoryPolicy the policy of which caught exceptions are kept, or <tt>null</tt> to keep all of
+     *            them.
+     */
+    protected ClassifyingRetryStrategy(
+            final ImmutableCollection<Class<? extends Exception>> retriableExceptions,
+            final ImmutableCollection<Class<? extends Exception>> nonRetriableExceptions,
+            boolean causeMatching,
+            @Nullable final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        this.retriableExceptions = retriableExceptions;
+        this.nonRetriableExceptions = nonRetriableExceptions;
+        this.causeMatching = causeMatching;
+        this.exceptionHistoryPolicy = exceptionHistoryPolicy != null
+                ? exceptionHistoryPolicy
+                : ExceptionHistoryPolicy.all();
+        this.exceptionClassifier = ExceptionClassifier.builder()
+                .retriableExceptions(retriableExceptions)
+                .nonRetriableExceptions(nonRetriableExceptions)
+                .causeMatching(causeMatching)
+                .build();
+    }
+
+    @Override
+    public boolean isRetriableException(@Nullable final Exception exception) {
+        return this.exceptionClassifier.isRetriable(exception);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.limiter.ConcurrencyLimiter;
+
+/**
+ * Provides a {@link RetryStrategy} which attaches a {@link ConcurrencyLimiter} to another retry strategy, see
+ * {@link RetryStrategy#withConcurrencyLimiter(ConcurrencyLimiter)}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class ConcurrencyLimiterRetryStrategy extends ForwardingRetryStrategy {
+
+    @Nonnull
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * @param delegate the retry strategy to attach the concurrency limiter to.
+     * @param concurrencyLimiter the concurrency limiter every attempt acquires a permit from.
+     */
+    public ConcurrencyLimiterRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final ConcurrencyLimiter concurrencyLimiter) {
+        super(delegate);
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
+import com.recall.retry.RetriableCallState;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+/**
+ * Provides a retry strategy with decorrelated jitter: each wait time is drawn uniformly between the base delay and three
+ * times the previous wait time, capped at the maximum delay. The wait times grow roughly exponentially, but each one
+ * depends on the previous one instead of on the retry count, which further decorrelates clients that failed together.
+ */
+@Getter
+@ThreadSafe
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class DecorrelatedJitterBackoffRetryStrategy extends ClassifyingRetryStrategy {
+
+    /** The delay, in milliseconds, the first retry is based on. */
+    @Nonnull
+    private final long baseDelay;
+
+    /** The cap, in milliseconds, on the wait time between two attempts, or <tt>0</tt> for 30 seconds. */
+    @Nonnull
+    private final long maximumDelay;
+
+    @Nonnull
+    private final int maximumRetries;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    private DecorrelatedJitterBackoffRetryStrategy(
+            long baseDelay,
+            long maximumDelay,
+            int maximumRetries,
+            @Singular @lombok.Builder.ObtainVia(method = "getRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> retriableExceptions,
+            @Singular @lombok.Builder.ObtainVia(method = "getNonRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> nonRetriableExceptions,
+            @lombok.Builder.ObtainVia(method = "isCauseMatching") boolean causeMatching,
+            @lombok.Builder.ObtainVia(method = "getExceptionHistoryPolicy")
+            @Nullable final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        super(retriableExceptions, nonRetriableExceptions, causeMatching, exceptionHistoryPolicy);
+        this.baseDelay = baseDelay;
+        this.maximumDelay = maximumDelay;
+        this.maximumRetries = maximumRetries;
+    }
+
+    @Override
+    public long getWaitTime(@Nonnull final RetriableCallState<?> callState) {
+        if (callState.getRetryCount() > this.maximumRetries) {
+            return EXHAUSTED;
+        }
+        final long cap = Backoff.capOf(this.maximumDelay);
+        final long previous = Math.max(this.baseDelay, callState.getLastWaitTime());
+        final long bound = previous > cap / 3l ? cap : previous * 3l;
+        return Math.min(cap, Backoff.between(this.baseDelay, bound));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.recall.retry.strategies;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.Getter;
+
+/**
+ * Provides a precompiled classification of exceptions as retriable or not. The verdict for each concrete exception
+ * class is computed once, by walking its hierarchy against the configured classes, and then cached through a
+ * {@link ClassValue}; classifying an exception after that is a single lookup without allocation.
+ * <p>
+ * An exception is retriable when it is an instance of one of the retriable classes and not an instance of any of the
+ * non-retriable classes, which therefore act as a deny-list. When cause matching is enabled, an exception matching
+ * neither list is classified by its causes instead, so a retriable exception wrapped by, for example, an
+ * {@code ExecutionException} is still retried.
+ *
+ * <pre>
+ * final ExceptionClassifier classifier = ExceptionClassifier.builder()
+ *         .retriableException(IOException.class)
+ *         .nonRetriableException(FileNotFoundException.class)
+ *         .causeMatching(true)
+ *         .build();
+ * </pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class ExceptionClassifier {
+
+    /** Limits how far a cause chain is followed, guarding against very long or cyclic chains. */
+    private static final int MAXIMUM_CAUSE_DEPTH = 16;
+
+    private static final ExceptionClassifier NONE =
+            new ExceptionClassifier(ImmutableSet.of(), ImmutableSet.of(), false);
+
+    private enum Verdict {
+        RETRY, DENY, NO_MATCH
+    }
+
+    @Nonnull
+    @Getter
+    private final ImmutableSet<Class<? extends Throwable>> retriableExceptions;
+
+    @Nonnull
+    @Getter
+    private final ImmutableSet<Class<? extends Throwable>> nonRetriableExceptions;
+
+    @Getter
+    private final boolean causeMatching;
+
+    @Nonnull
+    private final ClassValue<Verdict> verdicts = new ClassValue<Verdict>() {
+
+        @Override
+        protected Verdict computeValue(final Class<?> type) {
+            return classify(type);
+        }
+
+    };
+
+    /**
+     * Creates a new exception classifier.
+     *
+     * @param retriableExceptions the exception classes which are retriable.
+     * @param nonRetriableExceptions the exception classes which are never retriable, even when they are also an
+     *            instance of one of the retriable classes.
+     * @param causeMatching whether an exception matching neither list is classified by its causes.
+     */
+    @lombok.Builder(builderClassName = "Builder")
+    private ExceptionClassifier(
+            @lombok.Singular final Collection<Class<? extends Throwable>> retriableExceptions,
+            @lombok.Singular final Collection<Class<? extends Throwable>> nonRetriableExceptions,
+            boolean causeMatching) {
+        this.retriableExceptions = ImmutableSet.copyOf(retriableExceptions);
+        this.nonRetriableExceptions = ImmutableSet.copyOf(nonRetriableExceptions);
+        this.causeMatching = causeMatching;
+    }
+
+    /**
+     * Returns a classifier for which no exception is retriable.
+     *
+     * @return a classifier for which no exception is retriable.
+     */
+    @Nonnull
+    public static ExceptionClassifier none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a classifier for which instances of the specified classes are retriable, without a deny-list or cause
+     * matching.
+     *
+     * @param retriableExceptions the exception classes which are retriable.
+     * @return a classifier for the specified retriable exception classes.
+     */
+    @Nonnull
+    public static ExceptionClassifier of(final Collection<? extends Class<? extends Throwable>> retriableExceptions) {
+        return retriableExceptions.isEmpty()
+                ? NONE
+                : new ExceptionClassifier(ImmutableSet.copyOf(retriableExceptions), ImmutableSet.of(), false);
+    }
+
+    /**
+     * Checks if the specified exception should be retried.
+     *
+     * @param exception the exception to be checked.
+     * @return <tt>true</tt> if the exception is retriable; otherwise, returns <tt>false</tt>.
+     */
+    public boolean isRetriable(@Nullable final Throwable exception) {
+        if (exception == null) {
+            return false;
+        }
+        Verdict verdict = this.verdicts.get(exception.getClass());
+        if (verdict == Verdict.NO_MATCH && this.causeMatching) {
+            Throwable cause = exception.getCause();
+            for (int depth = 0; verdict == Verdict.NO_MATCH && cause != null && depth < MAXIMUM_CAUSE_DEPTH;
+                    depth++) {
+                verdict = this.verdicts.get(cause.getClass());
+                cause = cause.getCause();
+            }
+        }
+        return verdict == Verdict.RETRY;
+    }
+
+    private Verdict classify(final Class<?> type) {
+        for (final Class<? extends Throwable> denied : this.nonRetriableExceptions) {
+            if (denied.isAssignableFrom(type)) {
+                return Verdict.DENY;
+            }
+        }
+        for (final Class<? extends Throwable> retriable : this.retriableExceptions) {
+            if (retriable.isAssignableFrom(type)) {
+                return Verdict.RETRY;
+            }
+        }
+        return Verdict.NO_MATCH;
+    }
+
+}
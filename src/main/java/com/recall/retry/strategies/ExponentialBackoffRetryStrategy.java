@@ -3,26 +3,28 @@ package com.recall.retry.strategies;
 import java.time.Instant;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.ThreadSafe;
 
 import com.google.common.collect.ImmutableSet;
+import com.recall.retry.ExceptionHistoryPolicy;
 import com.recall.retry.RetriableCallState;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Singular;
-import lombok.Value;
+import lombok.ToString;
 
 /**
  * 
  */
-@Value
-@Builder
+@Getter
 @ThreadSafe
-@AllArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
 @ParametersAreNonnullByDefault
-public class ExponentialBackoffRetryStrategy implements RetryStrategy {
+public final class ExponentialBackoffRetryStrategy extends ClassifyingRetryStrategy {
 
     @Nonnull
     private final long maxRetryLapseTime;
@@ -33,25 +35,60 @@ public class ExponentialBackoffRetryStrategy implements RetryStrategy {
     @Nonnull
     private final int maximumRetries;
 
+    /**
+     * Creates a new retry strategy which retries instances of the specified exception classes, without a deny-list or
+     * cause matching, keeping all of the caught exceptions.
+     *
+     * @param maxRetryLapseTime the length of time, in milliseconds, retries may be made for.
+     * @param initialDelay the length of time, in milliseconds, waited before the first retry.
+     * @param maximumRetries the maximum number of retry attempts to make.
+     * @param retriableExceptions the exception classes which are retried.
+     */
+    public ExponentialBackoffRetryStrategy(
+            long maxRetryLapseTime,
+            long initialDelay,
+            int maximumRetries,
+            final ImmutableSet<Class<? extends Exception>> retriableExceptions) {
+        this(maxRetryLapseTime, initialDelay, maximumRetries, retriableExceptions, ImmutableSet.of(), false,
+                ExceptionHistoryPolicy.all());
+    }
+
+    @lombok.Builder
+    private ExponentialBackoffRetryStrategy(
+            long maxRetryLapseTime,
+            long initialDelay,
+            int maximumRetries,
+            @Singular final ImmutableSet<Class<? extends Exception>> retriableExceptions,
+            @Singular final ImmutableSet<Class<? extends Exception>> nonRetriableExceptions,
+            boolean causeMatching,
+            @Nullable final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        super(retriableExceptions, nonRetriableExceptions, causeMatching, exceptionHistoryPolicy);
+        this.maxRetryLapseTime = maxRetryLapseTime;
+        this.initialDelay = initialDelay;
+        this.maximumRetries = maximumRetries;
+    }
+
     @Nonnull
-    @Singular
-    private final ImmutableSet<Class<? extends Exception>> retriableExceptions;
+    @Override
+    public ImmutableSet<Class<? extends Exception>> getRetriableExceptions() {
+        return (ImmutableSet<Class<? extends Exception>>) super.getRetriableExceptions();
+    }
+
+    @Nonnull
+    @Override
+    public ImmutableSet<Class<? extends Exception>> getNonRetriableExceptions() {
+        return (ImmutableSet<Class<? extends Exception>>) super.getNonRetriableExceptions();
+    }
 
     @Override
     public long getWaitTime(@Nonnull final RetriableCallState<?> callState) {
         if (callState.getRetryCount() > this.maximumRetries
                 || Instant.now()
-                        .isBefore(callState.getStartTime().plusMillis(this.maxRetryLapseTime))) {
+                        .isAfter(callState.getStartTime().plusMillis(this.maxRetryLapseTime))) {
             return EXHAUSTED;
         } else {
             return (long) (this.initialDelay * Math.pow(2d, (double) callState.getRetryCount()));
         }
     }
 
-    @Override
-    public boolean isRetriableException(Exception exception) {
-        return !this.retriableExceptions.isEmpty()
-                && this.retriableExceptions.stream().anyMatch(ex -> ex.isInstance(exception));
-    }
-
 }
@@ -0,0 +1,83 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
+import com.recall.retry.RetriableCallState;
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.hedging.HedgingPolicy;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.metrics.RetryMetrics;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Provides a {@link RetryStrategy} which forwards all its method calls to another retry strategy. Subclasses override
+ * only the methods they add behavior to, which lets features such as a {@link CircuitBreaker} be attached to any retry
+ * strategy.
+ */
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@ParametersAreNonnullByDefault
+public abstract class ForwardingRetryStrategy implements RetryStrategy {
+
+    @Nonnull
+    @Getter(AccessLevel.PROTECTED)
+    private final RetryStrategy delegate;
+
+    @Override
+    public long getWaitTime(final RetriableCallState<?> callState) {
+        return this.delegate.getWaitTime(callState);
+    }
+
+    @Override
+    public int getMaximumRetries() {
+        return this.delegate.getMaximumRetries();
+    }
+
+    @Override
+    public ImmutableCollection<Class<? extends Exception>> getRetriableExceptions() {
+        return this.delegate.getRetriableExceptions();
+    }
+
+    @Override
+    public boolean isRetriableException(@Nullable final Exception exception) {
+        return this.delegate.isRetriableException(exception);
+    }
+
+    @Override
+    public ExceptionHistoryPolicy getExceptionHistoryPolicy() {
+        return this.delegate.getExceptionHistoryPolicy();
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return this.delegate.getCircuitBreaker();
+    }
+
+    @Override
+    public RetryBudget getRetryBudget() {
+        return this.delegate.getRetryBudget();
+    }
+
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return this.delegate.getHedgingPolicy();
+    }
+
+    @Override
+    public RetryMetrics getRetryMetrics() {
+        return this.delegate.getRetryMetrics();
+    }
+
+    @Override
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return this.delegate.getConcurrencyLimiter();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
+import com.recall.retry.RetriableCallState;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+/**
+ * Provides an exponential backoff retry strategy with full jitter: each wait time is drawn uniformly between <tt>0</tt>
+ * and the capped exponential delay, <tt>min(maximumDelay, baseDelay * 2^n)</tt>. This spreads the retries of clients
+ * which failed together the most, at the cost of some retries being made almost immediately.
+ */
+@Getter
+@ThreadSafe
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public final class FullJitterBackoffRetryStrategy extends ClassifyingRetryStrategy {
+
+    /** The delay, in milliseconds, the first retry is based on. */
+    @Nonnull
+    private final long baseDelay;
+
+    /** The cap, in milliseconds, on the wait time between two attempts, or <tt>0</tt> for 30 seconds. */
+    @Nonnull
+    private final long maximumDelay;
+
+    @Nonnull
+    private final int maximumRetries;
+
+    @lombok.Builder(builderClassName = "Builder", toBuilder = true)
+    private FullJitterBackoffRetryStrategy(
+            long baseDelay,
+            long maximumDelay,
+            int maximumRetries,
+            @Singular @lombok.Builder.ObtainVia(method = "getRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> retriableExceptions,
+            @Singular @lombok.Builder.ObtainVia(method = "getNonRetriableExceptions")
+            final ImmutableCollection<Class<? extends Exception>> nonRetriableExceptions,
+            @lombok.Builder.ObtainVia(method = "isCauseMatching") boolean causeMatching,
+            @lombok.Builder.ObtainVia(method = "getExceptionHistoryPolicy")
+            @Nullable final ExceptionHistoryPolicy exceptionHistoryPolicy) {
+        super(retriableExceptions, nonRetriableExceptions, causeMatching, exceptionHistoryPolicy);
+        this.baseDelay = baseDelay;
+        this.maximumDelay = maximumDelay;
+        this.maximumRetries = maximumRetries;
+    }
+
+    @Override
+    public long getWaitTime(@Nonnull final RetriableCallState<?> callState) {
+        if (callState.getRetryCount() > this.maximumRetries) {
+            return EXHAUSTED;
+        }
+        final long ceiling = Backoff.exponential(
+                this.baseDelay, Backoff.exponentOf(callState.getRetryCount()), Backoff.capOf(this.maximumDelay));
+        return Backoff.between(0l, ceiling);
+    }
+
+}
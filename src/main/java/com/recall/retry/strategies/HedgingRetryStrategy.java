@@ -0,0 +1,36 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.hedging.HedgingPolicy;
+
+/**
+ * Provides a {@link RetryStrategy} which attaches a {@link HedgingPolicy} to another retry strategy, see
+ * {@link RetryStrategy#withHedgingPolicy(HedgingPolicy)}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class HedgingRetryStrategy extends ForwardingRetryStrategy {
+
+    @Nonnull
+    private final HedgingPolicy hedgingPolicy;
+
+    /**
+     * @param delegate the retry strategy to attach the hedging policy to.
+     * @param hedgingPolicy the hedging policy applied to every attempt.
+     */
+    public HedgingRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final HedgingPolicy hedgingPolicy) {
+        super(delegate);
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    @Override
+    public HedgingPolicy getHedgingPolicy() {
+        return this.hedgingPolicy;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.metrics.RetryMetrics;
+
+/**
+ * Provides a {@link RetryStrategy} which attaches a {@link RetryMetrics} to another retry strategy, see
+ * {@link RetryStrategy#withRetryMetrics(RetryMetrics)}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class MetricsRetryStrategy extends ForwardingRetryStrategy {
+
+    @Nonnull
+    private final RetryMetrics retryMetrics;
+
+    /**
+     * @param delegate the retry strategy to attach the metrics to.
+     * @param retryMetrics the metrics every call is recorded in.
+     */
+    public MetricsRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final RetryMetrics retryMetrics) {
+        super(delegate);
+        this.retryMetrics = retryMetrics;
+    }
+
+    @Override
+    public RetryMetrics getRetryMetrics() {
+        return this.retryMetrics;
+    }
+
+}
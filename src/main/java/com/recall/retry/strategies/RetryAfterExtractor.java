@@ -0,0 +1,58 @@
+package com.recall.retry.strategies;
+
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Extracts the length of time a dependency asked to wait before being called again, such as the retry-after value of
+ * a throttling error, from the exception thrown by a failed attempt. See
+ * {@link RetryStrategy#withRetryAfter(RetryAfterExtractor, long, long)}.
+ *
+ * <pre>
+ * final RetryAfterExtractor retryAfter = RetryAfterExtractor.ofType(ThrottledException.class,
+ *         throttled -&gt; throttled.getRetryAfterSeconds() * 1000);
+ * </pre>
+ */
+@FunctionalInterface
+@ParametersAreNonnullByDefault
+public interface RetryAfterExtractor {
+
+    /** Returned by {@link #getWaitTime(Exception)} when the exception holds no wait hint. */
+    public static final long NO_HINT = -1l;
+
+    /**
+     * Returns the length of time to wait, in milliseconds, hinted by the specified exception.
+     * 
+     * @param exception the exception thrown by the latest failed attempt.
+     * @return the hinted length of time to wait, in milliseconds, or {@link #NO_HINT} if the exception holds no hint.
+     */
+    long getWaitTime(@Nonnull final Exception exception);
+
+    /**
+     * Returns an extractor reading the hint from the first exception of the specified type in the cause chain of the
+     * failed attempt's exception, starting with the exception itself.
+     * 
+     * @param type the type of exception holding the hint.
+     * @param waitTime the function reading the hinted length of time to wait, in milliseconds, or {@link #NO_HINT},
+     *            from an exception of the specified type.
+     * @return a new extractor.
+     */
+    @Nonnull
+    static <E extends Throwable> RetryAfterExtractor ofType(
+            @Nonnull final Class<E> type,
+            @Nonnull final ToLongFunction<? super E> waitTime) {
+        return exception -> {
+            Throwable cause = exception;
+            for (int depth = 0; cause != null && depth < RetryAfterRetryStrategy.MAXIMUM_CAUSE_DEPTH; depth++) {
+                if (type.isInstance(cause)) {
+                    return waitTime.applyAsLong(type.cast(cause));
+                }
+                cause = cause.getCause();
+            }
+            return NO_HINT;
+        };
+    }
+
+}
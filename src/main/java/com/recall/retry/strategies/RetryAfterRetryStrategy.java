@@ -0,0 +1,71 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.RetriableCallState;
+
+import lombok.Getter;
+
+/**
+ * Provides a {@link RetryStrategy} which waits as long as the dependency asked before each retry, see
+ * {@link RetryStrategy#withRetryAfter(RetryAfterExtractor, long, long)}.
+ * <p>
+ * The wait hint is read from the exception of the latest failed attempt with a {@link RetryAfterExtractor} and bounded
+ * by the minimum and maximum wait times. When the exception holds no hint, the wait time of the other retry strategy
+ * is used. When the other strategy returns {@link RetryStrategy#EXHAUSTED} the call fails without another retry,
+ * whatever the hint.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryAfterRetryStrategy extends ForwardingRetryStrategy {
+
+    /** Bounds how far down a cause chain a wait hint is looked for. */
+    static final int MAXIMUM_CAUSE_DEPTH = 16;
+
+    @Nonnull
+    private final RetryAfterExtractor retryAfterExtractor;
+
+    @Getter
+    private final long minimumWaitTime;
+
+    @Getter
+    private final long maximumWaitTime;
+
+    /**
+     * @param delegate the retry strategy whose wait time is used when there is no hint.
+     * @param retryAfterExtractor the extractor reading the wait hint from the latest exception.
+     * @param minimumWaitTime the shortest hinted wait, in milliseconds.
+     * @param maximumWaitTime the longest hinted wait, in milliseconds.
+     */
+    public RetryAfterRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final RetryAfterExtractor retryAfterExtractor,
+            long minimumWaitTime,
+            long maximumWaitTime) {
+        super(delegate);
+        if (minimumWaitTime < 0 || maximumWaitTime < minimumWaitTime) {
+            throw new IllegalArgumentException("Invalid wait time bounds: minimum=" + minimumWaitTime + ", maximum="
+                    + maximumWaitTime);
+        }
+        this.retryAfterExtractor = retryAfterExtractor;
+        this.minimumWaitTime = minimumWaitTime;
+        this.maximumWaitTime = maximumWaitTime;
+    }
+
+    @Override
+    public long getWaitTime(@Nonnull final RetriableCallState<?> callState) {
+        final long waitTime = super.getWaitTime(callState);
+        final Exception lastException = callState.getLastException();
+        if (waitTime == EXHAUSTED || lastException == null) {
+            return waitTime;
+        }
+        final long hint = this.retryAfterExtractor.getWaitTime(lastException);
+        if (hint < 0) {
+            return waitTime;
+        }
+        return Math.min(this.maximumWaitTime, Math.max(this.minimumWaitTime, hint));
+    }
+
+}
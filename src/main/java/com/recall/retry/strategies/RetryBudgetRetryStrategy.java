@@ -0,0 +1,36 @@
+package com.recall.retry.strategies;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.recall.retry.budget.RetryBudget;
+
+/**
+ * Provides a {@link RetryStrategy} which attaches a {@link RetryBudget} to another retry strategy, see
+ * {@link RetryStrategy#withRetryBudget(RetryBudget)}.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class RetryBudgetRetryStrategy extends ForwardingRetryStrategy {
+
+    @Nonnull
+    private final RetryBudget retryBudget;
+
+    /**
+     * @param delegate the retry strategy to attach the retry budget to.
+     * @param retryBudget the retry budget every retry is withdrawn from.
+     */
+    public RetryBudgetRetryStrategy(
+            @Nonnull final RetryStrategy delegate,
+            @Nonnull final RetryBudget retryBudget) {
+        super(delegate);
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public RetryBudget getRetryBudget() {
+        return this.retryBudget;
+    }
+
+}
@@ -4,17 +4,27 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableCollection;
+import com.recall.retry.ExceptionHistoryPolicy;
 import com.recall.retry.RetriableCallState;
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.hedging.HedgingPolicy;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.metrics.RetryMetrics;
 
 public interface RetryStrategy {
 
+    /**
+     * The wait time returned when no further retry may be made, failing the call with an
+     * {@link com.recall.retry.exceptions.ExhuastedRetriesException}.
+     */
     public static final long EXHAUSTED = -1l;
 
     /**
      * Returns the length of time to wait, in milliseconds, based on the retry attempt.
      * 
      * @param callState the current retriable call state.
-     * @return the length of time to wait, in milliseconds.
+     * @return the length of time to wait, in milliseconds, or {@link #EXHAUSTED} if no further retry may be made.
      */
     long getWaitTime(@Nonnull final RetriableCallState<?> callState);
 
@@ -42,4 +52,145 @@ public interface RetryStrategy {
      */
     boolean isRetriableException(@Nullable final Exception exception);
 
-}
\ No newline at end of file
+    /**
+     * Returns the policy for which of the caught retriable exceptions are kept while retrying a call. By default all of
+     * them are kept, without capturing stack traces for the wrapping exceptions.
+     * 
+     * @return the policy for which of the caught retriable exceptions are kept.
+     */
+    @Nonnull
+    default ExceptionHistoryPolicy getExceptionHistoryPolicy() {
+        return ExceptionHistoryPolicy.all();
+    }
+
+    /**
+     * Returns the {@link CircuitBreaker} consulted before every attempt made with this strategy, if any.
+     * 
+     * @return the {@code CircuitBreaker} of this strategy, or <tt>null</tt> if it has none.
+     */
+    @Nullable
+    default CircuitBreaker getCircuitBreaker() {
+        return null;
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy with the specified {@link CircuitBreaker} attached.
+     * 
+     * @param circuitBreaker the circuit breaker consulted before every attempt.
+     * @return a retry strategy with the circuit breaker attached.
+     */
+    @Nonnull
+    default RetryStrategy withCircuitBreaker(@Nonnull final CircuitBreaker circuitBreaker) {
+        return new CircuitBreakerRetryStrategy(this, circuitBreaker);
+    }
+
+    /**
+     * Returns the {@link RetryBudget} from which every retry made with this strategy is withdrawn, if any.
+     * 
+     * @return the {@code RetryBudget} of this strategy, or <tt>null</tt> if its retries are not budgeted.
+     */
+    @Nullable
+    default RetryBudget getRetryBudget() {
+        return null;
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy with its retries limited by the specified
+     * {@link RetryBudget}.
+     * 
+     * @param retryBudget the retry budget, usually shared with other strategies calling the same dependency.
+     * @return a retry strategy with the retry budget attached.
+     */
+    @Nonnull
+    default RetryStrategy withRetryBudget(@Nonnull final RetryBudget retryBudget) {
+        return new RetryBudgetRetryStrategy(this, retryBudget);
+    }
+
+    /**
+     * Returns the {@link HedgingPolicy} applied to every attempt made with this strategy, if any. Hedging applies to
+     * attempts run on an executor, such as those of a {@link com.recall.retry.RetriableExecution}.
+     * 
+     * @return the {@code HedgingPolicy} of this strategy, or <tt>null</tt> if its attempts are not hedged.
+     */
+    @Nullable
+    default HedgingPolicy getHedgingPolicy() {
+        return null;
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy with its attempts hedged per the specified
+     * {@link HedgingPolicy}. Only idempotent calls should be hedged.
+     * 
+     * @param hedgingPolicy the hedging policy applied to every attempt.
+     * @return a retry strategy with the hedging policy attached.
+     */
+    @Nonnull
+    default RetryStrategy withHedgingPolicy(@Nonnull final HedgingPolicy hedgingPolicy) {
+        return new HedgingRetryStrategy(this, hedgingPolicy);
+    }
+
+    /**
+     * Returns the {@link RetryMetrics} every call made with this strategy is recorded in, if any.
+     * 
+     * @return the {@code RetryMetrics} of this strategy, or <tt>null</tt> if its calls are not measured.
+     */
+    @Nullable
+    default RetryMetrics getRetryMetrics() {
+        return null;
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy with its calls recorded in the specified
+     * {@link RetryMetrics}.
+     * 
+     * @param retryMetrics the metrics every call is recorded in.
+     * @return a retry strategy with the metrics attached.
+     */
+    @Nonnull
+    default RetryStrategy withRetryMetrics(@Nonnull final RetryMetrics retryMetrics) {
+        return new MetricsRetryStrategy(this, retryMetrics);
+    }
+
+    /**
+     * Returns the {@link ConcurrencyLimiter} from which every attempt made with this strategy acquires a permit, if
+     * any.
+     * 
+     * @return the {@code ConcurrencyLimiter} of this strategy, or <tt>null</tt> if its attempts are not limited.
+     */
+    @Nullable
+    default ConcurrencyLimiter getConcurrencyLimiter() {
+        return null;
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy with the number of its attempts in flight limited by the
+     * specified {@link ConcurrencyLimiter}.
+     * 
+     * @param concurrencyLimiter the concurrency limiter, usually shared with other strategies calling the same
+     *            dependency.
+     * @return a retry strategy with the concurrency limiter attached.
+     */
+    @Nonnull
+    default RetryStrategy withConcurrencyLimiter(@Nonnull final ConcurrencyLimiter concurrencyLimiter) {
+        return new ConcurrencyLimiterRetryStrategy(this, concurrencyLimiter);
+    }
+
+    /**
+     * Returns a retry strategy which behaves as this strategy but, when the exception of the latest failed attempt
+     * holds a wait hint such as a retry-after value, waits as long as hinted before the next retry. The hint is bounded
+     * by the specified minimum and maximum; without a hint the wait time of this strategy is used.
+     * 
+     * @param retryAfterExtractor the extractor reading the wait hint from the latest exception.
+     * @param minimumWaitTime the shortest hinted wait, in milliseconds.
+     * @param maximumWaitTime the longest hinted wait, in milliseconds.
+     * @return a retry strategy honouring wait hints.
+     */
+    @Nonnull
+    default RetryStrategy withRetryAfter(
+            @Nonnull final RetryAfterExtractor retryAfterExtractor,
+            long minimumWaitTime,
+            long maximumWaitTime) {
+        return new RetryAfterRetryStrategy(this, retryAfterExtractor, minimumWaitTime, maximumWaitTime);
+    }
+
+}
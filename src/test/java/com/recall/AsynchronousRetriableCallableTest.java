@@ -0,0 +1,133 @@
+package com.recall;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class AsynchronousRetriableCallableTest {
+
+    private static final Object TEST_VALUE = "TestStringObject";
+    private static int MAXIMUM_RETRIES = 5;
+    private static long WAIT_TIME_BETWEEN_RETRIES = 10l;
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(MAXIMUM_RETRIES)
+            .waitTime(WAIT_TIME_BETWEEN_RETRIES)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    @Mock
+    private Callable<Object> callable;
+
+    private AsynchronousRetriableCallable<Object> asyncCaller;
+
+    @Before
+    public void before() {
+        MockitoAnnotations.initMocks(this);
+        this.asyncCaller = AsynchronousRetriableCallable.builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(this.callable)
+                .build();
+    }
+
+    @Test
+    public void testSuccessfulCall() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenReturn(TEST_VALUE);
+        Assert.assertEquals(TEST_VALUE, this.asyncCaller.callAsync().get(5, TimeUnit.SECONDS));
+        Mockito.verify(this.callable, Mockito.times(1)).call();
+    }
+
+    @Test
+    public void testSuccessfulCallAfterRetries() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenThrow(TimeoutException.class)
+                .thenThrow(TimeoutException.class)
+                .thenReturn(TEST_VALUE);
+        Assert.assertEquals(TEST_VALUE, this.asyncCaller.callAsync().get(5, TimeUnit.SECONDS));
+        Mockito.verify(this.callable, Mockito.times(4)).call();
+    }
+
+    @Test
+    public void testFailedCallAfterRetriesWrappedException() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenThrow(BedException.class);
+        try {
+            this.asyncCaller.callAsync().get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected a non-retriable exception");
+        } catch (final ExecutionException ex) {
+            Mockito.verify(this.callable, Mockito.times(2)).call();
+            Assert.assertTrue(NonRetriableException.class.isInstance(ex.getCause()));
+            Assert.assertTrue(BedException.class.isInstance(ex.getCause().getCause()));
+        }
+    }
+
+    @Test
+    public void testExhuastedRetries() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class);
+        try {
+            this.asyncCaller.callAsync().get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected retries to be exhausted");
+        } catch (final ExecutionException ex) {
+            Mockito.verify(this.callable, Mockito.times(MAXIMUM_RETRIES)).call();
+            Assert.assertTrue(ExhuastedRetriesException.class.isInstance(ex.getCause()));
+            Assert.assertEquals(MAXIMUM_RETRIES,
+                    ((ExhuastedRetriesException) ex.getCause()).getRetryExceptions().size());
+        }
+    }
+
+    @Test
+    public void testCallReportsOutcomeToConsumers() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenReturn(TEST_VALUE);
+        final CompletableFuture<Object> success = new CompletableFuture<>();
+        final AsynchronousRetriableCallable<Object> caller = this.asyncCaller.toBuilder()
+                .onSuccess(success::complete)
+                .onFailure(success::completeExceptionally)
+                .build();
+        Assert.assertTrue(caller.call());
+        Assert.assertEquals(TEST_VALUE, success.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedConstructorMakesSingleAttempt() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenReturn(TEST_VALUE);
+        final CompletableFuture<Object> failure = new CompletableFuture<>();
+        final AsynchronousRetriableCallable<Object> caller = new AsynchronousRetriableCallable<>(
+                this.callable, failure::complete, failure::completeExceptionally);
+        Assert.assertTrue(caller.call());
+        try {
+            failure.get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected a non-retriable exception");
+        } catch (final ExecutionException ex) {
+            Mockito.verify(this.callable, Mockito.times(1)).call();
+            Assert.assertTrue(NonRetriableException.class.isInstance(ex.getCause()));
+            Assert.assertTrue(TimeoutException.class.isInstance(ex.getCause().getCause()));
+        }
+    }
+
+    private class BedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+}
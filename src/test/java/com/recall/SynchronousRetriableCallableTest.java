@@ -1,7 +1,10 @@
 package com.recall;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -10,9 +13,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import com.recall.retry.exceptions.DeadlineExceededException;
 import com.recall.retry.exceptions.ExhuastedRetriesException;
 import com.recall.retry.exceptions.NonRetriableException;
 import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.ExponentialBackoffRetryStrategy;
 import com.recall.retry.strategies.RetryStrategy;
 
 public class SynchronousRetriableCallableTest {
@@ -101,6 +106,98 @@ public class SynchronousRetriableCallableTest {
         }
     }
 
+    @Test
+    public void testTimedOutAttemptIsInterrupted() throws Exception {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final AtomicInteger calls = new AtomicInteger();
+        final SynchronousRetriableCallable<Object> caller = SynchronousRetriableCallable.builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        } catch (final InterruptedException ex) {
+                            interrupted.set(true);
+                        }
+                    }
+                    return TEST_VALUE;
+                })
+                .attemptTimeout(50l)
+                .build();
+        Assert.assertEquals(TEST_VALUE, caller.call());
+        Assert.assertTrue(interrupted.get());
+        Assert.assertEquals(2, calls.get());
+        Assert.assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testTimedOutRetryIsInterrupted() throws Exception {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final AtomicInteger calls = new AtomicInteger();
+        final SynchronousRetriableCallable<Object> caller = SynchronousRetriableCallable.builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    final int call = calls.incrementAndGet();
+                    if (call == 1) {
+                        throw new TimeoutException();
+                    } else if (call == 2) {
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        } catch (final InterruptedException ex) {
+                            interrupted.set(true);
+                        }
+                    }
+                    return TEST_VALUE;
+                })
+                .attemptTimeout(50l)
+                .build();
+        Assert.assertEquals(TEST_VALUE, caller.call());
+        Assert.assertTrue(interrupted.get());
+        Assert.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testDeadlineClampsBackoff() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class);
+        final SynchronousRetriableCallable<Object> caller = this.syncCaller.toBuilder()
+                .deadline(250l)
+                .build();
+        final long start = System.nanoTime();
+        try {
+            caller.call();
+            Assert.fail("Expected the deadline to be exceeded");
+        } catch (final DeadlineExceededException dee) {
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 250l);
+            Assert.assertEquals(Mockito.mockingDetails(this.callable).getInvocations().size(),
+                    dee.getRetryExceptions().size());
+        }
+    }
+
+    @Test
+    public void testSlowFirstAttemptCountsTowardsRetryLapseTime() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenAnswer(invocation -> {
+                    Thread.sleep(200l);
+                    throw new TimeoutException();
+                })
+                .thenReturn(TEST_VALUE);
+        final SynchronousRetriableCallable<Object> caller = this.syncCaller.toBuilder()
+                .retryStrategy(ExponentialBackoffRetryStrategy.builder()
+                        .maxRetryLapseTime(100l)
+                        .initialDelay(10l)
+                        .maximumRetries(MAXIMUM_RETRIES)
+                        .retriableException(TimeoutException.class)
+                        .build())
+                .build();
+        try {
+            caller.call();
+            Assert.fail("Expected the retry lapse time to be exhausted");
+        } catch (final ExhuastedRetriesException ere) {
+            Mockito.verify(this.callable, Mockito.times(1)).call();
+        }
+    }
+
     private class BedException extends RuntimeException {
         private static final long serialVersionUID = 1L;
     }
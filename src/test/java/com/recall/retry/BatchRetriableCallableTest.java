@@ -0,0 +1,249 @@
+package com.recall.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.exceptions.CircuitBreakerOpenException;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class BatchRetriableCallableTest {
+
+    private static final int MAXIMUM_RETRIES = 3;
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(MAXIMUM_RETRIES)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    @Test
+    public void testOnlyFailedItemsAreRetried() throws Exception {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final BatchResult<Integer, String> result = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .batchCallable(items -> {
+                    batches.add(ImmutableList.copyOf(items));
+                    final BatchOutcome.Builder<Integer, String> outcome = BatchOutcome.builder();
+                    for (final Integer item : items) {
+                        if (item % 2 == 0 && batches.size() == 1) {
+                            outcome.failure(item, new TimeoutException());
+                        } else {
+                            outcome.success(item, "item-" + item);
+                        }
+                    }
+                    return outcome.build();
+                })
+                .items(ImmutableList.of(1, 2, 3, 4))
+                .build()
+                .call();
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(4, result.getSuccesses().size());
+        Assert.assertEquals("item-4", result.getSuccesses().get(4));
+        Assert.assertEquals(ImmutableList.of(ImmutableList.of(1, 2, 3, 4), ImmutableList.of(2, 4)), batches);
+    }
+
+    @Test
+    public void testRetriesMergeWithUnsentItems() throws Exception {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final BatchResult<Integer, String> result = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(BasicRetryStrategy.builder()
+                        .maximumRetries(MAXIMUM_RETRIES)
+                        .retriableException(TimeoutException.class)
+                        .build())
+                .batchCallable(items -> {
+                    batches.add(ImmutableList.copyOf(items));
+                    final BatchOutcome.Builder<Integer, String> outcome = BatchOutcome.builder();
+                    for (final Integer item : items) {
+                        if (item == 1 && batches.size() == 1) {
+                            outcome.failure(item, new TimeoutException());
+                        } else {
+                            outcome.success(item, "item-" + item);
+                        }
+                    }
+                    return outcome.build();
+                })
+                .items(ImmutableList.of(1, 2, 3, 4))
+                .maximumBatchSize(2)
+                .build()
+                .call();
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(ImmutableList.of(ImmutableList.of(1, 2), ImmutableList.of(1, 3), ImmutableList.of(4)),
+                batches);
+    }
+
+    @Test
+    public void testPerItemExhaustionAndNonRetriable() throws Exception {
+        final BatchResult<String, String> result = BatchRetriableCallable.<String, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .batchCallable(items -> {
+                    final BatchOutcome.Builder<String, String> outcome = BatchOutcome.builder();
+                    for (final String item : items) {
+                        if (item.equals("flaky")) {
+                            outcome.failure(item, new TimeoutException());
+                        } else if (item.equals("broken")) {
+                            outcome.failure(item, new IllegalStateException());
+                        } else if (item.equals("ok")) {
+                            outcome.success(item, item.toUpperCase());
+                        }
+                    }
+                    return outcome.build();
+                })
+                .item("ok")
+                .item("flaky")
+                .item("broken")
+                .item("unreported")
+                .build()
+                .call();
+
+        Assert.assertFalse(result.isSuccessful());
+        Assert.assertEquals("OK", result.getSuccesses().get("ok"));
+        Assert.assertEquals(3, result.getFailures().size());
+        final ExhuastedRetriesException exhausted = (ExhuastedRetriesException) result.getFailures().get("flaky");
+        Assert.assertEquals(MAXIMUM_RETRIES, exhausted.getRetryExceptions().size());
+        Assert.assertTrue(result.getFailures().get("broken") instanceof NonRetriableException);
+        Assert.assertTrue(result.getFailures().get("unreported") instanceof NonRetriableException);
+    }
+
+    @Test
+    public void testBatchExceptionAppliesToEveryItem() throws Exception {
+        final int[] calls = new int[1];
+        final BatchResult<Integer, Integer> result = BatchRetriableCallable.<Integer, Integer> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .batchCallable(items -> {
+                    if (calls[0]++ == 0) {
+                        throw new TimeoutException();
+                    }
+                    final BatchOutcome.Builder<Integer, Integer> outcome = BatchOutcome.builder();
+                    items.forEach(item -> outcome.success(item, item * 10));
+                    return outcome.build();
+                })
+                .items(ImmutableList.of(1, 2))
+                .build()
+                .call();
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(2, calls[0]);
+        Assert.assertEquals(Integer.valueOf(20), result.getSuccesses().get(2));
+    }
+
+    @Test
+    public void testRejectedBatchIsNotSent() throws Exception {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(1)
+                .failureRateThreshold(0.5)
+                .openDurationMillis(60_000l)
+                .build();
+        final BatchResult<Integer, String> result = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY.withCircuitBreaker(circuitBreaker))
+                .batchCallable(items -> {
+                    batches.add(ImmutableList.copyOf(items));
+                    final BatchOutcome.Builder<Integer, String> outcome = BatchOutcome.builder();
+                    items.forEach(item -> outcome.failure(item, new TimeoutException()));
+                    return outcome.build();
+                })
+                .items(ImmutableList.of(1, 2, 3, 4))
+                .maximumBatchSize(2)
+                .build()
+                .call();
+
+        Assert.assertEquals(ImmutableList.of(ImmutableList.of(1, 2)), batches);
+        Assert.assertEquals(4, result.getFailures().size());
+        for (final RuntimeException failure : result.getFailures().values()) {
+            Assert.assertTrue(failure instanceof CircuitBreakerOpenException);
+        }
+        Assert.assertTrue(result.getFailures().get(1).getCause() instanceof TimeoutException);
+    }
+
+    @Test
+    public void testBatchIsOneCircuitBreakerOutcome() throws Exception {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .openDurationMillis(60_000l)
+                .build();
+        final BatchResult<Integer, String> result = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(BasicRetryStrategy.builder()
+                        .maximumRetries(1)
+                        .retriableException(TimeoutException.class)
+                        .build()
+                        .withCircuitBreaker(circuitBreaker))
+                .batchCallable(items -> {
+                    final BatchOutcome.Builder<Integer, String> outcome = BatchOutcome.builder();
+                    items.forEach(item -> outcome.failure(item, new TimeoutException()));
+                    return outcome.build();
+                })
+                .items(ImmutableList.of(1, 2, 3, 4))
+                .build()
+                .call();
+
+        Assert.assertEquals(4, result.getFailures().size());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testErrorReleasesCircuitBreakerPermission() throws Exception {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(1)
+                .openDurationMillis(10l)
+                .halfOpenPermits(1)
+                .build();
+        circuitBreaker.onFailure();
+        Thread.sleep(20l);
+        final BatchRetriableCallable<Integer, String> caller = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY.withCircuitBreaker(circuitBreaker))
+                .batchCallable(items -> {
+                    throw new AssertionError();
+                })
+                .items(ImmutableList.of(1, 2))
+                .build();
+        try {
+            caller.call();
+            Assert.fail("Expected the error to be rethrown");
+        } catch (final AssertionError expected) {
+            // expected
+        }
+
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testMissingOutcomeFailsBatchAndReleasesCircuitBreakerPermission() throws Exception {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(1)
+                .openDurationMillis(10l)
+                .halfOpenPermits(1)
+                .build();
+        circuitBreaker.onFailure();
+        Thread.sleep(20l);
+        final BatchRetriableCallable<Integer, String> caller = BatchRetriableCallable.<Integer, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY.withCircuitBreaker(circuitBreaker))
+                .batchCallable(items -> null)
+                .items(ImmutableList.of(1, 2))
+                .build();
+
+        final BatchResult<Integer, String> result = caller.call();
+
+        Assert.assertTrue(result.getSuccesses().isEmpty());
+        Assert.assertTrue(result.getFailures().get(1) instanceof NonRetriableException);
+        Assert.assertTrue(result.getFailures().get(2) instanceof NonRetriableException);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+}
@@ -2,6 +2,7 @@ package com.recall.retry;
 
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -10,7 +11,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import com.recall.retry.budget.RetryBudget;
+import com.recall.retry.circuitbreaker.CircuitBreaker;
+import com.recall.retry.exceptions.DeadlineExceededException;
 import com.recall.retry.exceptions.RetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
 
 public class RetriableCallStateTest {
 
@@ -54,4 +60,110 @@ public class RetriableCallStateTest {
 
     }
 
+    @Test
+    public void testLastNCaughtExceptions() {
+        final RetriableCallState<?> boundedState =
+                new RetriableCallState<>(this.mockCallable, ExceptionHistoryPolicy.lastN(2));
+        for (int count = 0; count < 5; count++) {
+            boundedState.addCaughtRetriableException(new RetriableException("Attempt " + count, count));
+        }
+        final List<RetriableException> caught = boundedState.getCaughtRetriableExceptions();
+        Assert.assertEquals(2, caught.size());
+        Assert.assertEquals(3, caught.get(0).getRetryCount());
+        Assert.assertEquals(4, caught.get(1).getRetryCount());
+    }
+
+    @Test
+    public void testNoCaughtExceptionsKept() {
+        final RetriableCallState<?> noneState =
+                new RetriableCallState<>(this.mockCallable, ExceptionHistoryPolicy.none());
+        noneState.addCaughtRetriableException(new RetriableException("Attempt 0", 0));
+        Assert.assertTrue(noneState.getCaughtRetriableExceptions().isEmpty());
+    }
+
+    @Test
+    public void testRejectionCausedByLastExceptionWhenNoneKept() {
+        final RetriableCallState<?> noneState =
+                new RetriableCallState<>(this.mockCallable, ExceptionHistoryPolicy.none());
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(0l)
+                .retriableException(TimeoutException.class)
+                .exceptionHistoryPolicy(ExceptionHistoryPolicy.none())
+                .build();
+        final TimeoutException timeout = new TimeoutException();
+        Assert.assertNull(noneState.recordFailure(retryStrategy, timeout));
+        Assert.assertSame(timeout, noneState.rejected(CircuitBreaker.builder().build()).getCause());
+    }
+
+    @Test
+    public void testRecordedExceptionsSkipStackTraces() {
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(0l)
+                .retriableException(TimeoutException.class)
+                .build();
+        Assert.assertNull(this.callState.recordFailure(retryStrategy, new TimeoutException()));
+        final RetriableException caught = this.callState.getCaughtRetriableExceptions().get(0);
+        Assert.assertEquals(0, caught.getStackTrace().length);
+        Assert.assertTrue(caught.getCause().getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testTimeoutCountsAsCircuitBreakerFailure() {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumCalls(2)
+                .failureRateThreshold(0.5)
+                .build();
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(0l)
+                .retriableException(IllegalStateException.class)
+                .build()
+                .withCircuitBreaker(circuitBreaker);
+        for (int ndx = 0; ndx < 2; ndx++) {
+            Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+            Assert.assertNotNull(this.callState.recordFailure(retryStrategy, new TimeoutException()));
+        }
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testNonRetriableExceptionReleasesCircuitBreakerPermission() throws Exception {
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .minimumCalls(1)
+                .openDurationMillis(10l)
+                .halfOpenPermits(1)
+                .build();
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(0l)
+                .retriableException(TimeoutException.class)
+                .build()
+                .withCircuitBreaker(circuitBreaker);
+        circuitBreaker.onFailure();
+        Thread.sleep(20l);
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assert.assertNotNull(this.callState.recordFailure(retryStrategy, new IllegalArgumentException()));
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testDeadlineCheckedBeforeRetryBudget() {
+        final RetryBudget retryBudget = RetryBudget.builder()
+                .maximumTokens(10)
+                .build();
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(50l)
+                .retriableException(TimeoutException.class)
+                .build()
+                .withRetryBudget(retryBudget);
+        final long availableRetries = retryBudget.getAvailableRetries();
+        Assert.assertTrue(this.callState.recordFailure(retryStrategy, new TimeoutException(), 100l, 10l)
+                instanceof DeadlineExceededException);
+        Assert.assertEquals(availableRetries, retryBudget.getAvailableRetries());
+    }
+
 }
@@ -0,0 +1,59 @@
+package com.recall.retry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.recall.SynchronousRetriableCallable;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+/**
+ * Measures the bytes allocated by the calling thread for {@link SynchronousRetriableCallable#call()} when the first
+ * attempt succeeds, with the callable built with its defaults.
+ */
+public class RetriableCallableAllocationTest {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 100_000;
+    private static final Object TEST_VALUE = "TestStringObject";
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(5)
+            .waitTime(100l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private final SynchronousRetriableCallable<Object> retriableCallable = SynchronousRetriableCallable.builder()
+            .retryStrategy(TEST_RETRY_STRATEGY)
+            .callable(() -> TEST_VALUE)
+            .build();
+
+    @Test
+    public void testFirstAttemptSuccessDoesNotAllocate() throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        for (int ndx = 0; ndx < WARMUP_CALLS; ndx++) {
+            this.retriableCallable.call();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int ndx = 0; ndx < MEASURED_CALLS; ndx++) {
+            this.retriableCallable.call();
+        }
+        final long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        // allow for the bookkeeping of the measurement itself, but not for a single allocation per call.
+        Assert.assertTrue("Allocated " + allocated + " bytes for " + MEASURED_CALLS + " calls",
+                allocated < MEASURED_CALLS);
+    }
+
+}
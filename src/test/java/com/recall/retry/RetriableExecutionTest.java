@@ -0,0 +1,194 @@
+package com.recall.retry;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.scheduling.ScheduledRetry;
+import com.recall.retry.scheduling.TimingWheelRetryScheduler;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetriableExecutionTest {
+
+    private static final Object TEST_VALUE = "TestStringObject";
+    private static int MAXIMUM_RETRIES = 3;
+    private static long WAIT_TIME_BETWEEN_RETRIES = 100l;
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(MAXIMUM_RETRIES)
+            .waitTime(WAIT_TIME_BETWEEN_RETRIES)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    @Mock
+    private Callable<Object> callable;
+
+    @Mock
+    private RetryScheduler scheduler;
+
+    private final ConcurrentLinkedQueue<Runnable> scheduledTasks = new ConcurrentLinkedQueue<>();
+
+    @Before
+    public void before() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(this.scheduler.schedule(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    this.scheduledTasks.offer(invocation.getArgument(0));
+                    return Mockito.mock(ScheduledRetry.class);
+                });
+    }
+
+    private CompletableFuture<Object> start() {
+        return RetriableExecution.<Object> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(this.callable)
+                .executor(Runnable::run)
+                .scheduler(this.scheduler)
+                .build()
+                .start();
+    }
+
+    @Test
+    public void testSuccessfulCall() throws Exception {
+        Mockito.when(this.callable.call()).thenReturn(TEST_VALUE);
+        Assert.assertEquals(TEST_VALUE, start().get());
+        Mockito.verifyZeroInteractions(this.scheduler);
+    }
+
+    @Test
+    public void testRetryIsScheduledWithoutHoldingThread() throws Exception {
+        Mockito.when(this.callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenReturn(TEST_VALUE);
+        final CompletableFuture<Object> answer = start();
+
+        Assert.assertFalse(answer.isDone());
+        Mockito.verify(this.callable, Mockito.times(1)).call();
+        Mockito.verify(this.scheduler).schedule(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.eq(WAIT_TIME_BETWEEN_RETRIES),
+                ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+
+        this.scheduledTasks.poll().run();
+        Assert.assertEquals(TEST_VALUE, answer.get());
+        Mockito.verify(this.callable, Mockito.times(2)).call();
+    }
+
+    @Test
+    public void testExhuastedRetries() throws Exception {
+        Mockito.when(this.callable.call()).thenThrow(TimeoutException.class);
+        final CompletableFuture<Object> answer = start();
+        while (!this.scheduledTasks.isEmpty()) {
+            this.scheduledTasks.poll().run();
+        }
+        try {
+            answer.get();
+            Assert.fail("Expected retries to be exhausted");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ExhuastedRetriesException);
+            Assert.assertEquals(MAXIMUM_RETRIES, ((ExhuastedRetriesException) ex.getCause()).getRetryExceptions().size());
+        }
+        Mockito.verify(this.callable, Mockito.times(MAXIMUM_RETRIES)).call();
+    }
+
+    @Test
+    public void testNonRetriableException() throws Exception {
+        Mockito.when(this.callable.call()).thenThrow(IllegalStateException.class);
+        try {
+            start().get();
+            Assert.fail("Expected a non-retriable exception");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof NonRetriableException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+        }
+        Mockito.verifyZeroInteractions(this.scheduler);
+    }
+
+    @Test
+    public void testSchedulerShutdownFailsCallInBackoff() throws Exception {
+        final RetryScheduler timingWheel = TimingWheelRetryScheduler.builder().build();
+        Mockito.when(this.callable.call()).thenThrow(TimeoutException.class);
+        final CompletableFuture<Object> answer = RetriableExecution.<Object> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(this.callable)
+                .executor(Runnable::run)
+                .scheduler(timingWheel)
+                .build()
+                .start();
+        Mockito.verify(this.callable, Mockito.times(1)).call();
+        Assert.assertFalse(answer.isDone());
+
+        timingWheel.shutdown();
+        try {
+            answer.get(1, TimeUnit.SECONDS);
+            Assert.fail("Expected the call to fail once its scheduler was shut down");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof NonRetriableException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+        }
+        Mockito.verify(this.callable, Mockito.times(1)).call();
+    }
+
+    @Test
+    public void testSlowAttemptDoesNotUnregisterTimedOutRetry() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean retryInterrupted = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CompletableFuture<Object> answer = RetriableExecution.<Object> builder()
+                    .retryStrategy(BasicRetryStrategy.builder()
+                            .maximumRetries(MAXIMUM_RETRIES)
+                            .waitTime(1l)
+                            .retriableException(TimeoutException.class)
+                            .build())
+                    .callable(() -> {
+                        final int call = calls.incrementAndGet();
+                        if (call == 1) {
+                            // ignores the interrupt of its timeout, finishing while the retry is running.
+                            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300l);
+                            while (System.nanoTime() < end) {
+                                Thread.yield();
+                            }
+                        } else if (call == 2) {
+                            try {
+                                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                            } catch (final InterruptedException ex) {
+                                retryInterrupted.set(true);
+                            }
+                        }
+                        return TEST_VALUE;
+                    })
+                    .executor(executor)
+                    .attemptTimeout(200l)
+                    .build()
+                    .start();
+            Assert.assertEquals(TEST_VALUE, answer.get(5, TimeUnit.SECONDS));
+            Assert.assertTrue(retryInterrupted.get());
+            Assert.assertEquals(3, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
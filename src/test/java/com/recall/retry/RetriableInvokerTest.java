@@ -0,0 +1,147 @@
+package com.recall.retry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.recall.retry.exceptions.DeadlineExceededException;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetriableInvokerTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private final RetriableInvoker invoker = RetriableInvoker.builder()
+            .retryStrategy(TEST_RETRY_STRATEGY)
+            .build();
+
+    @Test
+    public void testInvokeAllRetriesEachTaskIndependently() {
+        final AtomicInteger flakyAttempts = new AtomicInteger();
+        final AtomicInteger failingAttempts = new AtomicInteger();
+        final List<Callable<String>> tasks = Arrays.asList(
+                () -> "first",
+                () -> {
+                    if (flakyAttempts.incrementAndGet() < 3) {
+                        throw new TimeoutException();
+                    }
+                    return "second";
+                },
+                () -> {
+                    failingAttempts.incrementAndGet();
+                    throw new TimeoutException();
+                },
+                () -> {
+                    throw new IllegalStateException();
+                });
+
+        final List<InvocationResult<String>> results = this.invoker.invokeAll(tasks);
+
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals(InvocationResult.success("first"), results.get(0));
+        Assert.assertEquals("second", results.get(1).get());
+        Assert.assertEquals(3, flakyAttempts.get());
+        Assert.assertFalse(results.get(2).isSuccessful());
+        Assert.assertTrue(results.get(2).getFailure() instanceof ExhuastedRetriesException);
+        Assert.assertEquals(3, failingAttempts.get());
+        Assert.assertTrue(results.get(3).getFailure() instanceof NonRetriableException);
+    }
+
+    @Test
+    public void testInvokeAllHonorsGlobalDeadline() {
+        final RetriableInvoker deadlineInvoker = RetriableInvoker.builder()
+                .retryStrategy(BasicRetryStrategy.builder()
+                        .maximumRetries(100)
+                        .waitTime(20l)
+                        .retriableException(TimeoutException.class)
+                        .build())
+                .deadline(100l)
+                .build();
+        final List<Callable<String>> tasks = Arrays.asList(
+                () -> "fast",
+                () -> {
+                    throw new TimeoutException();
+                });
+
+        final long startTime = System.currentTimeMillis();
+        final List<InvocationResult<String>> results = deadlineInvoker.invokeAll(tasks);
+
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 1_000l);
+        Assert.assertEquals("fast", results.get(0).getValue());
+        Assert.assertTrue(results.get(1).getFailure() instanceof DeadlineExceededException);
+    }
+
+    @Test
+    public void testDeadlineDuringAttemptWithoutRetriedTimeout() {
+        final RetriableInvoker deadlineInvoker = RetriableInvoker.builder()
+                .retryStrategy(BasicRetryStrategy.builder()
+                        .maximumRetries(3)
+                        .waitTime(10l)
+                        .retriableException(IllegalStateException.class)
+                        .build())
+                .deadline(100l)
+                .build();
+        final List<Callable<String>> tasks = Arrays.asList(
+                () -> {
+                    Thread.sleep(2_000l);
+                    return "slow";
+                });
+
+        final long startTime = System.currentTimeMillis();
+        final List<InvocationResult<String>> results = deadlineInvoker.invokeAll(tasks);
+
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 1_000l);
+        Assert.assertTrue(results.get(0).getFailure() instanceof DeadlineExceededException);
+    }
+
+    @Test
+    public void testInvokeAnyReturnsFirstSuccess() throws Exception {
+        final List<Callable<String>> tasks = Arrays.asList(
+                () -> {
+                    throw new IllegalStateException();
+                },
+                () -> "answer",
+                () -> {
+                    Thread.sleep(500l);
+                    return "slow";
+                });
+
+        Assert.assertEquals("answer", this.invoker.invokeAny(tasks));
+    }
+
+    @Test
+    public void testInvokeAnyFailsWhenAllTasksFail() {
+        final List<Callable<String>> tasks = Arrays.asList(
+                () -> {
+                    throw new TimeoutException();
+                },
+                () -> {
+                    throw new IllegalStateException();
+                });
+
+        try {
+            this.invoker.invokeAny(tasks);
+            Assert.fail("Expected every task to fail");
+        } catch (final ExhuastedRetriesException | NonRetriableException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWorkStealingPoolIsShared() {
+        Assert.assertSame(RetryExecutors.workStealing(), RetryExecutors.workStealing());
+    }
+
+}
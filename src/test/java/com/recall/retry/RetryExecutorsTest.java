@@ -0,0 +1,64 @@
+package com.recall.retry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryExecutorsTest {
+
+    @Test
+    public void testSharedExecutorIsReused() {
+        Assert.assertSame(RetryExecutors.shared(), RetryExecutors.shared());
+    }
+
+    @Test
+    public void testSharedExecutorIsReplacedOnceShutDown() throws Exception {
+        final ExecutorService executor = RetryExecutors.shared();
+        executor.shutdown();
+        final ExecutorService replacement = RetryExecutors.shared();
+        Assert.assertNotSame(executor, replacement);
+        Assert.assertEquals("done", replacement.submit(() -> "done").get());
+    }
+
+    @Test
+    public void testVirtualThreadsExecutor() throws Exception {
+        final ExecutorService executor = RetryExecutors.virtualThreads();
+        if (RetryExecutors.isVirtualThreadsSupported()) {
+            Assert.assertNotSame(RetryExecutors.shared(), executor);
+        } else {
+            Assert.assertSame(RetryExecutors.shared(), executor);
+        }
+        Assert.assertEquals("done", executor.submit(() -> "done").get());
+    }
+
+    @Test
+    public void testBoundedExecutorRejectsWhenFull() throws Exception {
+        final ExecutorService executor = RetryExecutors.newBoundedExecutor("test", 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+            try {
+                executor.execute(() -> awaitQuietly(release));
+                Assert.fail("Expected the bounded executor to reject the attempt");
+            } catch (final RejectedExecutionException expected) {
+                // expected
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.recall.retry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class SingleFlightTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    @Test
+    public void testConcurrentCallsShareExecution() throws Exception {
+        final SingleFlight<String, String> singleFlight = SingleFlight.<String, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<CompletableFuture<String>> answers = new ArrayList<>();
+        for (int ndx = 0; ndx < 50; ndx++) {
+            answers.add(singleFlight.callAsync("key", () -> {
+                calls.incrementAndGet();
+                release.await();
+                return "value";
+            }));
+        }
+        Assert.assertEquals(1, singleFlight.getInFlightCount());
+        release.countDown();
+        for (final CompletableFuture<String> answer : answers) {
+            Assert.assertEquals("value", answer.get(5, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void testExceptionIsSharedAndKeyCleanedUp() throws Exception {
+        final SingleFlight<String, String> singleFlight = SingleFlight.<String, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<String> first = singleFlight.callAsync("key", () -> {
+            calls.incrementAndGet();
+            throw new TimeoutException();
+        });
+        final CompletableFuture<String> second = singleFlight.callAsync("key", () -> "unused");
+        for (final CompletableFuture<String> answer : Arrays.asList(first, second)) {
+            try {
+                answer.get(5, TimeUnit.SECONDS);
+                Assert.fail("Expected the shared execution to be exhausted");
+            } catch (final ExecutionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof ExhuastedRetriesException);
+            }
+        }
+        Assert.assertEquals(0, singleFlight.getInFlightCount());
+        Assert.assertEquals("fresh", singleFlight.call("key", () -> "fresh"));
+    }
+
+    @Test
+    public void testCancellingOneCallerDoesNotAffectOthers() throws Exception {
+        final SingleFlight<String, String> singleFlight = SingleFlight.<String, String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<String> first = singleFlight.callAsync("key", () -> {
+            release.await();
+            return "value";
+        });
+        final CompletableFuture<String> second = singleFlight.callAsync("key", () -> "unused");
+        first.cancel(false);
+        release.countDown();
+        Assert.assertEquals("value", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRetryStrategyIsRequired() {
+        SingleFlight.<String, String> builder().build();
+    }
+
+    @Test
+    public void testFailedStartIsSharedAndKeyCleanedUp() throws Exception {
+        final RetryStrategy brokenStrategy = Mockito.mock(RetryStrategy.class);
+        Mockito.when(brokenStrategy.getExceptionHistoryPolicy())
+                .thenThrow(new IllegalStateException("broken"));
+        final SingleFlight<String, String> singleFlight = SingleFlight.<String, String> builder()
+                .retryStrategy(brokenStrategy)
+                .build();
+        for (int ndx = 0; ndx < 2; ndx++) {
+            try {
+                singleFlight.callAsync("key", () -> "unused").get(5, TimeUnit.SECONDS);
+                Assert.fail("Expected the execution to fail to start");
+            } catch (final ExecutionException ex) {
+                Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+            }
+            Assert.assertEquals(0, singleFlight.getInFlightCount());
+        }
+    }
+
+}
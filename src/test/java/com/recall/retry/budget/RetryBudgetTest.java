@@ -0,0 +1,94 @@
+package com.recall.retry.budget;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.exceptions.RetryBudgetExhaustedException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testWithdrawUntilEmpty() {
+        final RetryBudget retryBudget = RetryBudget.builder()
+                .minimumRetriesPerSecond(1)
+                .maximumTokens(2)
+                .build();
+        Assert.assertTrue(retryBudget.tryAcquireRetry());
+        Assert.assertTrue(retryBudget.tryAcquireRetry());
+        Assert.assertFalse(retryBudget.tryAcquireRetry());
+    }
+
+    @Test
+    public void testSuccessesDepositRatio() {
+        final RetryBudget retryBudget = RetryBudget.builder()
+                .retryRatio(0.1)
+                .minimumRetriesPerSecond(1)
+                .maximumTokens(5)
+                .build();
+        while (retryBudget.tryAcquireRetry()) {
+            // drain the initial balance
+        }
+        for (int ndx = 0; ndx < 20; ndx++) {
+            retryBudget.onSuccess();
+        }
+        Assert.assertTrue(retryBudget.tryAcquireRetry());
+        Assert.assertTrue(retryBudget.tryAcquireRetry());
+        Assert.assertFalse(retryBudget.tryAcquireRetry());
+    }
+
+    @Test
+    public void testBalanceIsCapped() {
+        final RetryBudget retryBudget = RetryBudget.builder()
+                .minimumRetriesPerSecond(1)
+                .maximumTokens(3)
+                .build();
+        for (int ndx = 0; ndx < 1_000; ndx++) {
+            retryBudget.onSuccess();
+        }
+        Assert.assertEquals(3l, retryBudget.getAvailableRetries());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEmptyBudgetFailsFast() throws Exception {
+        final RetryBudget retryBudget = RetryBudget.builder()
+                .minimumRetriesPerSecond(1)
+                .maximumTokens(1)
+                .build();
+        Assert.assertTrue(retryBudget.tryAcquireRetry());
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(10l)
+                .retriableException(TimeoutException.class)
+                .build()
+                .withRetryBudget(retryBudget);
+        final Callable<Object> callable = Mockito.mock(Callable.class);
+        Mockito.when(callable.call()).thenThrow(TimeoutException.class);
+
+        final CompletableFuture<Object> answer = RetriableExecution.<Object> builder()
+                .retryStrategy(retryStrategy)
+                .callable(callable)
+                .executor(Runnable::run)
+                .build()
+                .start();
+
+        try {
+            answer.get();
+            Assert.fail("Expected the empty retry budget to fail the call");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof RetryBudgetExhaustedException);
+            Assert.assertEquals(1, ((RetryBudgetExhaustedException) ex.getCause()).getRetryExceptions().size());
+        }
+        Mockito.verify(callable, Mockito.times(1)).call();
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.recall.retry.bulkhead;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.recall.AsynchronousRetriableCallable;
+import com.recall.SynchronousRetriableCallable;
+import com.recall.retry.exceptions.BulkheadFullException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class BulkheadTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testSemaphoreBulkheadQueuesThenRejects() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.builder()
+                .name("test")
+                .maximumConcurrentCalls(1)
+                .maximumQueueLength(1)
+                .executor(this.executor)
+                .build();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch queuedRan = new CountDownLatch(1);
+        Assert.assertTrue(bulkhead.tryExecute(() -> {
+            started.countDown();
+            await(release);
+        }));
+        Assert.assertTrue(started.await(1l, TimeUnit.SECONDS));
+        Assert.assertTrue(bulkhead.tryExecute(queuedRan::countDown));
+        Assert.assertFalse(bulkhead.tryExecute(() -> {}));
+        Assert.assertEquals(1, bulkhead.getActiveCount());
+        Assert.assertEquals(1, bulkhead.getQueueLength());
+        try {
+            bulkhead.execute(() -> {});
+            Assert.fail("Expected the full bulkhead to reject the task");
+        } catch (final RejectedExecutionException ex) {
+            // expected
+        }
+
+        release.countDown();
+        Assert.assertTrue(queuedRan.await(1l, TimeUnit.SECONDS));
+        Assert.assertEquals(0, bulkhead.getQueueLength());
+    }
+
+    @Test
+    public void testThreadPoolBulkheadRunsOnOwnThreads() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.builder()
+                .name("inventory")
+                .maximumConcurrentCalls(2)
+                .build();
+        try {
+            final CompletableFuture<String> threadName = new CompletableFuture<>();
+            bulkhead.execute(() -> threadName.complete(Thread.currentThread().getName()));
+            Assert.assertTrue(threadName.get(1l, TimeUnit.SECONDS).startsWith("recall-bulkhead-inventory"));
+        } finally {
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetriesRunInOwningBulkhead() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.builder()
+                .name("test")
+                .maximumConcurrentCalls(1)
+                .build();
+        final AtomicInteger attempts = new AtomicInteger();
+        try {
+            final SynchronousRetriableCallable<String> caller = SynchronousRetriableCallable.<String> builder()
+                    .retryStrategy(TEST_RETRY_STRATEGY)
+                    .callable(() -> {
+                        Assert.assertTrue(Thread.currentThread().getName().startsWith("recall-bulkhead-test"));
+                        if (attempts.incrementAndGet() < 3) {
+                            throw new TimeoutException();
+                        }
+                        return "answer";
+                    })
+                    .bulkhead(bulkhead)
+                    .build();
+            Assert.assertEquals("answer", caller.call());
+            Assert.assertEquals(3, attempts.get());
+        } finally {
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    public void testFullBulkheadFailsFast() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.builder()
+                .name("test")
+                .maximumConcurrentCalls(1)
+                .executor(this.executor)
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsynchronousRetriableCallable<String> caller = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    release.await();
+                    return "answer";
+                })
+                .bulkhead(bulkhead)
+                .build();
+        final CompletableFuture<String> first = caller.callAsync();
+        try {
+            caller.callAsync().get(1l, TimeUnit.SECONDS);
+            Assert.fail("Expected the second call to be rejected");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof BulkheadFullException);
+        }
+        release.countDown();
+        Assert.assertEquals("answer", first.get(1l, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRejectedQueuedAttemptFailsCall() throws Exception {
+        final Bulkhead bulkhead = Bulkhead.builder()
+                .name("test")
+                .maximumConcurrentCalls(1)
+                .maximumQueueLength(1)
+                .executor(this.executor)
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsynchronousRetriableCallable<String> caller = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    release.await();
+                    return "answer";
+                })
+                .bulkhead(bulkhead)
+                .build();
+        final CompletableFuture<String> first = caller.callAsync();
+        final CompletableFuture<String> queued = caller.callAsync();
+        Assert.assertEquals(1, bulkhead.getQueueLength());
+
+        this.executor.shutdown();
+        release.countDown();
+        Assert.assertEquals("answer", first.get(1l, TimeUnit.SECONDS));
+        try {
+            queued.get(1l, TimeUnit.SECONDS);
+            Assert.fail("Expected the queued attempt to be rejected");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof NonRetriableException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
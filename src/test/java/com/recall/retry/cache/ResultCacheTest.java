@@ -0,0 +1,109 @@
+package com.recall.retry.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+
+public class ResultCacheTest {
+
+    private static final Callable<String> EXHAUSTED = () -> {
+        throw new ExhuastedRetriesException(ImmutableList.of());
+    };
+
+    @Test
+    public void testFreshResultSkipsCall() throws Exception {
+        final ResultCache<String, String> cache = ResultCache.<String, String> builder()
+                .timeToLive(TimeUnit.MINUTES.toMillis(1))
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        final Callable<String> retriedCall = () -> "value-" + calls.incrementAndGet();
+        Assert.assertEquals("value-1", cache.call("key", retriedCall));
+        Assert.assertEquals("value-1", cache.call("key", retriedCall));
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testExpiredResultIsRefreshed() throws Exception {
+        final ResultCache<String, String> cache = ResultCache.<String, String> builder()
+                .timeToLive(20l)
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        final Callable<String> retriedCall = () -> "value-" + calls.incrementAndGet();
+        Assert.assertEquals("value-1", cache.call("key", retriedCall));
+        Thread.sleep(40l);
+        Assert.assertNull(cache.getIfFresh("key"));
+        Assert.assertEquals("value-2", cache.call("key", retriedCall));
+    }
+
+    @Test
+    public void testServeStaleOnExhaustion() throws Exception {
+        final ResultCache<String, String> cache = ResultCache.<String, String> builder()
+                .timeToLive(20l)
+                .serveStaleOnExhaustion(true)
+                .build();
+        cache.put("key", "stale");
+        Thread.sleep(40l);
+        Assert.assertEquals("stale", cache.call("key", EXHAUSTED));
+        Assert.assertEquals("stale", cache.callAsync("key", () -> {
+            final CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new ExhuastedRetriesException(ImmutableList.of()));
+            return failed;
+        }).get());
+        try {
+            cache.call("missing", EXHAUSTED);
+            Assert.fail("Expected the exhausted exception without a cached result");
+        } catch (final ExhuastedRetriesException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = ExhuastedRetriesException.class)
+    public void testNoStaleWhenDisabled() throws Exception {
+        final ResultCache<String, String> cache = ResultCache.<String, String> builder()
+                .timeToLive(20l)
+                .build();
+        cache.put("key", "stale");
+        Thread.sleep(40l);
+        cache.call("key", EXHAUSTED);
+    }
+
+    @Test
+    public void testScanDoesNotEvictFrequentlyReadEntries() throws Exception {
+        final ResultCache<Integer, String> cache = ResultCache.<Integer, String> builder()
+                .maximumSize(10)
+                .build();
+        cache.put(0, "hot");
+        Assert.assertEquals("hot", cache.getIfFresh(0));
+        for (int key = 1; key <= 100; key++) {
+            cache.put(key, "cold-" + key);
+        }
+        Assert.assertEquals(10, cache.size());
+        Assert.assertEquals("hot", cache.getIfFresh(0));
+        Assert.assertNull(cache.getIfFresh(1));
+        Assert.assertEquals("cold-100", cache.getIfFresh(100));
+    }
+
+    @Test
+    public void testOtherExceptionsPropagate() throws Exception {
+        final ResultCache<String, String> cache = ResultCache.<String, String> builder()
+                .serveStaleOnExhaustion(true)
+                .build();
+        try {
+            cache.call("key", () -> {
+                throw new TimeoutException();
+            });
+            Assert.fail("Expected the checked exception to be wrapped");
+        } catch (final RuntimeException ex) {
+            Assert.assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.recall.retry.circuitbreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.exceptions.CircuitBreakerOpenException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class CircuitBreakerTest {
+
+    private static CircuitBreaker newCircuitBreaker() {
+        return CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .openDurationMillis(50l)
+                .halfOpenPermits(2)
+                .build();
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+        final CircuitBreaker circuitBreaker = newCircuitBreaker();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.onFailure();
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testHalfOpenCloses() throws Exception {
+        final CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int ndx = 0; ndx < 4; ndx++) {
+            circuitBreaker.onFailure();
+        }
+        Thread.sleep(60l);
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenReopensOnFailure() throws Exception {
+        final CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int ndx = 0; ndx < 4; ndx++) {
+            circuitBreaker.onFailure();
+        }
+        Thread.sleep(60l);
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testConcurrentAcquirersGetAtMostHalfOpenPermits() throws Exception {
+        final int threads = 8;
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(1)
+                .openDurationMillis(1l)
+                .halfOpenPermits(2)
+                .build();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                circuitBreaker.onFailure();
+                Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+                Thread.sleep(2l);
+                final CyclicBarrier barrier = new CyclicBarrier(threads);
+                final AtomicInteger granted = new AtomicInteger();
+                final List<Future<?>> acquirers = new ArrayList<>();
+                for (int ndx = 0; ndx < threads; ndx++) {
+                    acquirers.add(executor.submit(() -> {
+                        barrier.await();
+                        if (circuitBreaker.tryAcquirePermission()) {
+                            granted.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (final Future<?> acquirer : acquirers) {
+                    acquirer.get(5, TimeUnit.SECONDS);
+                }
+                Assert.assertEquals(2, granted.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOpenCircuitNeverTouchesExecutor() throws Exception {
+        // Stays open long enough to outlast creating the mocks and loading the classes below on a cold JVM.
+        final CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .name("test")
+                .minimumCalls(4)
+                .openDurationMillis(60_000l)
+                .build();
+        for (int ndx = 0; ndx < 4; ndx++) {
+            circuitBreaker.onFailure();
+        }
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(3)
+                .waitTime(10l)
+                .retriableException(TimeoutException.class)
+                .build()
+                .withCircuitBreaker(circuitBreaker);
+        final Callable<Object> callable = Mockito.mock(Callable.class);
+        final Executor executor = Mockito.mock(Executor.class);
+
+        final CompletableFuture<Object> answer = RetriableExecution.<Object> builder()
+                .retryStrategy(retryStrategy)
+                .callable(callable)
+                .executor(executor)
+                .build()
+                .start();
+
+        try {
+            answer.get();
+            Assert.fail("Expected the open circuit breaker to reject the call");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof CircuitBreakerOpenException);
+        }
+        Mockito.verifyZeroInteractions(executor, callable);
+    }
+
+}
@@ -0,0 +1,263 @@
+package com.recall.retry.flow;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.NonRetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetryPublisherTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    @Test
+    public void testElementsRetriedAndEmittedInOrder() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final ListPublisher<Integer> upstream = new ListPublisher<>(Arrays.asList(1, 2, 3));
+        final CollectingSubscriber<String> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        RetryPublisher.<Integer, String> builder()
+                .upstream(upstream)
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .function(element -> {
+                    if (attempts.incrementAndGet() % 2 == 1) {
+                        throw new TimeoutException();
+                    }
+                    return "element-" + element;
+                })
+                .build()
+                .subscribe(subscriber);
+
+        Assert.assertTrue(subscriber.terminated.await(2l, TimeUnit.SECONDS));
+        Assert.assertNull(subscriber.error);
+        Assert.assertEquals(Arrays.asList("element-1", "element-2", "element-3"), subscriber.received);
+        Assert.assertEquals(6, attempts.get());
+    }
+
+    @Test
+    public void testDemandIsHonored() throws Exception {
+        final ListPublisher<Integer> upstream = new ListPublisher<>(Arrays.asList(1, 2, 3));
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(1l);
+        RetryPublisher.<Integer, Integer> builder()
+                .upstream(upstream)
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .function(element -> element * 10)
+                .build()
+                .subscribe(subscriber);
+
+        Thread.sleep(100l);
+        Assert.assertEquals(Arrays.asList(10), subscriber.received);
+        Assert.assertEquals(1, upstream.requested.get());
+
+        subscriber.subscription.request(5l);
+        Assert.assertTrue(subscriber.terminated.await(2l, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(10, 20, 30), subscriber.received);
+        Assert.assertEquals(3, upstream.requested.get());
+    }
+
+    @Test
+    public void testExhaustedElementFailsStream() throws Exception {
+        final ListPublisher<Integer> upstream = new ListPublisher<>(Arrays.asList(1, 2, 3));
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        RetryPublisher.<Integer, Integer> builder()
+                .upstream(upstream)
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .function(element -> {
+                    if (element == 2) {
+                        throw new TimeoutException();
+                    }
+                    return element;
+                })
+                .build()
+                .subscribe(subscriber);
+
+        Assert.assertTrue(subscriber.terminated.await(2l, TimeUnit.SECONDS));
+        Assert.assertTrue(subscriber.error instanceof ExhuastedRetriesException);
+        Assert.assertEquals(Arrays.asList(1), subscriber.received);
+        Assert.assertTrue(upstream.cancelled.get());
+    }
+
+    @Test
+    public void testNonRetriableElementFailsStream() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final ListPublisher<Integer> upstream = new ListPublisher<>(Arrays.asList(1, 2));
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        RetryPublisher.<Integer, Integer> builder()
+                .upstream(upstream)
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .function(element -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException();
+                })
+                .build()
+                .subscribe(subscriber);
+
+        Assert.assertTrue(subscriber.terminated.await(2l, TimeUnit.SECONDS));
+        Assert.assertTrue(subscriber.error instanceof NonRetriableException);
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertTrue(subscriber.received.isEmpty());
+    }
+
+    @Test
+    public void testAtMostOneElementInFlight() throws Exception {
+        final int elements = 500;
+        final AtomicInteger mapping = new AtomicInteger();
+        final AtomicInteger maximumMapping = new AtomicInteger();
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger maximumOutstanding = new AtomicInteger();
+        final ExecutorService upstreamExecutor = Executors.newSingleThreadExecutor();
+        final Publisher<Integer> upstream = subscriber -> {
+            final AtomicInteger next = new AtomicInteger();
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void request(long n) {
+                    maximumOutstanding.accumulateAndGet(outstanding.addAndGet((int) n), Math::max);
+                    for (long count = 0; count < n; count++) {
+                        upstreamExecutor.execute(() -> {
+                            final int element = next.incrementAndGet();
+                            if (element > elements) {
+                                subscriber.onComplete();
+                                return;
+                            }
+                            outstanding.decrementAndGet();
+                            subscriber.onNext(element);
+                        });
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+
+            });
+        };
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        try {
+            RetryPublisher.<Integer, Integer> builder()
+                    .upstream(upstream)
+                    .retryStrategy(TEST_RETRY_STRATEGY)
+                    .function(element -> {
+                        maximumMapping.accumulateAndGet(mapping.incrementAndGet(), Math::max);
+                        mapping.decrementAndGet();
+                        return element;
+                    })
+                    .build()
+                    .subscribe(subscriber);
+
+            Assert.assertTrue(subscriber.terminated.await(5l, TimeUnit.SECONDS));
+        } finally {
+            upstreamExecutor.shutdownNow();
+        }
+        Assert.assertNull(subscriber.error);
+        Assert.assertEquals(elements, subscriber.received.size());
+        Assert.assertEquals(1, maximumMapping.get());
+        Assert.assertEquals(1, maximumOutstanding.get());
+    }
+
+    /**
+     * Publishes the elements of a list to a single subscriber, honoring its demand.
+     */
+    private static final class ListPublisher<T> implements Publisher<T> {
+
+        private final List<T> elements;
+
+        private final AtomicInteger requested = new AtomicInteger();
+
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        ListPublisher(final List<T> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public void subscribe(final Subscriber<? super T> subscriber) {
+            final Iterator<T> iterator = this.elements.iterator();
+            subscriber.onSubscribe(new Subscription() {
+
+                @Override
+                public void request(long n) {
+                    for (long count = 0; count < n && !ListPublisher.this.cancelled.get(); count++) {
+                        if (!iterator.hasNext()) {
+                            subscriber.onComplete();
+                            return;
+                        }
+                        ListPublisher.this.requested.incrementAndGet();
+                        subscriber.onNext(iterator.next());
+                    }
+                    if (!iterator.hasNext() && !ListPublisher.this.cancelled.get()) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    ListPublisher.this.cancelled.set(true);
+                }
+
+            });
+        }
+
+    }
+
+    private static final class CollectingSubscriber<T> implements Subscriber<T> {
+
+        private final long initialDemand;
+
+        private final List<T> received = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        private volatile Subscription subscription;
+
+        private volatile Throwable error;
+
+        CollectingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(this.initialDemand);
+        }
+
+        @Override
+        public void onNext(final T element) {
+            this.received.add(element);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.error = throwable;
+            this.terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.terminated.countDown();
+        }
+
+    }
+
+}
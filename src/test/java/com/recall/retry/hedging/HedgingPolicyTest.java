@@ -0,0 +1,183 @@
+package com.recall.retry.hedging;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.limiter.ConcurrencyLimiter;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class HedgingPolicyTest {
+
+    private static final RetryStrategy BASE_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private ExecutorService executor;
+
+    @Before
+    public void before() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void after() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testFixedHedgeDelay() {
+        final HedgingPolicy hedgingPolicy = HedgingPolicy.builder()
+                .hedgeDelay(25l)
+                .build();
+        Assert.assertEquals(25l, hedgingPolicy.getCurrentHedgeDelay());
+        Assert.assertEquals(1, hedgingPolicy.getMaximumHedges());
+        hedgingPolicy.recordLatency(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(25l, hedgingPolicy.getCurrentHedgeDelay());
+    }
+
+    @Test
+    public void testPercentileHedgeDelay() {
+        final HedgingPolicy hedgingPolicy = HedgingPolicy.builder()
+                .hedgeDelay(25l)
+                .latencyPercentile(0.9)
+                .build();
+        for (int ndx = 1; ndx <= 128; ndx++) {
+            hedgingPolicy.recordLatency(TimeUnit.MILLISECONDS.toNanos(ndx));
+        }
+        Assert.assertEquals(116l, hedgingPolicy.getCurrentHedgeDelay());
+    }
+
+    @Test
+    public void testSlowAttemptIsHedgedAndCancelled() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch loserFinished = new CountDownLatch(1);
+        final RetryStrategy retryStrategy = BASE_RETRY_STRATEGY.withHedgingPolicy(HedgingPolicy.builder()
+                .hedgeDelay(20l)
+                .maximumHedges(2)
+                .build());
+
+        final CompletableFuture<String> answer = RetriableExecution.<String> builder()
+                .retryStrategy(retryStrategy)
+                .callable(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        } catch (final InterruptedException ex) {
+                            interrupted.set(true);
+                        } finally {
+                            loserFinished.countDown();
+                        }
+                        return "slow";
+                    }
+                    return "hedged";
+                })
+                .executor(this.executor)
+                .build()
+                .start();
+
+        Assert.assertEquals("hedged", answer.get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(loserFinished.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(interrupted.get());
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testLatencyOfLosingAttemptIsRecorded() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final HedgingPolicy hedgingPolicy = Mockito.spy(HedgingPolicy.builder()
+                .hedgeDelay(20l)
+                .latencyPercentile(0.9)
+                .build());
+
+        final CompletableFuture<String> answer = RetriableExecution.<String> builder()
+                .retryStrategy(BASE_RETRY_STRATEGY.withHedgingPolicy(hedgingPolicy))
+                .callable(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        return "slow";
+                    }
+                    return "hedged";
+                })
+                .executor(this.executor)
+                .build()
+                .start();
+
+        Assert.assertEquals("hedged", answer.get(5, TimeUnit.SECONDS));
+        final ArgumentCaptor<Long> latencies = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(hedgingPolicy, Mockito.timeout(5_000l).times(2)).recordLatency(latencies.capture());
+        Assert.assertTrue(Collections.max(latencies.getAllValues()) >= TimeUnit.MILLISECONDS.toNanos(20l));
+    }
+
+    @Test
+    public void testFailureWaitsForRunningHedge() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final RetryStrategy retryStrategy = BASE_RETRY_STRATEGY.withHedgingPolicy(HedgingPolicy.builder()
+                .hedgeDelay(10l)
+                .build());
+
+        final CompletableFuture<String> answer = RetriableExecution.<String> builder()
+                .retryStrategy(retryStrategy)
+                .callable(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        Thread.sleep(100l);
+                        throw new TimeoutException();
+                    }
+                    return "hedged";
+                })
+                .executor(this.executor)
+                .build()
+                .start();
+
+        Assert.assertEquals("hedged", answer.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testHedgeSkippedWithoutConcurrencyLimiterPermit() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maximumLimit(1)
+                .build();
+        final RetryStrategy retryStrategy = BASE_RETRY_STRATEGY
+                .withConcurrencyLimiter(concurrencyLimiter)
+                .withHedgingPolicy(HedgingPolicy.builder()
+                        .hedgeDelay(10l)
+                        .build());
+
+        final CompletableFuture<String> answer = RetriableExecution.<String> builder()
+                .retryStrategy(retryStrategy)
+                .callable(() -> {
+                    calls.incrementAndGet();
+                    Thread.sleep(100l);
+                    return "slow";
+                })
+                .executor(this.executor)
+                .build()
+                .start();
+
+        Assert.assertEquals("slow", answer.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.recall.retry.journal;
+
+import java.io.InvalidClassException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.recall.AsynchronousRetriableCallable;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+import com.recall.retry.exceptions.RetriableException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class DeadLetterQueueTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(10l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private static final AtomicBoolean DEPENDENCY_UP = new AtomicBoolean();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDrainReturnsOldestFirst() throws Exception {
+        final DeadLetterQueue queue = newQueue().capacity(4_096).build();
+        Assert.assertTrue(queue.offer(new NamedTask("first"), 3, exhausted("first failed")));
+        Assert.assertTrue(queue.offer(new NamedTask("second"), 4, exhausted("second failed")));
+        Assert.assertTrue(queue.offer(new NamedTask("third"), 5, exhausted("third failed")));
+
+        final List<DeadLetter> letters = queue.drain(2);
+        Assert.assertEquals(2, letters.size());
+        Assert.assertEquals("first", letters.get(0).readTask().call());
+        Assert.assertEquals(3, letters.get(0).getRetryCount());
+        Assert.assertTrue(letters.get(0).getFailureSummary().contains("first failed"));
+        Assert.assertTrue(letters.get(0).getFailureSummary().contains("TimeoutException"));
+        Assert.assertEquals("second", letters.get(1).readTask().call());
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals("third", queue.drain(10).get(0).readTask().call());
+        Assert.assertTrue(queue.drain(10).isEmpty());
+    }
+
+    @Test
+    public void testFullQueueDropsAndWrapsAround() throws Exception {
+        final DeadLetterQueue queue = newQueue().capacity(1_024).build();
+        int offered = 0;
+        while (queue.offer(new NamedTask(taskName(offered)), 3, exhausted("failed"))) {
+            offered++;
+        }
+        Assert.assertTrue(offered > 1);
+        Assert.assertEquals(offered, queue.size());
+        Assert.assertEquals(1l, queue.getDroppedCount());
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(taskName(i), queue.drain(1).get(0).readTask().call());
+            Assert.assertTrue(queue.offer(new NamedTask(taskName(offered + i)), 3, exhausted("failed")));
+        }
+        Assert.assertEquals(offered, queue.size());
+    }
+
+    @Test
+    public void testFileBackedQueueSurvivesReopen() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("dead-letters.dlq");
+        try (DeadLetterQueue queue = newQueue().file(file).capacity(4_096).build()) {
+            queue.offer(new NamedTask("first"), 3, exhausted("failed"));
+            queue.offer(new NamedTask("second"), 3, exhausted("failed"));
+            queue.drain(1);
+        }
+
+        try (DeadLetterQueue queue = newQueue().file(file).build()) {
+            Assert.assertEquals(4_096, queue.getCapacity());
+            Assert.assertEquals(1, queue.size());
+            Assert.assertEquals("second", queue.drain(10).get(0).readTask().call());
+        }
+    }
+
+    @Test
+    public void testExhaustedCallRedriven() throws Exception {
+        DEPENDENCY_UP.set(false);
+        final DeadLetterQueue queue = newQueue().capacity(4_096).build();
+        final AsynchronousRetriableCallable<String> caller = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .deadLetterQueue(queue)
+                .callable(new DependencyTask())
+                .build();
+        try {
+            caller.callAsync().get(2l, TimeUnit.SECONDS);
+            Assert.fail("Expected the retries to be exhausted");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ExhuastedRetriesException);
+        }
+        Assert.assertEquals(1, queue.size());
+
+        DEPENDENCY_UP.set(true);
+        final List<CompletableFuture<String>> answers = caller.redriveAsync(10);
+        Assert.assertEquals(1, answers.size());
+        Assert.assertEquals("answer", answers.get(0).get(2l, TimeUnit.SECONDS));
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test(expected = InvalidClassException.class)
+    public void testTaskOfUnlistedClassNotRead() throws Exception {
+        final DeadLetterQueue queue = DeadLetterQueue.builder()
+                .allowedClass(DependencyTask.class)
+                .capacity(4_096)
+                .build();
+        Assert.assertTrue(queue.offer(new NamedTask("first"), 3, exhausted("failed")));
+        queue.drain(1).get(0).readTask();
+    }
+
+    private static DeadLetterQueue.Builder newQueue() {
+        return DeadLetterQueue.builder()
+                .allowedClass(NamedTask.class)
+                .allowedClass(DependencyTask.class);
+    }
+
+    private static String taskName(int index) {
+        return String.format("task-%04d", index);
+    }
+
+    private static ExhuastedRetriesException exhausted(final String message) {
+        return new ExhuastedRetriesException(message, Collections.singletonList(
+                new RetriableException(new TimeoutException(), 3, System.currentTimeMillis())));
+    }
+
+    private static final class NamedTask implements DurableCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        NamedTask(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String call() {
+            return this.name;
+        }
+
+    }
+
+    private static final class DependencyTask implements DurableCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String call() throws Exception {
+            if (!DEPENDENCY_UP.get()) {
+                throw new TimeoutException();
+            }
+            return "answer";
+        }
+
+    }
+
+}
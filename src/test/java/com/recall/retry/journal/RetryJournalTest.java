@@ -0,0 +1,247 @@
+package com.recall.retry.journal;
+
+import java.io.InvalidClassException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.recall.AsynchronousRetriableCallable;
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.scheduling.RetryScheduler;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetryJournalTest {
+
+    private static final int SEGMENT_SIZE = 4_096;
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(50l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private static final AtomicInteger FLAKY_ATTEMPTS = new AtomicInteger();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPendingCallsRecoveredAfterReopen() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (RetryJournal journal = open(directory)) {
+            final long first = journal.append(new NamedTask("first"));
+            final long second = journal.append(new NamedTask("second"));
+            final long third = journal.append(new NamedTask("third"));
+            journal.complete(second);
+            journal.reschedule(third, 2, 12_345l);
+            Assert.assertEquals(2, journal.getPendingCount());
+            Assert.assertTrue(first < third);
+        }
+
+        try (RetryJournal journal = open(directory)) {
+            final List<JournalEntry> entries = journal.takeRecoveredEntries();
+            Assert.assertEquals(2, entries.size());
+            Assert.assertEquals("first", entries.get(0).readTask().call());
+            Assert.assertEquals(0, entries.get(0).getRetryCount());
+            Assert.assertEquals("third", entries.get(1).readTask().call());
+            Assert.assertEquals(2, entries.get(1).getRetryCount());
+            Assert.assertEquals(12_345l, entries.get(1).getNextAttemptAt());
+            Assert.assertTrue(journal.takeRecoveredEntries().isEmpty());
+            Assert.assertTrue(journal.append(new NamedTask("fourth")) > entries.get(1).getId());
+        }
+    }
+
+    @Test
+    public void testCompactionReclaimsCompletedCalls() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (RetryJournal journal = open(directory)) {
+            final long longLived = journal.append(new NamedTask("long-lived"));
+            for (int i = 0; i < 1_000; i++) {
+                journal.complete(journal.append(new NamedTask("task-" + i)));
+            }
+            Assert.assertTrue(journal.getSegmentCount() <= 2);
+            Assert.assertEquals(journal.getSegmentCount(), countSegmentFiles(directory));
+            Assert.assertEquals(1, journal.getPendingCount());
+
+            journal.reschedule(longLived, 1, 1_000l);
+            journal.compact();
+            Assert.assertEquals(1, journal.getSegmentCount());
+        }
+
+        try (RetryJournal journal = open(directory)) {
+            final List<JournalEntry> entries = journal.takeRecoveredEntries();
+            Assert.assertEquals(1, entries.size());
+            Assert.assertEquals("long-lived", entries.get(0).readTask().call());
+            Assert.assertEquals(1, entries.get(0).getRetryCount());
+        }
+    }
+
+    @Test
+    public void testCompletedCallsNotRecoveredWhenCompletionStartsSegment() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (RetryJournal journal = open(directory)) {
+            final Deque<Long> pending = new ArrayDeque<>();
+            for (int i = 0; i < 1_000; i++) {
+                pending.addLast(journal.append(new NamedTask("task-" + i)));
+                if (pending.size() > 3) {
+                    journal.complete(pending.pollFirst());
+                }
+            }
+            while (!pending.isEmpty()) {
+                journal.complete(pending.pollFirst());
+            }
+            Assert.assertEquals(0, journal.getPendingCount());
+        }
+
+        try (RetryJournal journal = open(directory)) {
+            Assert.assertTrue(journal.takeRecoveredEntries().isEmpty());
+            Assert.assertEquals(journal.getSegmentCount(), countSegmentFiles(directory));
+        }
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (RetryJournal journal = open(directory)) {
+            journal.append(new NamedTask("intact"));
+            journal.append(new NamedTask("torn"));
+        }
+        final Path segment = segmentFiles(directory).get(0);
+        final long tornBody;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            tornBody = 8l + file.readInt() + 8l;
+            file.seek(tornBody + 30l);
+            file.writeByte(file.readByte() ^ 0xff);
+        }
+
+        try (RetryJournal journal = open(directory)) {
+            final List<JournalEntry> entries = journal.takeRecoveredEntries();
+            Assert.assertEquals(1, entries.size());
+            Assert.assertEquals("intact", entries.get(0).readTask().call());
+        }
+    }
+
+    @Test
+    public void testJournaledCallResumedAfterRestart() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        FLAKY_ATTEMPTS.set(0);
+        try (RetryJournal journal = open(directory)) {
+            final CompletableFuture<String> abandoned = RetriableExecution.<String> builder()
+                    .retryStrategy(TEST_RETRY_STRATEGY)
+                    .callable(new FlakyTask())
+                    .executor(Runnable::run)
+                    .scheduler(Mockito.mock(RetryScheduler.class))
+                    .journal(journal)
+                    .build()
+                    .start();
+            Assert.assertFalse(abandoned.isDone());
+            Assert.assertEquals(1, FLAKY_ATTEMPTS.get());
+        }
+
+        try (RetryJournal journal = open(directory)) {
+            final AsynchronousRetriableCallable<String> caller = AsynchronousRetriableCallable.<String> builder()
+                    .retryStrategy(TEST_RETRY_STRATEGY)
+                    .journal(journal)
+                    .callable(new FlakyTask())
+                    .build();
+            final List<CompletableFuture<String>> answers = caller.recoverAsync();
+            Assert.assertEquals(1, answers.size());
+            Assert.assertEquals("answer", answers.get(0).get(2l, TimeUnit.SECONDS));
+            Assert.assertEquals(2, FLAKY_ATTEMPTS.get());
+            Assert.assertEquals(0, journal.getPendingCount());
+            Assert.assertTrue(caller.recoverAsync().isEmpty());
+        }
+    }
+
+    @Test
+    public void testTaskOfUnlistedClassNotRead() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (RetryJournal journal = open(directory)) {
+            journal.append(new NamedTask("first"));
+        }
+
+        try (RetryJournal journal = RetryJournal.builder()
+                .directory(directory)
+                .segmentSize(SEGMENT_SIZE)
+                .allowedClass(FlakyTask.class)
+                .build()) {
+            final List<JournalEntry> entries = journal.takeRecoveredEntries();
+            Assert.assertEquals(1, entries.size());
+            try {
+                entries.get(0).readTask();
+                Assert.fail("Expected the unlisted task class to be rejected");
+            } catch (final InvalidClassException ex) {
+                Assert.assertTrue(ex.getMessage().contains(NamedTask.class.getName()));
+            }
+        }
+    }
+
+    private static RetryJournal open(final Path directory) {
+        return RetryJournal.builder()
+                .directory(directory)
+                .segmentSize(SEGMENT_SIZE)
+                .allowedClass(NamedTask.class)
+                .allowedClass(FlakyTask.class)
+                .build();
+    }
+
+    private static int countSegmentFiles(final Path directory) throws Exception {
+        return segmentFiles(directory).size();
+    }
+
+    private static List<Path> segmentFiles(final Path directory) throws Exception {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "retry-journal-*.log")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private static final class NamedTask implements DurableCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        NamedTask(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String call() {
+            return this.name;
+        }
+
+    }
+
+    private static final class FlakyTask implements DurableCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String call() throws Exception {
+            if (FLAKY_ATTEMPTS.incrementAndGet() == 1) {
+                throw new TimeoutException();
+            }
+            return "answer";
+        }
+
+    }
+
+}
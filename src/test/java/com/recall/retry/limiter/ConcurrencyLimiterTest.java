@@ -0,0 +1,186 @@
+package com.recall.retry.limiter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.recall.AsynchronousRetriableCallable;
+import com.recall.retry.exceptions.ConcurrencyLimitExceededException;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class ConcurrencyLimiterTest {
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(0l)
+            .retriableException(TimeoutException.class)
+            .build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testPermitsBoundedByLimit() {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(2)
+                .build();
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        Assert.assertFalse(concurrencyLimiter.tryAcquire());
+        Assert.assertEquals(2, concurrencyLimiter.getInFlight());
+        concurrencyLimiter.onIgnored();
+        Assert.assertEquals(2, concurrencyLimiter.getLimit());
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+    }
+
+    @Test
+    public void testDropsDecreaseLimitMultiplicatively() {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(10)
+                .minimumLimit(4)
+                .backoffRatio(0.5)
+                .build();
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        concurrencyLimiter.onDropped();
+        Assert.assertEquals(5, concurrencyLimiter.getLimit());
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        concurrencyLimiter.onDropped();
+        Assert.assertEquals(4, concurrencyLimiter.getLimit());
+        Assert.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testSuccessesIncreaseLimitAdditively() {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(2)
+                .maximumLimit(3)
+                .latencyThresholdMillis(100l)
+                .build();
+        // one permit of two in use is enough utilization for the limit to grow by 1/limit per success
+        for (int ndx = 0; ndx < 3; ndx++) {
+            Assert.assertTrue(concurrencyLimiter.tryAcquire());
+            concurrencyLimiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(1l));
+        }
+        Assert.assertEquals(3, concurrencyLimiter.getLimit());
+        for (int ndx = 0; ndx < 10; ndx++) {
+            Assert.assertTrue(concurrencyLimiter.tryAcquire());
+            Assert.assertTrue(concurrencyLimiter.tryAcquire());
+            concurrencyLimiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(1l));
+            concurrencyLimiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(1l));
+        }
+        Assert.assertEquals(3, concurrencyLimiter.getLimit());
+
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        concurrencyLimiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(500l));
+        Assert.assertEquals(2, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testQueuedInOrderUntilFull() {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maximumQueueLength(2)
+                .build();
+        final List<Integer> ran = new ArrayList<>();
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        Assert.assertTrue(concurrencyLimiter.enqueue(() -> ran.add(1)));
+        Assert.assertTrue(concurrencyLimiter.enqueue(() -> ran.add(2)));
+        Assert.assertFalse(concurrencyLimiter.enqueue(() -> ran.add(3)));
+        Assert.assertEquals(2, concurrencyLimiter.getQueueLength());
+        Assert.assertTrue(ran.isEmpty());
+
+        concurrencyLimiter.onIgnored();
+        Assert.assertEquals(1, ran.size());
+        concurrencyLimiter.onIgnored();
+        Assert.assertEquals(2, ran.size());
+        Assert.assertEquals(Integer.valueOf(1), ran.get(0));
+        Assert.assertEquals(0, concurrencyLimiter.getQueueLength());
+        Assert.assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testInterruptedAcquireHoldsNoPermit() throws Exception {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maximumQueueLength(1)
+                .build();
+        Assert.assertTrue(concurrencyLimiter.tryAcquire());
+        Thread.currentThread().interrupt();
+        try {
+            concurrencyLimiter.acquire();
+            Assert.fail("Expected acquire to be interrupted");
+        } catch (final InterruptedException ex) {
+            // expected
+        }
+        concurrencyLimiter.onIgnored();
+        Assert.assertEquals(0, concurrencyLimiter.getInFlight());
+        Assert.assertEquals(0, concurrencyLimiter.getQueueLength());
+    }
+
+    @Test
+    public void testExcessCallsFailFast() throws Exception {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsynchronousRetriableCallable<String> blocking = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY.withConcurrencyLimiter(concurrencyLimiter))
+                .callable(() -> {
+                    release.await();
+                    return "first";
+                })
+                .executor(this.executor)
+                .build();
+        final CompletableFuture<String> first = blocking.callAsync();
+        final CompletableFuture<String> second = blocking.callAsync();
+        try {
+            second.get(1l, TimeUnit.SECONDS);
+            Assert.fail("Expected the second call to be rejected");
+        } catch (final ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ConcurrencyLimitExceededException);
+        }
+        release.countDown();
+        Assert.assertEquals("first", first.get(1l, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExcessCallsQueue() throws Exception {
+        final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maximumQueueLength(1)
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsynchronousRetriableCallable<String> blocking = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY.withConcurrencyLimiter(concurrencyLimiter))
+                .callable(() -> {
+                    release.await();
+                    return "answer";
+                })
+                .executor(this.executor)
+                .build();
+        final CompletableFuture<String> first = blocking.callAsync();
+        final CompletableFuture<String> second = blocking.callAsync();
+        Assert.assertEquals(1, concurrencyLimiter.getQueueLength());
+        Assert.assertFalse(second.isDone());
+        release.countDown();
+        Assert.assertEquals("answer", first.get(1l, TimeUnit.SECONDS));
+        Assert.assertEquals("answer", second.get(1l, TimeUnit.SECONDS));
+        Assert.assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.recall.retry.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.retry.RetriableExecution;
+import com.recall.retry.strategies.BasicRetryStrategy;
+import com.recall.retry.strategies.RetryStrategy;
+
+public class RetryMetricsTest {
+
+    @Test
+    public void testHistogramBucketsAreWithinPrecision() {
+        for (long value = 0l; value < 100_000l; value += 7l) {
+            final int bucket = LatencyHistogram.bucketOf(value);
+            final long upper = LatencyHistogram.upperBoundOf(bucket);
+            Assert.assertTrue(value <= upper);
+            Assert.assertTrue(upper - value <= value / LatencyHistogram.SUB_BUCKETS);
+        }
+        Assert.assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1l; value <= 1_000l; value++) {
+            histogram.record(value * 1_000l);
+        }
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(1_000l, snapshot.getCount());
+        Assert.assertEquals(1_000_000l, snapshot.getMax());
+        Assert.assertEquals(500_500d, snapshot.getMean(), 0.001d);
+        final long p50 = snapshot.getValueAtPercentile(0.5d);
+        Assert.assertTrue(p50 >= 500_000l && p50 <= 500_000l * 9l / 8l);
+        Assert.assertEquals(1_000_000l, snapshot.getValueAtPercentile(1d));
+        Assert.assertEquals(0l, new LatencyHistogram().snapshot().getValueAtPercentile(0.5d));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecutionIsRecorded() throws Exception {
+        final RetryMetrics metrics = new RetryMetrics("test");
+        final RetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(3)
+                .retriableException(TimeoutException.class)
+                .retriableException(IOException.class)
+                .build()
+                .withRetryMetrics(metrics);
+        final Callable<Object> callable = Mockito.mock(Callable.class);
+        Mockito.when(callable.call())
+                .thenThrow(TimeoutException.class)
+                .thenThrow(IOException.class)
+                .thenReturn("value")
+                .thenThrow(IllegalStateException.class);
+
+        Assert.assertEquals("value", start(retryStrategy, callable).get());
+        try {
+            start(retryStrategy, callable).get();
+            Assert.fail("Expected a non-retriable failure");
+        } catch (final ExecutionException ex) {
+            // expected
+        }
+
+        final RetryMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(4l, snapshot.getAttempts());
+        Assert.assertEquals(1l, snapshot.getSuccesses());
+        Assert.assertEquals(2l, snapshot.getRetries());
+        Assert.assertEquals(0l, snapshot.getExhaustions());
+        Assert.assertEquals(1l, snapshot.getNonRetriableFailures());
+        Assert.assertEquals(Long.valueOf(1l), snapshot.getRetriesByException().get(IOException.class.getName()));
+        Assert.assertEquals(4l, snapshot.getAttemptLatency().getCount());
+        Assert.assertEquals(4l, snapshot.toMap().get("attempts"));
+        Assert.assertTrue(snapshot.toMap().containsKey("attemptLatency.p99"));
+    }
+
+    private static CompletableFuture<Object> start(final RetryStrategy retryStrategy, final Callable<Object> callable) {
+        return RetriableExecution.<Object> builder()
+                .retryStrategy(retryStrategy)
+                .callable(callable)
+                .executor(Runnable::run)
+                .build()
+                .start();
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.recall.retry.scheduling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingWheelRetrySchedulerTest {
+
+    private static final long TICK_MILLIS = 5l;
+
+    private TimingWheelRetryScheduler scheduler;
+
+    @Before
+    public void before() {
+        this.scheduler = TimingWheelRetryScheduler.builder()
+                .threadName("test-timing-wheel")
+                .tickDuration(TICK_MILLIS)
+                .tickUnit(TimeUnit.MILLISECONDS)
+                .ticksPerWheel(8)
+                .build();
+    }
+
+    @After
+    public void after() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    public void testTicksPerWheelRoundedToPowerOfTwo() {
+        Assert.assertEquals(8, this.scheduler.getTicksPerWheel());
+        Assert.assertEquals(16, TimingWheelRetryScheduler.builder().ticksPerWheel(9).build().getTicksPerWheel());
+    }
+
+    @Test
+    public void testTaskRunsAfterDelay() throws Exception {
+        final CountDownLatch ran = new CountDownLatch(1);
+        final long delay = 50l;
+        final long start = System.nanoTime();
+        this.scheduler.schedule(ran::countDown, delay, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= delay);
+    }
+
+    @Test
+    public void testDelayLongerThanOneRotation() throws Exception {
+        final CountDownLatch ran = new CountDownLatch(1);
+        final long delay = TICK_MILLIS * this.scheduler.getTicksPerWheel() * 3;
+        final long start = System.nanoTime();
+        this.scheduler.schedule(ran::countDown, delay, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= delay);
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch later = new CountDownLatch(1);
+        final ScheduledRetry cancelled = this.scheduler.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        this.scheduler.schedule(later::countDown, 60, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertTrue(cancelled.isCancelled());
+        Assert.assertFalse(cancelled.cancel());
+        Assert.assertTrue(later.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testManyTasks() throws Exception {
+        final int tasks = 10_000;
+        final CountDownLatch ran = new CountDownLatch(tasks);
+        for (int ndx = 0; ndx < tasks; ndx++) {
+            this.scheduler.schedule(ran::countDown, ndx % 100, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownRejectsPendingTasks() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch rejected = new CountDownLatch(2);
+        this.scheduler.schedule(runs::incrementAndGet, rejection -> rejected.countDown(), 1, TimeUnit.SECONDS);
+        this.scheduler.schedule(runs::incrementAndGet, rejection -> rejected.countDown(), 1, TimeUnit.HOURS);
+        this.scheduler.shutdown();
+        Assert.assertTrue(rejected.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testIsShutdown() {
+        Assert.assertFalse(this.scheduler.isShutdown());
+        this.scheduler.shutdown();
+        Assert.assertTrue(this.scheduler.isShutdown());
+    }
+
+    @Test
+    public void testSharedSchedulerIsReplacedOnceShutDown() throws Exception {
+        final RetryScheduler shared = RetrySchedulers.shared();
+        shared.shutdown();
+        final RetryScheduler replacement = RetrySchedulers.shared();
+        Assert.assertNotSame(shared, replacement);
+        final CountDownLatch ran = new CountDownLatch(1);
+        replacement.schedule(ran::countDown, 10, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testScheduleAfterShutdown() {
+        this.scheduler.shutdown();
+        this.scheduler.schedule(() -> {}, 10, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -56,6 +56,18 @@ public class BasicRetryStrategyTest {
         Assert.assertEquals(ImmutableList.of(TimeoutException.class), this.retryStrategy.getRetriableExceptions());
     }
 
+    @Test
+    public void testToBuilderKeepsExceptionHandling() {
+        final BasicRetryStrategy copy = this.retryStrategy.toBuilder()
+                .nonRetriableException(IllegalStateException.class)
+                .build();
+        Assert.assertEquals(ImmutableList.of(TimeoutException.class), copy.getRetriableExceptions());
+        Assert.assertEquals(ImmutableList.of(IllegalStateException.class), copy.getNonRetriableExceptions());
+        Assert.assertEquals(this.retryStrategy.getExceptionHistoryPolicy(), copy.getExceptionHistoryPolicy());
+        Assert.assertEquals(this.retryStrategy, this.retryStrategy.toBuilder().build());
+        Assert.assertNotEquals(this.retryStrategy, copy);
+    }
+
     @Test
     public void testNoRetriableExceptionsSpecified() {
         final BasicRetryStrategy retryStrategy =
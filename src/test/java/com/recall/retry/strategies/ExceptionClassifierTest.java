@@ -0,0 +1,67 @@
+package com.recall.retry.strategies;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class ExceptionClassifierTest {
+
+    @Test
+    public void testRetriableExceptions() {
+        final ExceptionClassifier classifier = ExceptionClassifier.of(ImmutableList.of(IOException.class));
+        Assert.assertTrue(classifier.isRetriable(new IOException()));
+        Assert.assertTrue(classifier.isRetriable(new FileNotFoundException()));
+        Assert.assertFalse(classifier.isRetriable(new TimeoutException()));
+        Assert.assertFalse(classifier.isRetriable(null));
+    }
+
+    @Test
+    public void testNoRetriableExceptions() {
+        Assert.assertFalse(ExceptionClassifier.none().isRetriable(new IOException()));
+    }
+
+    @Test
+    public void testDenyList() {
+        final ExceptionClassifier classifier = ExceptionClassifier.builder()
+                .retriableException(IOException.class)
+                .nonRetriableException(FileNotFoundException.class)
+                .build();
+        Assert.assertTrue(classifier.isRetriable(new IOException()));
+        Assert.assertFalse(classifier.isRetriable(new FileNotFoundException()));
+    }
+
+    @Test
+    public void testCauseMatching() {
+        final ExecutionException wrapped = new ExecutionException(new IOException());
+        final ExceptionClassifier classifier = ExceptionClassifier.builder()
+                .retriableException(IOException.class)
+                .nonRetriableException(IllegalStateException.class)
+                .causeMatching(true)
+                .build();
+        Assert.assertTrue(classifier.isRetriable(wrapped));
+        Assert.assertFalse(classifier.isRetriable(new IllegalStateException(new IOException())));
+        Assert.assertFalse(classifier.isRetriable(new ExecutionException(new TimeoutException())));
+        Assert.assertFalse(ExceptionClassifier.of(ImmutableList.of(IOException.class)).isRetriable(wrapped));
+    }
+
+    @Test
+    public void testStrategyUsesClassifier() {
+        final BasicRetryStrategy retryStrategy = BasicRetryStrategy.builder()
+                .maximumRetries(5)
+                .waitTime(100l)
+                .retriableException(IOException.class)
+                .nonRetriableException(FileNotFoundException.class)
+                .causeMatching(true)
+                .build();
+        Assert.assertTrue(retryStrategy.isRetriableException(new ExecutionException(new IOException())));
+        Assert.assertFalse(retryStrategy.isRetriableException(new FileNotFoundException()));
+        Assert.assertSame(retryStrategy.getExceptionClassifier(), retryStrategy.getExceptionClassifier());
+    }
+
+}
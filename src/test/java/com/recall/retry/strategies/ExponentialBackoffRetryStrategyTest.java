@@ -0,0 +1,60 @@
+package com.recall.retry.strategies;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+import com.recall.retry.ExceptionHistoryPolicy;
+import com.recall.retry.RetriableCallState;
+
+public class ExponentialBackoffRetryStrategyTest {
+
+    @Test
+    public void testConstructorMatchesBuilderDefaults() {
+        final ExponentialBackoffRetryStrategy constructed =
+                new ExponentialBackoffRetryStrategy(1_000l, 10l, 3, ImmutableSet.of(TimeoutException.class));
+        final ExponentialBackoffRetryStrategy built = ExponentialBackoffRetryStrategy.builder()
+                .maxRetryLapseTime(1_000l)
+                .initialDelay(10l)
+                .maximumRetries(3)
+                .retriableException(TimeoutException.class)
+                .build();
+        Assert.assertEquals(built, constructed);
+        Assert.assertEquals(ImmutableSet.of(TimeoutException.class), constructed.getRetriableExceptions());
+        Assert.assertTrue(constructed.getNonRetriableExceptions().isEmpty());
+        Assert.assertFalse(constructed.isCauseMatching());
+        Assert.assertEquals(ExceptionHistoryPolicy.all(), constructed.getExceptionHistoryPolicy());
+        Assert.assertTrue(constructed.isRetriableException(new TimeoutException()));
+        Assert.assertFalse(constructed.isRetriableException(new IOException()));
+    }
+
+    @Test
+    public void testWaitTimeDoublesWithinLapseTime() {
+        final ExponentialBackoffRetryStrategy retryStrategy =
+                new ExponentialBackoffRetryStrategy(60_000l, 10l, 3, ImmutableSet.of(TimeoutException.class));
+        Assert.assertEquals(20l, retryStrategy.getWaitTime(stateAt(1, Instant.now())));
+        Assert.assertEquals(80l, retryStrategy.getWaitTime(stateAt(3, Instant.now())));
+        Assert.assertEquals(RetryStrategy.EXHAUSTED, retryStrategy.getWaitTime(stateAt(4, Instant.now())));
+    }
+
+    @Test
+    public void testExhaustedOnceLapseTimeHasPassed() {
+        final ExponentialBackoffRetryStrategy retryStrategy =
+                new ExponentialBackoffRetryStrategy(1_000l, 10l, 3, ImmutableSet.of(TimeoutException.class));
+        Assert.assertEquals(RetryStrategy.EXHAUSTED,
+                retryStrategy.getWaitTime(stateAt(1, Instant.now().minusMillis(2_000l))));
+    }
+
+    private static RetriableCallState<?> stateAt(int retryCount, final Instant startTime) {
+        final RetriableCallState<?> callState = Mockito.mock(RetriableCallState.class);
+        Mockito.when(callState.getRetryCount()).thenReturn(retryCount);
+        Mockito.when(callState.getStartTime()).thenReturn(startTime);
+        return callState;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.recall.retry.strategies;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.retry.RetriableCallState;
+
+public class JitteredBackoffRetryStrategyTest {
+
+    private static final int MAXIMUM_RETRIES = 40;
+    private static final long BASE_DELAY = 100l;
+    private static final long MAXIMUM_DELAY = 5_000l;
+    private static final int SAMPLES = 1_000;
+
+    @Test
+    public void testExponentialIsCappedWithoutOverflow() {
+        Assert.assertEquals(100l, Backoff.exponential(100l, 0, 5_000l));
+        Assert.assertEquals(800l, Backoff.exponential(100l, 3, 5_000l));
+        Assert.assertEquals(5_000l, Backoff.exponential(100l, 6, 5_000l));
+        Assert.assertEquals(Long.MAX_VALUE, Backoff.exponential(100l, 62, Long.MAX_VALUE));
+        Assert.assertEquals(Long.MAX_VALUE, Backoff.exponential(100l, Integer.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testFullJitter() {
+        final RetryStrategy retryStrategy = FullJitterBackoffRetryStrategy.builder()
+                .baseDelay(BASE_DELAY)
+                .maximumDelay(MAXIMUM_DELAY)
+                .maximumRetries(MAXIMUM_RETRIES)
+                .build();
+        for (int retry = 1; retry <= MAXIMUM_RETRIES; retry++) {
+            final long ceiling = Math.min(MAXIMUM_DELAY, BASE_DELAY << Math.min(retry - 1, 20));
+            final RetriableCallState<?> callState = stateAt(retry, 0l);
+            for (int sample = 0; sample < SAMPLES; sample++) {
+                final long waitTime = retryStrategy.getWaitTime(callState);
+                Assert.assertTrue(waitTime >= 0l && waitTime <= ceiling);
+            }
+        }
+        Assert.assertEquals(RetryStrategy.EXHAUSTED, retryStrategy.getWaitTime(stateAt(MAXIMUM_RETRIES + 1, 0l)));
+    }
+
+    @Test
+    public void testEqualJitter() {
+        final RetryStrategy retryStrategy = EqualJitterBackoffRetryStrategy.builder()
+                .baseDelay(BASE_DELAY)
+                .maximumDelay(MAXIMUM_DELAY)
+                .maximumRetries(MAXIMUM_RETRIES)
+                .build();
+        for (int retry = 1; retry <= MAXIMUM_RETRIES; retry++) {
+            final long ceiling = Math.min(MAXIMUM_DELAY, BASE_DELAY << Math.min(retry - 1, 20));
+            final RetriableCallState<?> callState = stateAt(retry, 0l);
+            for (int sample = 0; sample < SAMPLES; sample++) {
+                final long waitTime = retryStrategy.getWaitTime(callState);
+                Assert.assertTrue(waitTime >= ceiling / 2l && waitTime <= ceiling);
+            }
+        }
+    }
+
+    @Test
+    public void testDecorrelatedJitter() {
+        final RetryStrategy retryStrategy = DecorrelatedJitterBackoffRetryStrategy.builder()
+                .baseDelay(BASE_DELAY)
+                .maximumDelay(MAXIMUM_DELAY)
+                .maximumRetries(MAXIMUM_RETRIES)
+                .build();
+        long previous = 0l;
+        for (int retry = 1; retry <= MAXIMUM_RETRIES; retry++) {
+            final long waitTime = retryStrategy.getWaitTime(stateAt(retry, previous));
+            Assert.assertTrue(waitTime >= BASE_DELAY);
+            Assert.assertTrue(waitTime <= Math.min(MAXIMUM_DELAY, Math.max(BASE_DELAY, previous) * 3l));
+            previous = waitTime;
+        }
+    }
+
+    @Test
+    public void testDefaultMaximumDelay() {
+        final RetryStrategy retryStrategy = FullJitterBackoffRetryStrategy.builder()
+                .baseDelay(BASE_DELAY)
+                .maximumRetries(MAXIMUM_RETRIES)
+                .build();
+        Assert.assertTrue(retryStrategy.getWaitTime(stateAt(MAXIMUM_RETRIES, 0l)) <= Backoff.DEFAULT_MAXIMUM_DELAY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RetriableCallState<?> stateAt(int retryCount, long lastWaitTime) {
+        final RetriableCallState<Object> callState = Mockito.mock(RetriableCallState.class);
+        Mockito.when(callState.getRetryCount()).thenReturn(retryCount);
+        Mockito.when(callState.getLastWaitTime()).thenReturn(lastWaitTime);
+        return callState;
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.recall.retry.strategies;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.recall.AsynchronousRetriableCallable;
+import com.recall.SynchronousRetriableCallable;
+import com.recall.retry.RetriableCallState;
+import com.recall.retry.exceptions.ExhuastedRetriesException;
+
+public class RetryAfterRetryStrategyTest {
+
+    private static final long WAIT_TIME = 20l;
+    private static final long MINIMUM_WAIT_TIME = 10l;
+    private static final long MAXIMUM_WAIT_TIME = 1_000l;
+
+    private static final RetryStrategy TEST_RETRY_STRATEGY = BasicRetryStrategy.builder()
+            .maximumRetries(3)
+            .waitTime(WAIT_TIME)
+            .retriableException(ThrottledException.class)
+            .retriableException(TimeoutException.class)
+            .build()
+            .withRetryAfter(RetryAfterExtractor.ofType(ThrottledException.class, ThrottledException::getRetryAfter),
+                    MINIMUM_WAIT_TIME, MAXIMUM_WAIT_TIME);
+
+    @Test
+    public void testHintIsBounded() {
+        Assert.assertEquals(300l, TEST_RETRY_STRATEGY.getWaitTime(stateAfter(new ThrottledException(300l))));
+        Assert.assertEquals(MINIMUM_WAIT_TIME, TEST_RETRY_STRATEGY.getWaitTime(stateAfter(new ThrottledException(0l))));
+        Assert.assertEquals(MAXIMUM_WAIT_TIME,
+                TEST_RETRY_STRATEGY.getWaitTime(stateAfter(new ThrottledException(60_000l))));
+    }
+
+    @Test
+    public void testHintFoundInCause() {
+        final Exception wrapped = new RuntimeException(new ThrottledException(300l));
+        Assert.assertEquals(300l, TEST_RETRY_STRATEGY.getWaitTime(stateAfter(wrapped)));
+    }
+
+    @Test
+    public void testFallsBackWithoutHint() {
+        Assert.assertEquals(WAIT_TIME, TEST_RETRY_STRATEGY.getWaitTime(stateAfter(new TimeoutException())));
+        Assert.assertEquals(WAIT_TIME,
+                TEST_RETRY_STRATEGY.getWaitTime(stateAfter(new ThrottledException(RetryAfterExtractor.NO_HINT))));
+        Assert.assertEquals(WAIT_TIME, TEST_RETRY_STRATEGY.getWaitTime(stateAfter(null)));
+    }
+
+    @Test
+    public void testExhaustedIgnoresHint() {
+        final RetriableCallState<?> callState = stateAfter(new ThrottledException(300l));
+        Mockito.when(callState.getRetryCount()).thenReturn(4);
+        Assert.assertEquals(RetryStrategy.EXHAUSTED, TEST_RETRY_STRATEGY.getWaitTime(callState));
+    }
+
+    @Test
+    public void testSynchronousCallWaitsAsHinted() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final SynchronousRetriableCallable<String> caller = SynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new ThrottledException(200l);
+                    }
+                    return "answer";
+                })
+                .build();
+        final long startTime = System.nanoTime();
+        Assert.assertEquals("answer", caller.call());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 200l);
+    }
+
+    @Test
+    public void testAsynchronousCallWaitsAsHinted() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AsynchronousRetriableCallable<String> caller = AsynchronousRetriableCallable.<String> builder()
+                .retryStrategy(TEST_RETRY_STRATEGY)
+                .callable(() -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new ThrottledException(200l);
+                    }
+                    return "answer";
+                })
+                .build();
+        final long startTime = System.nanoTime();
+        final CompletableFuture<String> answer = caller.callAsync();
+        Assert.assertEquals("answer", answer.get(2l, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 200l);
+    }
+
+    @Test
+    public void testExponentialBackoffWaitsAsHinted() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final SynchronousRetriableCallable<String> caller = SynchronousRetriableCallable.<String> builder()
+                .retryStrategy(exponentialBackoff(60_000l))
+                .callable(() -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new ThrottledException(200l);
+                    }
+                    return "answer";
+                })
+                .build();
+        final long startTime = System.nanoTime();
+        Assert.assertEquals("answer", caller.call());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 200l);
+    }
+
+    @Test
+    public void testExponentialBackoffExhaustedIgnoresHint() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final SynchronousRetriableCallable<String> caller = SynchronousRetriableCallable.<String> builder()
+                .retryStrategy(exponentialBackoff(1l))
+                .callable(() -> {
+                    attempts.incrementAndGet();
+                    Thread.sleep(10l);
+                    throw new ThrottledException(MINIMUM_WAIT_TIME);
+                })
+                .build();
+        try {
+            caller.call();
+            Assert.fail("Expected the retries to be exhausted once the lapse time has passed");
+        } catch (final ExhuastedRetriesException ere) {
+            Assert.assertEquals(1, attempts.get());
+        }
+    }
+
+    private static RetryStrategy exponentialBackoff(long maxRetryLapseTime) {
+        return ExponentialBackoffRetryStrategy.builder()
+                .maxRetryLapseTime(maxRetryLapseTime)
+                .initialDelay(1l)
+                .maximumRetries(3)
+                .retriableException(ThrottledException.class)
+                .build()
+                .withRetryAfter(RetryAfterExtractor.ofType(ThrottledException.class, ThrottledException::getRetryAfter),
+                        MINIMUM_WAIT_TIME, MAXIMUM_WAIT_TIME);
+    }
+
+    private static RetriableCallState<?> stateAfter(final Exception lastException) {
+        final RetriableCallState<?> callState = Mockito.mock(RetriableCallState.class);
+        Mockito.when(callState.getRetryCount()).thenReturn(1);
+        Mockito.when(callState.getLastException()).thenReturn(lastException);
+        return callState;
+    }
+
+    private static final class ThrottledException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfter;
+
+        ThrottledException(long retryAfter) {
+            super("Throttled, retry after " + retryAfter + "ms");
+            this.retryAfter = retryAfter;
+        }
+
+        long getRetryAfter() {
+            return this.retryAfter;
+        }
+
+    }
+
+}